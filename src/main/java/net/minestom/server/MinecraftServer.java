@@ -21,6 +21,8 @@ import net.minestom.server.listener.manager.PacketListenerManager;
 import net.minestom.server.monitoring.BenchmarkManager;
 import net.minestom.server.network.ConnectionManager;
 import net.minestom.server.network.PacketProcessor;
+import net.minestom.server.network.SlowClientPolicy;
+import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.play.PluginMessagePacket;
 import net.minestom.server.network.packet.server.play.ServerDifficultyPacket;
 import net.minestom.server.network.packet.server.play.UpdateViewDistancePacket;
@@ -46,6 +48,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
 
 /**
  * The main server class used to start the server and retrieve all the managers.
@@ -77,6 +82,8 @@ public final class MinecraftServer {
     public static final String THREAD_NAME_PARALLEL_CHUNK_SAVING = "Ms-ParallelChunkSaving";
     public static final int THREAD_COUNT_PARALLEL_CHUNK_SAVING = getThreadCount("minestom.save-thread-count", 2);
 
+    public static final String THREAD_NAME_CHUNK_IO = "Ms-ChunkIO";
+
     // Config
     // Can be modified at performance cost when increased
     public static final int TICK_PER_SECOND = Integer.getInteger("minestom.tps", 20);
@@ -85,6 +92,10 @@ public final class MinecraftServer {
     // Network monitoring
     private static int rateLimit = 300;
     private static int maxPacketSize = 30_000;
+    private static int maxPendingBytes = 16 * 1024 * 1024;
+    private static SlowClientPolicy slowClientPolicy = SlowClientPolicy.DROP_NON_CRITICAL;
+    private static int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private static final Map<Class<? extends ServerPacket>, Integer> COMPRESSION_LEVELS = new ConcurrentHashMap<>();
     // Network
     private static PacketListenerManager packetListenerManager;
     private static PacketProcessor packetProcessor;
@@ -239,6 +250,43 @@ public final class MinecraftServer {
         MinecraftServer.maxPacketSize = maxPacketSize;
     }
 
+    /**
+     * Gets the maximum number of bytes that can wait to be sent to a client
+     * before {@link #getSlowClientPolicy()} is applied.
+     *
+     * @return the maximum pending bytes per connection
+     */
+    public static int getMaxPendingBytes() {
+        return maxPendingBytes;
+    }
+
+    /**
+     * Changes the maximum number of bytes that can wait to be sent to a client.
+     *
+     * @param maxPendingBytes the new maximum pending bytes per connection
+     */
+    public static void setMaxPendingBytes(int maxPendingBytes) {
+        MinecraftServer.maxPendingBytes = maxPendingBytes;
+    }
+
+    /**
+     * Gets the policy applied to clients exceeding {@link #getMaxPendingBytes()}.
+     *
+     * @return the slow client policy
+     */
+    public static @NotNull SlowClientPolicy getSlowClientPolicy() {
+        return slowClientPolicy;
+    }
+
+    /**
+     * Changes the policy applied to clients exceeding {@link #getMaxPendingBytes()}.
+     *
+     * @param slowClientPolicy the new slow client policy
+     */
+    public static void setSlowClientPolicy(@NotNull SlowClientPolicy slowClientPolicy) {
+        MinecraftServer.slowClientPolicy = slowClientPolicy;
+    }
+
     /**
      * Gets the server difficulty showed in game option.
      *
@@ -513,6 +561,61 @@ public final class MinecraftServer {
         MinecraftServer.compressionThreshold = compressionThreshold;
     }
 
+    /**
+     * Gets the default deflate level used to compress packets.
+     *
+     * @return the compression level
+     */
+    public static int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Changes the default deflate level used to compress packets.
+     *
+     * @param compressionLevel the new compression level, between {@link Deflater#NO_COMPRESSION}
+     *                         and {@link Deflater#BEST_COMPRESSION} or {@link Deflater#DEFAULT_COMPRESSION}
+     */
+    public static void setCompressionLevel(int compressionLevel) {
+        checkCompressionLevel(compressionLevel);
+        MinecraftServer.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Gets the deflate level used to compress a type of packet.
+     *
+     * @param packetClass the packet class
+     * @return the compression level, {@link Deflater#NO_COMPRESSION} if the packet is sent uncompressed
+     */
+    public static int getCompressionLevel(@NotNull Class<? extends ServerPacket> packetClass) {
+        return COMPRESSION_LEVELS.getOrDefault(packetClass, compressionLevel);
+    }
+
+    /**
+     * Changes the deflate level used to compress a type of packet.
+     * <p>
+     * {@link Deflater#NO_COMPRESSION} skips compression, useful for packets whose content
+     * does not compress well. Lower levels trade bandwidth for CPU on frequent packets.
+     *
+     * @param packetClass      the packet class
+     * @param compressionLevel the compression level, null to use {@link #getCompressionLevel()}
+     */
+    public static void setCompressionLevel(@NotNull Class<? extends ServerPacket> packetClass,
+                                           @Nullable Integer compressionLevel) {
+        if (compressionLevel == null) {
+            COMPRESSION_LEVELS.remove(packetClass);
+            return;
+        }
+        checkCompressionLevel(compressionLevel);
+        COMPRESSION_LEVELS.put(packetClass, compressionLevel);
+    }
+
+    private static void checkCompressionLevel(int compressionLevel) {
+        Check.argCondition(compressionLevel != Deflater.DEFAULT_COMPRESSION &&
+                        (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION),
+                "Invalid compression level: {0}", compressionLevel);
+    }
+
     /**
      * Gets if the packet caching feature is enabled.
      * <p>
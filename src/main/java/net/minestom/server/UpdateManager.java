@@ -1,6 +1,7 @@
 package net.minestom.server;
 
 import net.minestom.server.acquirable.Acquirable;
+import net.minestom.server.entity.Player;
 import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.InstanceManager;
@@ -8,8 +9,9 @@ import net.minestom.server.monitoring.TickMonitor;
 import net.minestom.server.network.ConnectionManager;
 import net.minestom.server.thread.MinestomThread;
 import net.minestom.server.thread.ThreadDispatcher;
+import net.minestom.server.thread.TickThread;
 import net.minestom.server.utils.PacketUtils;
-import net.minestom.server.utils.async.AsyncUtils;
+import net.minestom.server.utils.validate.Check;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -27,9 +29,9 @@ import java.util.function.LongConsumer;
  */
 public final class UpdateManager {
     private volatile boolean stopRequested;
+    private volatile boolean started;
 
-    // TODO make configurable
-    private final ThreadDispatcher threadDispatcher = ThreadDispatcher.singleThread();
+    private ThreadDispatcher threadDispatcher = ThreadDispatcher.singleThread();
 
     private final Queue<LongConsumer> tickStartCallbacks = new ConcurrentLinkedQueue<>();
     private final Queue<LongConsumer> tickEndCallbacks = new ConcurrentLinkedQueue<>();
@@ -45,6 +47,7 @@ public final class UpdateManager {
      * Starts the server loop in the update thread.
      */
     void start() {
+        this.started = true;
         new TickSchedulerThread().start();
     }
 
@@ -57,6 +60,23 @@ public final class UpdateManager {
         return threadDispatcher;
     }
 
+    /**
+     * Changes the {@link ThreadDispatcher} used to tick chunks and entities,
+     * the previous one is shut down.
+     * <p>
+     * WARNING: this need to be called before any instance is registered.
+     *
+     * @param threadDispatcher the new thread dispatcher
+     * @throws IllegalStateException if the server is started or if an instance has already been registered
+     */
+    public void setThreadDispatcher(@NotNull ThreadDispatcher threadDispatcher) {
+        Check.stateCondition(started, "The thread dispatcher cannot be changed after the server has been started.");
+        Check.stateCondition(!MinecraftServer.getInstanceManager().getInstances().isEmpty(),
+                "The thread dispatcher must be changed before registering any instance.");
+        this.threadDispatcher.shutdown();
+        this.threadDispatcher = threadDispatcher;
+    }
+
     /**
      * Signals the {@link ThreadDispatcher} that an instance has been created.
      * <p>
@@ -185,10 +205,10 @@ public final class UpdateManager {
 
                     // Flush all waiting packets
                     PacketUtils.flush();
-                    AsyncUtils.runAsync(() -> MinecraftServer.getConnectionManager()
-                            .getOnlinePlayers()
-                            .parallelStream()
-                            .forEach(player -> player.getPlayerConnection().flush()));
+                    // Hand the packets over to the socket workers
+                    for (Player player : connectionManager.getOnlinePlayers()) {
+                        player.getPlayerConnection().flush();
+                    }
 
                     // the time that the tick took in nanoseconds
                     final long tickTime = System.nanoTime() - currentTime;
@@ -200,7 +220,12 @@ public final class UpdateManager {
                     if (!tickMonitors.isEmpty()) {
                         final double acquisitionTimeMs = Acquirable.getAcquiringTime() / 1e6D;
                         final double tickTimeMs = tickTime / 1e6D;
-                        final TickMonitor tickMonitor = new TickMonitor(tickTimeMs, acquisitionTimeMs);
+                        final List<TickThread> threads = threadDispatcher.getThreads();
+                        double[] threadTickTimes = new double[threads.size()];
+                        for (int i = 0; i < threadTickTimes.length; i++) {
+                            threadTickTimes[i] = threads.get(i).getTickDuration() / 1e6D;
+                        }
+                        final TickMonitor tickMonitor = new TickMonitor(tickTimeMs, acquisitionTimeMs, threadTickTimes);
                         for (Consumer<TickMonitor> consumer : tickMonitors) {
                             consumer.accept(tickMonitor);
                         }
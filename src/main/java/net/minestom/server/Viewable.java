@@ -6,8 +6,10 @@ import net.minestom.server.entity.Player;
 import net.minestom.server.network.packet.FramedPacket;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.utils.PacketUtils;
+import net.minestom.server.utils.ViewableStorage;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
 
@@ -59,7 +61,7 @@ public interface Viewable {
      * @param packet the packet to send to all viewers
      */
     default void sendPacketToViewers(@NotNull ServerPacket packet) {
-        PacketUtils.sendGroupedPacket(getViewers(), packet);
+        PacketUtils.prepareViewablePacket(this, packet);
     }
 
     @ApiStatus.Experimental
@@ -79,7 +81,7 @@ public interface Viewable {
      */
     default void sendPacketsToViewers(@NotNull ServerPacket... packets) {
         for (ServerPacket packet : packets) {
-            PacketUtils.sendGroupedPacket(getViewers(), packet);
+            PacketUtils.prepareViewablePacket(this, packet);
         }
     }
 
@@ -99,6 +101,16 @@ public interface Viewable {
         sendPacketToViewers(framedPacket);
     }
 
+    /**
+     * Gets the storage used to batch the packets sent to the viewers.
+     *
+     * @return the viewable storage, null to send packets immediately
+     */
+    @ApiStatus.Internal
+    default @Nullable ViewableStorage getViewableStorage() {
+        return null;
+    }
+
     /**
      * Gets the result of {@link #getViewers()} as an Adventure Audience.
      *
@@ -76,7 +76,7 @@ public interface Acquirable<T> {
      * @see #sync(Consumer) for auto-closeable capability
      */
     default @NotNull Acquired<T> lock() {
-        return new Acquired<>(unwrap(), getHandler().getTickThread());
+        return new Acquired<>(unwrap(), getHandler());
     }
 
     /**
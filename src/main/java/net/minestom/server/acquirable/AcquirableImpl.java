@@ -33,6 +33,16 @@ final class AcquirableImpl<T> implements Acquirable<T> {
         return handler;
     }
 
+    static @Nullable ReentrantLock enter(@NotNull Thread currentThread, @NotNull Acquirable.Handler handler) {
+        while (true) {
+            final TickThread elementThread = handler.getTickThread();
+            final ReentrantLock lock = enter(currentThread, elementThread);
+            // The element may have been moved to another thread while waiting
+            if (handler.getTickThread() == elementThread) return lock;
+            leave(lock);
+        }
+    }
+
     static @Nullable ReentrantLock enter(@NotNull Thread currentThread, @Nullable TickThread elementThread) {
         if (elementThread == null) return null;
         if (currentThread == elementThread) return null;
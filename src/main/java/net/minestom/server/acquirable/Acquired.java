@@ -1,6 +1,5 @@
 package net.minestom.server.acquirable;
 
-import net.minestom.server.thread.TickThread;
 import net.minestom.server.utils.validate.Check;
 import org.jetbrains.annotations.NotNull;
 
@@ -20,10 +19,10 @@ public final class Acquired<T> {
     private final ReentrantLock lock;
     private boolean unlocked;
 
-    Acquired(T value, TickThread tickThread) {
+    Acquired(T value, Acquirable.Handler handler) {
         this.value = value;
         this.owner = Thread.currentThread();
-        this.lock = AcquirableImpl.enter(owner, tickThread);
+        this.lock = AcquirableImpl.enter(owner, handler);
     }
 
     public @NotNull T get() {
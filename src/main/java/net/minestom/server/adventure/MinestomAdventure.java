@@ -2,6 +2,10 @@ package net.minestom.server.adventure;
 
 import java.io.StringReader;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.translation.GlobalTranslator;
 import net.kyori.adventure.util.Codec;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -30,6 +34,10 @@ public final class MinestomAdventure {
 
     static final Localizable NULL_LOCALIZABLE = () -> null;
 
+    private static final Cache<TranslationKey, Component> TRANSLATION_CACHE = Caffeine.newBuilder()
+            .maximumSize(Integer.getInteger("minestom.translation-cache-size", 4096))
+            .build();
+
     private static Locale defaultLocale = Locale.getDefault();
 
     private MinestomAdventure() {
@@ -52,4 +60,31 @@ public final class MinestomAdventure {
     public static void setDefaultLocale(@Nullable Locale defaultLocale) {
         MinestomAdventure.defaultLocale = Objects.requireNonNullElseGet(defaultLocale, Locale::getDefault);
     }
+
+    /**
+     * Renders a component using the {@link GlobalTranslator}.
+     * <p>
+     * Rendered components are cached by component and locale, the same scoreboard line or bossbar title
+     * sent to many players is therefore only rendered once per locale.
+     *
+     * @param component the component to render
+     * @param locale    the locale, or {@code null} to use the {@link #getDefaultLocale() default locale}
+     * @return the rendered component
+     */
+    public static @NotNull Component translate(@NotNull Component component, @Nullable Locale locale) {
+        final Locale target = Objects.requireNonNullElse(locale, defaultLocale);
+        return TRANSLATION_CACHE.get(new TranslationKey(component, target),
+                key -> GlobalTranslator.render(key.component(), key.locale()));
+    }
+
+    /**
+     * Clears the rendered components cache, should be called when translations are changed
+     * after components have already been sent.
+     */
+    public static void invalidateTranslations() {
+        TRANSLATION_CACHE.invalidateAll();
+    }
+
+    private record TranslationKey(Component component, Locale locale) {
+    }
 }
@@ -1,5 +1,7 @@
 package net.minestom.server.command;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import it.unimi.dsi.fastutil.Pair;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
@@ -13,14 +15,18 @@ import net.minestom.server.command.builder.parser.CommandQueryResult;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.event.player.PlayerCommandEvent;
+import net.minestom.server.network.packet.FramedPacket;
 import net.minestom.server.network.packet.server.play.DeclareCommandsPacket;
 import net.minestom.server.utils.ArrayUtils;
+import net.minestom.server.utils.PacketUtils;
 import net.minestom.server.utils.callback.CommandCallback;
 import net.minestom.server.utils.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -32,6 +38,8 @@ public final class CommandManager {
 
     public static final String COMMAND_PREFIX = "/";
 
+    private static final int COMMANDS_PACKET_CACHE_SIZE = Integer.getInteger("minestom.commands-packet-cache-size", 256);
+
     private final ServerSender serverSender = new ServerSender();
     private final ConsoleSender consoleSender = new ConsoleSender();
 
@@ -39,6 +47,15 @@ public final class CommandManager {
 
     private CommandCallback unknownCommandCallback;
 
+    // Framed commands packets, keyed by the command tree version and the result of each of its conditions
+    private final Cache<CommandsPacketKey, FramedPacket> commandsPackets = Caffeine.newBuilder()
+            .maximumSize(COMMANDS_PACKET_CACHE_SIZE)
+            .build();
+    // Commands, syntaxes and conditions the cached packets have been built from
+    private volatile List<Object> commandsStructure = List.of();
+    // Incremented every time the command tree changes
+    private final AtomicLong commandsVersion = new AtomicLong();
+
     public CommandManager() {
     }
 
@@ -58,6 +75,7 @@ public final class CommandManager {
             }
         }
         this.dispatcher.register(command);
+        invalidateCommandsPackets();
     }
 
     /**
@@ -68,6 +86,7 @@ public final class CommandManager {
      */
     public void unregister(@NotNull Command command) {
         this.dispatcher.unregister(command);
+        invalidateCommandsPackets();
     }
 
     /**
@@ -171,6 +190,69 @@ public final class CommandManager {
         return buildPacket(player);
     }
 
+    /**
+     * Gets the framed {@link DeclareCommandsPacket} for a specific player.
+     * <p>
+     * The packet only depends on the {@link CommandCondition conditions} the player can use,
+     * it is therefore built once and shared between all the players passing the same conditions.
+     * The returned packet must not be modified.
+     *
+     * @param player the player to get the commands packet
+     * @return the framed {@link DeclareCommandsPacket} for {@code player}
+     */
+    @ApiStatus.Experimental
+    public @NotNull FramedPacket getDeclareCommandsPacket(@NotNull Player player) {
+        // Read before walking the tree, a packet built from a modified tree is then cached under an outdated version
+        long version = commandsVersion.get();
+        BitSet conditions = new BitSet();
+        List<Object> structure = new ArrayList<>();
+        int index = 0;
+        for (Command command : dispatcher.getCommands()) {
+            index = collectConditions(player, command, conditions, structure, index);
+        }
+        if (!structure.equals(commandsStructure)) {
+            // A registered command has been modified
+            this.commandsStructure = structure;
+            version = invalidateCommandsPackets();
+        }
+        return commandsPackets.get(new CommandsPacketKey(version, conditions),
+                key -> PacketUtils.allocateTrimmedPacket(buildPacket(player)));
+    }
+
+    private long invalidateCommandsPackets() {
+        final long version = commandsVersion.incrementAndGet();
+        this.commandsPackets.invalidateAll();
+        return version;
+    }
+
+    /**
+     * Evaluates all the conditions of a command and its syntaxes/subcommands.
+     * <p>
+     * Every condition is evaluated (even under a hidden command) so that each one
+     * always has the same index for a given command tree.
+     *
+     * @return the index of the next condition
+     */
+    private static int collectConditions(@NotNull CommandSender sender, @NotNull Command command,
+                                         @NotNull BitSet conditions, @NotNull List<Object> structure, int index) {
+        final CommandCondition commandCondition = command.getCondition();
+        structure.add(command);
+        structure.add(commandCondition);
+        if (commandCondition == null || commandCondition.canUse(sender, null)) conditions.set(index);
+        index++;
+        for (CommandSyntax syntax : command.getSyntaxes()) {
+            final CommandCondition syntaxCondition = syntax.getCommandCondition();
+            structure.add(syntax);
+            structure.add(syntaxCondition);
+            if (syntaxCondition == null || syntaxCondition.canUse(sender, null)) conditions.set(index);
+            index++;
+        }
+        for (Command subcommand : command.getSubcommands()) {
+            index = collectConditions(sender, subcommand, conditions, structure, index);
+        }
+        return index;
+    }
+
     /**
      * Builds the {@link DeclareCommandsPacket} for a {@link Player}.
      *
@@ -452,6 +534,9 @@ public final class CommandManager {
         return node;
     }
 
+    private record CommandsPacketKey(long version, BitSet conditions) {
+    }
+
     private static class IndexedArgument {
         private final CommandSyntax syntax;
         private final Argument<?> argument;
@@ -54,7 +54,8 @@ public class Command {
     private CommandCondition condition;
 
     private final List<Command> subcommands;
-    private final List<CommandSyntax> syntaxes;
+    private final SyntaxList syntaxes;
+    private volatile CommandSyntaxIndex syntaxIndex;
 
     /**
      * Creates a {@link Command} with a name and one or multiple aliases.
@@ -69,7 +70,7 @@ public class Command {
         this.names = Stream.concat(Arrays.stream(aliases), Stream.of(name)).toArray(String[]::new);
 
         this.subcommands = new ArrayList<>();
-        this.syntaxes = new ArrayList<>();
+        this.syntaxes = new SyntaxList();
     }
 
     /**
@@ -287,6 +288,21 @@ public class Command {
         return syntaxes;
     }
 
+    /**
+     * Gets the index of the syntaxes, rebuilt once the syntaxes have been modified.
+     *
+     * @return the syntax index
+     */
+    @NotNull CommandSyntaxIndex getSyntaxIndex() {
+        CommandSyntaxIndex index = this.syntaxIndex;
+        final int modifications = syntaxes.modifications();
+        if (index == null || index.modifications() != modifications) {
+            index = new CommandSyntaxIndex(syntaxes, modifications);
+            this.syntaxIndex = index;
+        }
+        return index;
+    }
+
     /**
      * Called when a {@link CommandSender} executes this command before any syntax callback.
      * <p>
@@ -435,4 +451,19 @@ public class Command {
         private final List<List<String>> arguments = new ArrayList<>();
     }
 
+    /**
+     * Syntax list exposing its modification count, the syntaxes can be modified through {@link #getSyntaxes()}.
+     */
+    private static final class SyntaxList extends ArrayList<CommandSyntax> {
+        @Override
+        public CommandSyntax set(int index, CommandSyntax element) {
+            // Replacing a syntax is a modification of the index
+            this.modCount++;
+            return super.set(index, element);
+        }
+
+        int modifications() {
+            return modCount;
+        }
+    }
 }
@@ -2,6 +2,9 @@ package net.minestom.server.command.builder;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectRBTreeMap;
 import net.minestom.server.command.CommandSender;
 import net.minestom.server.command.builder.arguments.Argument;
@@ -112,9 +115,8 @@ public class CommandDispatcher {
             }
         }
 
-        // Split space
-        final String[] parts = commandString.split(StringUtils.SPACE);
-        final String commandName = parts[0];
+        final int nameEnd = commandString.indexOf(StringUtils.SPACE_CHAR);
+        final String commandName = nameEnd != -1 ? commandString.substring(0, nameEnd) : commandString;
 
         final CommandQueryResult commandQueryResult = CommandParser.findCommand(commandString);
         // Check if the command exists
@@ -192,14 +194,17 @@ public class CommandDispatcher {
         // SYNTAXES PARSING
 
         // All the registered syntaxes of the command
-        final Collection<CommandSyntax> syntaxes = command.getSyntaxes();
+        final CommandSyntaxIndex syntaxIndex = command.getSyntaxIndex();
+        // The syntaxes whose literals match the input, the only ones which can be valid
+        final int[] candidates = syntaxIndex.candidates(args);
         // Contains all the fully validated syntaxes (we later find the one with the most amount of arguments)
-        List<ValidSyntaxHolder> validSyntaxes = new ArrayList<>(syntaxes.size());
+        List<ValidSyntaxHolder> validSyntaxes = new ArrayList<>(candidates.length);
         // Contains all the syntaxes that are not fully correct, used to later, retrieve the "most correct syntax"
         // Number of correct argument - The data about the failing argument
         Int2ObjectRBTreeMap<CommandSuggestionHolder> syntaxesSuggestions = new Int2ObjectRBTreeMap<>(Collections.reverseOrder());
 
-        for (CommandSyntax syntax : syntaxes) {
+        for (int position : candidates) {
+            final CommandSyntax syntax = syntaxIndex.syntax(position);
             CommandParser.parse(syntax, syntax.getArguments(), args, commandString, validSyntaxes, syntaxesSuggestions);
         }
 
@@ -222,6 +227,11 @@ public class CommandDispatcher {
             }
         }
 
+        if (candidates.length != syntaxIndex.size()) {
+            // The closest syntax may have been skipped
+            parseSkippedSyntaxes(syntaxIndex, candidates, args, commandString, syntaxesSuggestions);
+        }
+
         // No all-correct syntax, find the closest one to use the argument callback
         if (!syntaxesSuggestions.isEmpty()) {
             final int max = syntaxesSuggestions.firstIntKey(); // number of correct arguments in the most correct syntax
@@ -247,4 +257,43 @@ public class CommandDispatcher {
         result.parsedCommand = ParsedCommand.withDefaultExecutor(command, input);
         return result.parsedCommand;
     }
+
+    /**
+     * Parses the syntaxes which are not candidates and merges their suggestions.
+     * <p>
+     * As if all the syntaxes had been parsed in registration order,
+     * the last registered syntax is kept for a given number of correct arguments.
+     */
+    private static void parseSkippedSyntaxes(@NotNull CommandSyntaxIndex syntaxIndex, int @NotNull [] candidates,
+                                             @NotNull String[] args, @NotNull String commandString,
+                                             @NotNull Int2ObjectRBTreeMap<CommandSuggestionHolder> syntaxesSuggestions) {
+        // Positions of the candidate syntaxes currently kept
+        Int2IntMap keptPositions = new Int2IntOpenHashMap(syntaxesSuggestions.size());
+        for (Int2ObjectMap.Entry<CommandSuggestionHolder> entry : syntaxesSuggestions.int2ObjectEntrySet()) {
+            for (int position : candidates) {
+                if (syntaxIndex.syntax(position) == entry.getValue().syntax) {
+                    keptPositions.put(entry.getIntKey(), position);
+                }
+            }
+        }
+        Int2ObjectRBTreeMap<CommandSuggestionHolder> skippedSuggestions = new Int2ObjectRBTreeMap<>();
+        int candidateIndex = 0;
+        for (int position = 0; position < syntaxIndex.size(); position++) {
+            if (candidateIndex < candidates.length && candidates[candidateIndex] == position) {
+                candidateIndex++;
+                continue;
+            }
+            final CommandSyntax syntax = syntaxIndex.syntax(position);
+            skippedSuggestions.clear();
+            CommandParser.parse(syntax, syntax.getArguments(), args, commandString, null, skippedSuggestions);
+            for (Int2ObjectMap.Entry<CommandSuggestionHolder> entry : skippedSuggestions.int2ObjectEntrySet()) {
+                final int correctArguments = entry.getIntKey();
+                // Skipped syntaxes are parsed in order, only a candidate registered later can be kept
+                if (keptPositions.getOrDefault(correctArguments, -1) < position) {
+                    syntaxesSuggestions.put(correctArguments, entry.getValue());
+                    keptPositions.remove(correctArguments);
+                }
+            }
+        }
+    }
 }
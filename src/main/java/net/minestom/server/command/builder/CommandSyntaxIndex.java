@@ -0,0 +1,78 @@
+package net.minestom.server.command.builder;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import net.minestom.server.command.builder.arguments.Argument;
+import net.minestom.server.command.builder.arguments.ArgumentLiteral;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * Prefix trie of the syntaxes of a {@link Command}, keyed by their leading literal arguments.
+ * <p>
+ * A syntax whose literal does not match the input cannot be valid, the index is used to only parse
+ * the syntaxes which can be, independently of the number of syntaxes.
+ * Only the leading literals which are not the last argument are indexed, those always consume exactly one input argument.
+ */
+final class CommandSyntaxIndex {
+    private final CommandSyntax[] syntaxes;
+    private final int modifications;
+    private final Node root = new Node();
+
+    CommandSyntaxIndex(@NotNull Collection<CommandSyntax> syntaxes, int modifications) {
+        this.syntaxes = syntaxes.toArray(CommandSyntax[]::new);
+        this.modifications = modifications;
+        for (int i = 0; i < this.syntaxes.length; i++) {
+            final Argument<?>[] arguments = this.syntaxes[i].getArguments();
+            Node node = root;
+            for (int j = 0; j < arguments.length - 1; j++) {
+                final Argument<?> argument = arguments[j];
+                if (argument.getClass() != ArgumentLiteral.class) break;
+                node = node.children.computeIfAbsent(argument.getId(), id -> new Node());
+            }
+            node.syntaxes.add(i);
+        }
+    }
+
+    /**
+     * Gets the positions of the syntaxes whose indexed literals match the input.
+     *
+     * @param args the input arguments
+     * @return the positions of the candidate syntaxes, in registration order
+     */
+    int @NotNull [] candidates(@NotNull String[] args) {
+        Node node = root;
+        if (node.children.isEmpty()) return node.syntaxes.toIntArray();
+        IntArrayList indexes = new IntArrayList(node.syntaxes);
+        for (String arg : args) {
+            node = node.children.get(arg);
+            if (node == null) break;
+            indexes.addAll(node.syntaxes);
+        }
+        final int[] sorted = indexes.toIntArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    @NotNull CommandSyntax syntax(int position) {
+        return syntaxes[position];
+    }
+
+    int size() {
+        return syntaxes.length;
+    }
+
+    /**
+     * Gets the modification count of the syntaxes when indexed.
+     *
+     * @return the modification count
+     */
+    int modifications() {
+        return modifications;
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final IntArrayList syntaxes = new IntArrayList();
+    }
+}
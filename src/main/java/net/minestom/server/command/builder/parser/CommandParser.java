@@ -52,14 +52,69 @@ public class CommandParser {
         return commandQueryResult;
     }
 
+    /**
+     * Finds the command (or subcommand) targeted by an input.
+     * <p>
+     * The input is only split once the command has been resolved,
+     * names are compared against the input directly.
+     *
+     * @param input the input, without the command prefix
+     * @return the command query result, null if the command does not exist
+     */
     @Nullable
     public static CommandQueryResult findCommand(@NotNull String input) {
-        final String[] parts = input.split(StringUtils.SPACE);
-        final String commandName = parts[0];
+        int end = nextSpace(input, 0);
+        String commandName = input.substring(0, end);
+        Command command = COMMAND_MANAGER.getDispatcher().findCommand(commandName);
+        if (command == null) {
+            return null;
+        }
 
-        String[] args = new String[parts.length - 1];
-        System.arraycopy(parts, 1, args, 0, args.length);
-        return CommandParser.findCommand(null, commandName, args);
+        // Search for subcommand
+        int start = end + 1;
+        while (hasArgument(input, start)) {
+            end = nextSpace(input, start);
+            final Command subcommand = findSubcommand(command, input, start, end);
+            if (subcommand == null) break;
+            command = subcommand;
+            commandName = input.substring(start, end);
+            start = end + 1;
+        }
+
+        CommandQueryResult commandQueryResult = new CommandQueryResult();
+        commandQueryResult.command = command;
+        commandQueryResult.commandName = commandName;
+        commandQueryResult.args = hasArgument(input, start) ?
+                input.substring(start).split(StringUtils.SPACE) : new String[0];
+        return commandQueryResult;
+    }
+
+    private static @Nullable Command findSubcommand(@NotNull Command command, @NotNull String input, int start, int end) {
+        final int length = end - start;
+        for (Command subcommand : command.getSubcommands()) {
+            for (String name : subcommand.getNames()) {
+                if (name.length() == length && input.regionMatches(start, name, 0, length)) {
+                    return subcommand;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int nextSpace(@NotNull String input, int start) {
+        final int index = input.indexOf(StringUtils.SPACE_CHAR, start);
+        return index != -1 ? index : input.length();
+    }
+
+    /**
+     * Gets if there is any argument starting at {@code start},
+     * same as {@link String#split(String)} trailing spaces are ignored.
+     */
+    private static boolean hasArgument(@NotNull String input, int start) {
+        for (int i = start; i < input.length(); i++) {
+            if (input.charAt(i) != StringUtils.SPACE_CHAR) return true;
+        }
+        return false;
     }
 
     public static void parse(@Nullable CommandSyntax syntax, @NotNull Argument<?>[] commandArguments, @NotNull String[] inputArguments,
@@ -35,6 +35,7 @@ import net.minestom.server.potion.TimedPotion;
 import net.minestom.server.tag.Tag;
 import net.minestom.server.tag.TagHandler;
 import net.minestom.server.utils.PacketUtils;
+import net.minestom.server.utils.ViewableStorage;
 import net.minestom.server.utils.async.AsyncUtils;
 import net.minestom.server.utils.block.BlockIterator;
 import net.minestom.server.utils.chunk.ChunkUtils;
@@ -74,6 +75,9 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
     protected Pos position;
     protected Pos previousPosition;
     protected Pos lastSyncedPosition;
+    // Velocity changes are sent at the end of the tick, see #synchronizeMovement()
+    private boolean velocityDirty;
+    private Vec lastSyncedVelocity = Vec.ZERO;
     protected boolean onGround;
 
     private BoundingBox boundingBox;
@@ -102,6 +106,7 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
     private final int id;
     protected final Set<Player> viewers = ConcurrentHashMap.newKeySet();
     private final Set<Player> unmodifiableViewers = Collections.unmodifiableSet(viewers);
+    private final ViewableStorage viewableStorage = new ViewableStorage(this::getViewers);
     private final NBTCompound nbtCompound = new NBTCompound();
     private final Set<Permission> permissions = new CopyOnWriteArraySet<>();
 
@@ -276,6 +281,7 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
      */
     public void setView(float yaw, float pitch) {
         this.position = position.withView(yaw, pitch);
+        this.lastSyncedPosition = lastSyncedPosition.withView(yaw, pitch);
         sendPacketToViewersAndSelf(new EntityHeadLookPacket(getEntityId(), yaw));
         sendPacketToViewersAndSelf(new EntityRotationPacket(getEntityId(), yaw, pitch, onGround));
     }
@@ -335,6 +341,8 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
     }
 
     protected boolean addViewer0(@NotNull Player player) {
+        // Send pending packets to the current viewers, the new one receives the up-to-date state below
+        this.viewableStorage.process();
         if (!this.viewers.add(player)) {
             return false;
         }
@@ -380,6 +388,11 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
         return unmodifiableViewers;
     }
 
+    @Override
+    public @NotNull ViewableStorage getViewableStorage() {
+        return viewableStorage;
+    }
+
     /**
      * Changes the entity type of this entity.
      * <p>
@@ -471,6 +484,10 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
 
             // remove expired effects
             effectTick(time);
+
+            // Send the metadata and movement changed during this tick
+            this.metadata.flush();
+            synchronizeMovement();
         }
         // Scheduled synchronization
         if (!Cooldown.hasCooldown(time, lastAbsoluteSynchronizationTime, getSynchronizationCooldown())) {
@@ -526,7 +543,7 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
         if (finalVelocityPosition.samePoint(position)) {
             this.velocity = Vec.ZERO;
             if (hasVelocity) {
-                sendPacketToViewers(getVelocityPacket());
+                this.velocityDirty = true;
             }
             return;
         }
@@ -563,7 +580,7 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
         }
         // Verify if velocity packet has to be sent
         if (hasVelocity || gravityTickCount > 0) {
-            sendPacketToViewers(getVelocityPacket());
+            this.velocityDirty = true;
         }
     }
 
@@ -804,7 +821,10 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
         EntityVelocityEvent entityVelocityEvent = new EntityVelocityEvent(this, velocity);
         EventDispatcher.callCancellable(entityVelocityEvent, () -> {
             this.velocity = entityVelocityEvent.getVelocity();
-            sendPacketToViewersAndSelf(getVelocityPacket());
+            final EntityVelocityPacket velocityPacket = getVelocityPacket();
+            sendPacketToViewersAndSelf(velocityPacket);
+            this.lastSyncedVelocity = new Vec(velocityPacket.velocityX, velocityPacket.velocityY, velocityPacket.velocityZ);
+            this.velocityDirty = false;
         });
     }
 
@@ -1164,33 +1184,69 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
     public void refreshPosition(@NotNull final Pos newPosition, boolean ignoreView) {
         final var previousPosition = this.position;
         final Pos position = ignoreView ? previousPosition.withCoord(newPosition) : newPosition;
-        if (position.equals(lastSyncedPosition)) return;
+        if (position.equals(previousPosition)) return;
         this.position = position;
         if (!position.samePoint(previousPosition)) {
             refreshCoordinate(position);
         }
-        final boolean viewChange = !position.sameView(lastSyncedPosition);
-        final double distanceX = Math.abs(position.x() - lastSyncedPosition.x());
-        final double distanceY = Math.abs(position.y() - lastSyncedPosition.y());
-        final double distanceZ = Math.abs(position.z() - lastSyncedPosition.z());
-        final boolean positionChange = (distanceX + distanceY + distanceZ) > 0;
-
-        final Chunk chunk = getChunk();
-        if (distanceX > 8 || distanceY > 8 || distanceZ > 8) {
-            PacketUtils.prepareViewablePacket(chunk, new EntityTeleportPacket(getEntityId(), position, isOnGround()), this);
-            this.lastAbsoluteSynchronizationTime = System.currentTimeMillis();
-        } else if (positionChange && viewChange) {
-            PacketUtils.prepareViewablePacket(chunk, EntityPositionAndRotationPacket.getPacket(getEntityId(), position,
-                    lastSyncedPosition, isOnGround()), this);
-            // Fix head rotation
-            PacketUtils.prepareViewablePacket(chunk, new EntityHeadLookPacket(getEntityId(), position.yaw()), this);
-        } else if (positionChange) {
-            PacketUtils.prepareViewablePacket(chunk, EntityPositionPacket.getPacket(getEntityId(), position, lastSyncedPosition, onGround), this);
-        } else if (viewChange) {
-            PacketUtils.prepareViewablePacket(chunk, new EntityHeadLookPacket(getEntityId(), position.yaw()), this);
-            PacketUtils.prepareViewablePacket(chunk, new EntityRotationPacket(getEntityId(), position.yaw(), position.pitch(), onGround), this);
+        // Viewers are updated at the end of the tick
+    }
+
+    /**
+     * Sends the movement and velocity changes of this tick to the viewers.
+     * <p>
+     * The cheapest packets are picked based on the difference with the last synchronized position,
+     * relative moves are used unless the delta does not fit in a short. Velocity is only sent
+     * when its encoded value changed.
+     */
+    private void synchronizeMovement() {
+        final Pos position = this.position;
+        final Pos lastPosition = this.lastSyncedPosition;
+        final Chunk chunk = currentChunk;
+        if (!position.equals(lastPosition)) {
+            final boolean positionChange = !position.samePoint(lastPosition);
+            final boolean viewChange = !position.sameView(lastPosition);
+            final int entityId = getEntityId();
+            if (positionChange && !isRelativeMove(position, lastPosition)) {
+                PacketUtils.prepareViewablePacket(chunk, new EntityTeleportPacket(entityId, position, onGround), this);
+                if (viewChange) {
+                    PacketUtils.prepareViewablePacket(chunk, new EntityHeadLookPacket(entityId, position.yaw()), this);
+                }
+                this.lastAbsoluteSynchronizationTime = System.currentTimeMillis();
+            } else if (positionChange && viewChange) {
+                PacketUtils.prepareViewablePacket(chunk, EntityPositionAndRotationPacket.getPacket(entityId, position,
+                        lastPosition, onGround), this);
+                // Fix head rotation
+                PacketUtils.prepareViewablePacket(chunk, new EntityHeadLookPacket(entityId, position.yaw()), this);
+            } else if (positionChange) {
+                PacketUtils.prepareViewablePacket(chunk, EntityPositionPacket.getPacket(entityId, position, lastPosition, onGround), this);
+            } else {
+                PacketUtils.prepareViewablePacket(chunk, new EntityHeadLookPacket(entityId, position.yaw()), this);
+                PacketUtils.prepareViewablePacket(chunk, new EntityRotationPacket(entityId, position.yaw(), position.pitch(), onGround), this);
+            }
+            this.lastSyncedPosition = position;
+        }
+        if (velocityDirty) {
+            this.velocityDirty = false;
+            final EntityVelocityPacket velocityPacket = getVelocityPacket();
+            final Vec encoded = new Vec(velocityPacket.velocityX, velocityPacket.velocityY, velocityPacket.velocityZ);
+            if (!encoded.equals(lastSyncedVelocity)) {
+                PacketUtils.prepareViewablePacket(chunk, velocityPacket, this);
+                this.lastSyncedVelocity = encoded;
+            }
         }
-        this.lastSyncedPosition = position;
+    }
+
+    private static boolean isRelativeMove(@NotNull Pos position, @NotNull Pos lastPosition) {
+        return isShortDelta(position.x(), lastPosition.x()) &&
+                isShortDelta(position.y(), lastPosition.y()) &&
+                isShortDelta(position.z(), lastPosition.z());
+    }
+
+    private static boolean isShortDelta(double coordinate, double lastCoordinate) {
+        // Same encoding as EntityPositionPacket#getPacket
+        final double delta = (coordinate * 32 - lastCoordinate * 32) * 128;
+        return delta >= Short.MIN_VALUE && delta <= Short.MAX_VALUE;
     }
 
     @ApiStatus.Internal
@@ -1260,6 +1316,8 @@ public class Entity implements Viewable, Tickable, TagHandler, PermissionHandler
                     // Refresh player view
                     player.refreshVisibleChunks(newChunk);
                     player.refreshVisibleEntities(newChunk);
+                } else {
+                    Player.refreshEntityViewers(this, lastChunkX, lastChunkZ, newChunk);
                 }
                 refreshCurrentChunk(newChunk);
             }
@@ -3,7 +3,6 @@ package net.minestom.server.entity;
 import net.minestom.server.entity.metadata.item.ItemEntityMeta;
 import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.event.entity.EntityItemMergeEvent;
-import net.minestom.server.instance.Chunk;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.StackingRule;
 import net.minestom.server.utils.time.Cooldown;
@@ -13,7 +12,6 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.time.temporal.TemporalUnit;
-import java.util.Set;
 
 /**
  * Represents an item on the ground.
@@ -71,47 +69,35 @@ public class ItemEntity extends Entity {
                 (mergeDelay == null || !Cooldown.hasCooldown(time, lastMergeCheck, mergeDelay))) {
             this.lastMergeCheck = time;
 
-            final Chunk chunk = instance.getChunkAt(getPosition());
-            final Set<Entity> entities = instance.getChunkEntities(chunk);
-            for (Entity entity : entities) {
-                if (entity instanceof ItemEntity) {
+            instance.getEntityIndex().visitSphere(getPosition(), mergeRange, ItemEntity.class, itemEntity -> {
+                // Do not merge with itself
+                if (itemEntity == this)
+                    return;
+                if (!itemEntity.isPickable() || !itemEntity.isMergeable())
+                    return;
 
-                    // Do not merge with itself
-                    if (entity == this)
-                        continue;
+                final ItemStack itemStackEntity = itemEntity.getItemStack();
 
-                    final ItemEntity itemEntity = (ItemEntity) entity;
-                    if (!itemEntity.isPickable() || !itemEntity.isMergeable())
-                        continue;
+                final StackingRule stackingRule = itemStack.getStackingRule();
+                final boolean canStack = stackingRule.canBeStacked(itemStack, itemStackEntity);
 
-                    // Too far, do not merge
-                    if (getDistance(itemEntity) > mergeRange)
-                        continue;
+                if (!canStack)
+                    return;
 
-                    final ItemStack itemStackEntity = itemEntity.getItemStack();
+                final int totalAmount = stackingRule.getAmount(itemStack) + stackingRule.getAmount(itemStackEntity);
+                final boolean canApply = stackingRule.canApply(itemStack, totalAmount);
 
-                    final StackingRule stackingRule = itemStack.getStackingRule();
-                    final boolean canStack = stackingRule.canBeStacked(itemStack, itemStackEntity);
+                if (!canApply)
+                    return;
 
-                    if (!canStack)
-                        continue;
+                final ItemStack result = stackingRule.apply(itemStack, totalAmount);
 
-                    final int totalAmount = stackingRule.getAmount(itemStack) + stackingRule.getAmount(itemStackEntity);
-                    final boolean canApply = stackingRule.canApply(itemStack, totalAmount);
-
-                    if (!canApply)
-                        continue;
-
-                    final ItemStack result = stackingRule.apply(itemStack, totalAmount);
-
-                    EntityItemMergeEvent entityItemMergeEvent = new EntityItemMergeEvent(this, itemEntity, result);
-                    EventDispatcher.callCancellable(entityItemMergeEvent, () -> {
-                        setItemStack(entityItemMergeEvent.getResult());
-                        itemEntity.remove();
-                    });
-
-                }
-            }
+                EntityItemMergeEvent entityItemMergeEvent = new EntityItemMergeEvent(this, itemEntity, result);
+                EventDispatcher.callCancellable(entityItemMergeEvent, () -> {
+                    setItemStack(entityItemMergeEvent.getResult());
+                    itemEntity.remove();
+                });
+            });
         }
     }
 
@@ -14,12 +14,10 @@ import net.minestom.server.utils.binary.Writeable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jglrxavpok.hephaistos.nbt.NBT;
-import org.jglrxavpok.hephaistos.nbt.NBTEnd;
 import org.jglrxavpok.hephaistos.nbt.NBTException;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -28,155 +26,77 @@ public class Metadata {
     // METADATA TYPES
 
     public static Value<Byte> Byte(byte value) {
-        return new Value<>(TYPE_BYTE, value, writer -> writer.writeByte(value), BinaryReader::readByte);
+        return new Value<>(TYPE_BYTE, value);
     }
 
     public static Value<Integer> VarInt(int value) {
-        return new Value<>(TYPE_VARINT, value, writer -> writer.writeVarInt(value), BinaryReader::readVarInt);
+        return new Value<>(TYPE_VARINT, value);
     }
 
     public static Value<Float> Float(float value) {
-        return new Value<>(TYPE_FLOAT, value, writer -> writer.writeFloat(value), BinaryReader::readFloat);
+        return new Value<>(TYPE_FLOAT, value);
     }
 
     public static Value<String> String(@NotNull String value) {
-        return new Value<>(TYPE_STRING, value, writer -> writer.writeSizedString(value), BinaryReader::readSizedString);
+        return new Value<>(TYPE_STRING, value);
     }
 
     public static Value<Component> Chat(@NotNull Component value) {
-        return new Value<>(TYPE_CHAT, value, writer -> writer.writeComponent(value), BinaryReader::readComponent);
+        return new Value<>(TYPE_CHAT, value);
     }
 
     public static Value<Component> OptChat(@Nullable Component value) {
-        return new Value<>(TYPE_OPTCHAT, value, writer -> {
-            final boolean present = value != null;
-            writer.writeBoolean(present);
-            if (present) {
-                writer.writeComponent(value);
-            }
-        }, reader -> {
-            boolean present = reader.readBoolean();
-            if (present) {
-                return reader.readComponent();
-            }
-            return null;
-        });
+        return new Value<>(TYPE_OPTCHAT, value);
     }
 
     public static Value<ItemStack> Slot(@NotNull ItemStack value) {
-        return new Value<>(TYPE_SLOT, value, writer -> writer.writeItemStack(value), BinaryReader::readItemStack);
+        return new Value<>(TYPE_SLOT, value);
     }
 
     public static Value<Boolean> Boolean(boolean value) {
-        return new Value<>(TYPE_BOOLEAN, value, writer -> writer.writeBoolean(value), BinaryReader::readBoolean);
+        return new Value<>(TYPE_BOOLEAN, value);
     }
 
     public static Value<Point> Rotation(@NotNull Point value) {
-        return new Value<>(TYPE_ROTATION, value, writer -> {
-            writer.writeFloat((float) value.x());
-            writer.writeFloat((float) value.y());
-            writer.writeFloat((float) value.z());
-        }, reader -> new Vec(reader.readFloat(), reader.readFloat(), reader.readFloat()));
+        return new Value<>(TYPE_ROTATION, value);
     }
 
     public static Value<Point> Position(@NotNull Point value) {
-        return new Value<>(TYPE_POSITION, value, writer -> writer.writeBlockPosition(value), BinaryReader::readBlockPosition);
+        return new Value<>(TYPE_POSITION, value);
     }
 
     public static Value<Point> OptPosition(@Nullable Point value) {
-        return new Value<>(TYPE_OPTPOSITION, value, writer -> {
-            final boolean present = value != null;
-            writer.writeBoolean(present);
-            if (present) {
-                writer.writeBlockPosition(value);
-            }
-        }, reader -> {
-            boolean present = reader.readBoolean();
-            if (present) {
-                return reader.readBlockPosition();
-            } else {
-                return null;
-            }
-        });
+        return new Value<>(TYPE_OPTPOSITION, value);
     }
 
     public static Value<Direction> Direction(@NotNull Direction value) {
-        return new Value<>(TYPE_DIRECTION, value, writer -> writer.writeVarInt(value.ordinal()), reader -> Direction.values()[reader.readVarInt()]);
+        return new Value<>(TYPE_DIRECTION, value);
     }
 
     public static Value<UUID> OptUUID(@Nullable UUID value) {
-        return new Value<>(TYPE_OPTUUID, value, writer -> {
-            final boolean present = value != null;
-            writer.writeBoolean(present);
-            if (present) {
-                writer.writeUuid(value);
-            }
-        }, reader -> {
-            boolean present = reader.readBoolean();
-            if (present) {
-                return reader.readUuid();
-            } else {
-                return null;
-            }
-        });
+        return new Value<>(TYPE_OPTUUID, value);
     }
 
     public static Value<Integer> OptBlockID(@Nullable Integer value) {
-        return new Value<>(TYPE_OPTBLOCKID, value, writer -> {
-            final boolean present = value != null;
-            writer.writeVarInt(present ? value : 0);
-        }, reader -> {
-            boolean present = reader.readBoolean();
-            if (present) {
-                return reader.readVarInt();
-            } else {
-                return null;
-            }
-        });
+        return new Value<>(TYPE_OPTBLOCKID, value);
     }
 
     public static Value<NBT> NBT(@NotNull NBT nbt) {
-        return new Value<>(TYPE_NBT, nbt, writer ->
-                writer.writeNBT("", nbt), reader -> {
-            try {
-                return reader.readTag();
-            } catch (IOException | NBTException e) {
-                MinecraftServer.getExceptionManager().handleException(e);
-                return null;
-            }
-        });
+        return new Value<>(TYPE_NBT, nbt);
     }
 
     public static Value<int[]> VillagerData(int villagerType,
                                             int villagerProfession,
                                             int level) {
-        return new Value<>(TYPE_VILLAGERDATA, new int[]{villagerType, villagerProfession, level}, writer -> {
-            writer.writeVarInt(villagerType);
-            writer.writeVarInt(villagerProfession);
-            writer.writeVarInt(level);
-        }, reader -> new int[]{
-                reader.readVarInt(),
-                reader.readVarInt(),
-                reader.readVarInt()
-        });
+        return new Value<>(TYPE_VILLAGERDATA, new int[]{villagerType, villagerProfession, level});
     }
 
     public static Value<Integer> OptVarInt(@Nullable Integer value) {
-        return new Value<>(TYPE_OPTVARINT, value, writer -> {
-            final boolean present = value != null;
-            writer.writeVarInt(present ? value + 1 : 0);
-        }, reader -> {
-            boolean present = reader.readBoolean();
-            if (present) {
-                return reader.readVarInt();
-            } else {
-                return null;
-            }
-        });
+        return new Value<>(TYPE_OPTVARINT, value);
     }
 
     public static Value<Entity.Pose> Pose(@NotNull Entity.Pose value) {
-        return new Value<>(TYPE_POSE, value, writer -> writer.writeVarInt(value.ordinal()), reader -> Entity.Pose.values()[reader.readVarInt()]);
+        return new Value<>(TYPE_POSE, value);
     }
 
     public static final byte TYPE_BYTE = 0;
@@ -199,63 +119,262 @@ public class Metadata {
     public static final byte TYPE_OPTVARINT = 17;
     public static final byte TYPE_POSE = 18;
 
+    // Slot type used for values with their own writer
+    private static final byte TYPE_CUSTOM = -2;
+    private static final byte TYPE_NONE = -1;
+
     private final Entity entity;
 
-    private final Map<Byte, Entry<?>> metadataMap = new ConcurrentHashMap<>();
+    // Values indexed by metadata index, primitive types are stored in 'primitives' and do not box
+    private byte[] types = new byte[0];
+    private long[] primitives = new long[0];
+    private Object[] objects = new Object[0];
 
+    // Indexes changed since the last flush
+    private final BitSet dirty = new BitSet();
     private volatile boolean notifyAboutChanges = true;
-    private final Map<Byte, Entry<?>> notNotifiedChanges = new HashMap<>();
 
     public Metadata(@Nullable Entity entity) {
         this.entity = entity;
     }
 
     @SuppressWarnings("unchecked")
-    public <T> T getIndex(int index, @Nullable T defaultValue) {
-        Entry<?> value = this.metadataMap.get((byte) index);
-        return value != null ? (T) value.getMetaValue().value : defaultValue;
+    public synchronized <T> T getIndex(int index, @Nullable T defaultValue) {
+        if (index >= types.length) return defaultValue;
+        final byte type = types[index];
+        if (type == TYPE_NONE) return defaultValue;
+        if (type == TYPE_CUSTOM) return ((Value<T>) objects[index]).getValue();
+        return (T) (isPrimitive(type) ? unpack(type, primitives[index]) : objects[index]);
+    }
+
+    public synchronized byte getByte(int index, byte defaultValue) {
+        return index < types.length && types[index] == TYPE_BYTE ? (byte) primitives[index] : defaultValue;
+    }
+
+    public synchronized int getVarInt(int index, int defaultValue) {
+        return index < types.length && types[index] == TYPE_VARINT ? (int) primitives[index] : defaultValue;
+    }
+
+    public synchronized float getFloat(int index, float defaultValue) {
+        return index < types.length && types[index] == TYPE_FLOAT ?
+                Float.intBitsToFloat((int) primitives[index]) : defaultValue;
+    }
+
+    public synchronized boolean getBoolean(int index, boolean defaultValue) {
+        return index < types.length && types[index] == TYPE_BOOLEAN ? primitives[index] != 0 : defaultValue;
     }
 
     public void setIndex(int index, @NotNull Value<?> value) {
-        final Entry<?> entry = new Entry<>((byte) index, value);
-        this.metadataMap.put((byte) index, entry);
-
-        // Send metadata packet to update viewers and self
-        if (this.entity != null && this.entity.isActive()) {
-            if (!this.notifyAboutChanges) {
-                synchronized (this.notNotifiedChanges) {
-                    this.notNotifiedChanges.put((byte) index, entry);
-                }
+        final int type = value.valueWriter != null ? TYPE_CUSTOM : value.type;
+        if (type != TYPE_CUSTOM && isPrimitive(type)) {
+            setPrimitive(index, type, pack(type, value.value));
+        } else {
+            setObject(index, type, type == TYPE_CUSTOM ? value : value.value);
+        }
+    }
+
+    public void setByte(int index, byte value) {
+        setPrimitive(index, TYPE_BYTE, value);
+    }
+
+    public void setVarInt(int index, int value) {
+        setPrimitive(index, TYPE_VARINT, value);
+    }
+
+    public void setFloat(int index, float value) {
+        setPrimitive(index, TYPE_FLOAT, Float.floatToRawIntBits(value));
+    }
+
+    public void setBoolean(int index, boolean value) {
+        setPrimitive(index, TYPE_BOOLEAN, value ? 1 : 0);
+    }
+
+    private synchronized void setPrimitive(int index, int type, long value) {
+        ensureCapacity(index);
+        if (types[index] == type && primitives[index] == value) return;
+        this.types[index] = (byte) type;
+        this.primitives[index] = value;
+        this.objects[index] = null;
+        this.dirty.set(index);
+    }
+
+    private synchronized void setObject(int index, int type, Object value) {
+        ensureCapacity(index);
+        if (types[index] == type && objects[index] == value && type != TYPE_CUSTOM) return;
+        this.types[index] = (byte) type;
+        this.objects[index] = value;
+        this.dirty.set(index);
+    }
+
+    private void ensureCapacity(int index) {
+        if (index < types.length) return;
+        final int length = Math.max(index + 1, types.length * 2);
+        final int previousLength = types.length;
+        this.types = Arrays.copyOf(types, length);
+        Arrays.fill(types, previousLength, length, TYPE_NONE);
+        this.primitives = Arrays.copyOf(primitives, length);
+        this.objects = Arrays.copyOf(objects, length);
+    }
+
+    /**
+     * Sends the values changed since the last flush to the entity viewers and self,
+     * as a single {@link EntityMetaDataPacket}.
+     * <p>
+     * Called at the end of the entity tick, does nothing while notifications are disabled.
+     */
+    public void flush() {
+        if (!notifyAboutChanges) return;
+        final List<Entry<?>> entries;
+        synchronized (this) {
+            if (dirty.isEmpty()) return;
+            if (entity == null || !entity.isActive()) {
+                // Viewers receive every value when the entity is shown
+                this.dirty.clear();
                 return;
             }
-            this.entity.sendPacketToViewersAndSelf(new EntityMetaDataPacket(entity.getEntityId(), Collections.singleton(entry)));
+            entries = new ArrayList<>(dirty.cardinality());
+            for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+                if (types[i] != TYPE_NONE) entries.add(entry(i));
+            }
+            this.dirty.clear();
         }
+        this.entity.sendPacketToViewersAndSelf(new EntityMetaDataPacket(entity.getEntityId(), entries));
     }
 
     public void setNotifyAboutChanges(boolean notifyAboutChanges) {
         if (this.notifyAboutChanges == notifyAboutChanges) {
             return;
         }
-        Collection<Entry<?>> entries = null;
-        synchronized (this.notNotifiedChanges) {
-            this.notifyAboutChanges = notifyAboutChanges;
-            if (notifyAboutChanges) {
-                entries = this.notNotifiedChanges.values();
-                if (entries.isEmpty()) {
-                    return;
-                }
-                this.notNotifiedChanges.clear();
-            }
-        }
-        if (entries == null || this.entity == null || !this.entity.isActive()) {
-            return;
+        this.notifyAboutChanges = notifyAboutChanges;
+        if (notifyAboutChanges) {
+            // Send the changes made while notifications were disabled together
+            flush();
         }
-        this.entity.sendPacketToViewersAndSelf(new EntityMetaDataPacket(entity.getEntityId(), entries));
     }
 
     @NotNull
-    public Collection<Entry<?>> getEntries() {
-        return metadataMap.values();
+    public synchronized Collection<Entry<?>> getEntries() {
+        List<Entry<?>> entries = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] != TYPE_NONE) entries.add(entry(i));
+        }
+        return entries;
+    }
+
+    private Entry<?> entry(int index) {
+        final byte type = types[index];
+        if (type == TYPE_CUSTOM) return new Entry<>((byte) index, (Value<?>) objects[index]);
+        final Object value = isPrimitive(type) ? unpack(type, primitives[index]) : objects[index];
+        return new Entry<>((byte) index, new Value<>(type, value));
+    }
+
+    private static boolean isPrimitive(int type) {
+        return switch (type) {
+            case TYPE_BYTE, TYPE_VARINT, TYPE_FLOAT, TYPE_BOOLEAN, TYPE_DIRECTION, TYPE_POSE -> true;
+            default -> false;
+        };
+    }
+
+    private static long pack(int type, Object value) {
+        return switch (type) {
+            case TYPE_BYTE -> (Byte) value;
+            case TYPE_VARINT -> (Integer) value;
+            case TYPE_FLOAT -> Float.floatToRawIntBits((Float) value);
+            case TYPE_BOOLEAN -> (Boolean) value ? 1 : 0;
+            case TYPE_DIRECTION, TYPE_POSE -> ((Enum<?>) value).ordinal();
+            default -> throw new IllegalArgumentException("Type " + type + " is not primitive");
+        };
+    }
+
+    private static Object unpack(int type, long value) {
+        return switch (type) {
+            case TYPE_BYTE -> (byte) value;
+            case TYPE_VARINT -> (int) value;
+            case TYPE_FLOAT -> Float.intBitsToFloat((int) value);
+            case TYPE_BOOLEAN -> value != 0;
+            case TYPE_DIRECTION -> Direction.values()[(int) value];
+            case TYPE_POSE -> Entity.Pose.values()[(int) value];
+            default -> throw new IllegalArgumentException("Type " + type + " is not primitive");
+        };
+    }
+
+    private static void writeValue(@NotNull BinaryWriter writer, int type, Object value) {
+        switch (type) {
+            case TYPE_BYTE -> writer.writeByte((Byte) value);
+            case TYPE_VARINT -> writer.writeVarInt((Integer) value);
+            case TYPE_FLOAT -> writer.writeFloat((Float) value);
+            case TYPE_STRING -> writer.writeSizedString((String) value);
+            case TYPE_CHAT -> writer.writeComponent((Component) value);
+            case TYPE_OPTCHAT -> {
+                writer.writeBoolean(value != null);
+                if (value != null) writer.writeComponent((Component) value);
+            }
+            case TYPE_SLOT -> writer.writeItemStack((ItemStack) value);
+            case TYPE_BOOLEAN -> writer.writeBoolean((Boolean) value);
+            case TYPE_ROTATION -> {
+                final Point point = (Point) value;
+                writer.writeFloat((float) point.x());
+                writer.writeFloat((float) point.y());
+                writer.writeFloat((float) point.z());
+            }
+            case TYPE_POSITION -> writer.writeBlockPosition((Point) value);
+            case TYPE_OPTPOSITION -> {
+                writer.writeBoolean(value != null);
+                if (value != null) writer.writeBlockPosition((Point) value);
+            }
+            case TYPE_DIRECTION, TYPE_POSE -> writer.writeVarInt(((Enum<?>) value).ordinal());
+            case TYPE_OPTUUID -> {
+                writer.writeBoolean(value != null);
+                if (value != null) writer.writeUuid((UUID) value);
+            }
+            case TYPE_OPTBLOCKID -> writer.writeVarInt(value != null ? (Integer) value : 0);
+            case TYPE_NBT -> writer.writeNBT("", (NBT) value);
+            case TYPE_VILLAGERDATA -> {
+                final int[] data = (int[]) value;
+                writer.writeVarInt(data[0]);
+                writer.writeVarInt(data[1]);
+                writer.writeVarInt(data[2]);
+            }
+            case TYPE_OPTVARINT -> writer.writeVarInt(value != null ? (Integer) value + 1 : 0);
+            default -> throw new UnsupportedOperationException("Cannot write metadata type " + type);
+        }
+    }
+
+    private static Object readValue(@NotNull BinaryReader reader, int type) {
+        return switch (type) {
+            case TYPE_BYTE -> reader.readByte();
+            case TYPE_VARINT -> reader.readVarInt();
+            case TYPE_FLOAT -> reader.readFloat();
+            case TYPE_STRING -> reader.readSizedString();
+            case TYPE_CHAT -> reader.readComponent();
+            case TYPE_OPTCHAT -> reader.readBoolean() ? reader.readComponent() : null;
+            case TYPE_SLOT -> reader.readItemStack();
+            case TYPE_BOOLEAN -> reader.readBoolean();
+            case TYPE_ROTATION -> new Vec(reader.readFloat(), reader.readFloat(), reader.readFloat());
+            case TYPE_POSITION -> reader.readBlockPosition();
+            case TYPE_OPTPOSITION -> reader.readBoolean() ? reader.readBlockPosition() : null;
+            case TYPE_DIRECTION -> Direction.values()[reader.readVarInt()];
+            case TYPE_OPTUUID -> reader.readBoolean() ? reader.readUuid() : null;
+            case TYPE_OPTBLOCKID -> {
+                final int blockId = reader.readVarInt();
+                yield blockId != 0 ? blockId : null;
+            }
+            case TYPE_NBT -> {
+                try {
+                    yield reader.readTag();
+                } catch (IOException | NBTException e) {
+                    MinecraftServer.getExceptionManager().handleException(e);
+                    yield null;
+                }
+            }
+            case TYPE_VILLAGERDATA -> new int[]{reader.readVarInt(), reader.readVarInt(), reader.readVarInt()};
+            case TYPE_OPTVARINT -> {
+                final int value = reader.readVarInt();
+                yield value != 0 ? value - 1 : null;
+            }
+            case TYPE_POSE -> Entity.Pose.values()[reader.readVarInt()];
+            default -> throw new UnsupportedOperationException("Cannot read metadata type " + type);
+        };
     }
 
     public static class Entry<T> implements Writeable {
@@ -290,33 +409,8 @@ public class Metadata {
         }
     }
 
-    private static <T> Value<T> getCorrespondingNewEmptyValue(int type) {
-        return switch (type) {
-            case TYPE_BYTE -> (Value<T>) Byte((byte) 0);
-            case TYPE_VARINT -> (Value<T>) VarInt(0);
-            case TYPE_FLOAT -> (Value<T>) Float(0);
-            case TYPE_STRING -> (Value<T>) String("");
-            case TYPE_CHAT -> (Value<T>) Chat(Component.empty());
-            case TYPE_OPTCHAT -> (Value<T>) OptChat(null);
-            case TYPE_SLOT -> (Value<T>) Slot(ItemStack.AIR);
-            case TYPE_BOOLEAN -> (Value<T>) Boolean(false);
-            case TYPE_ROTATION -> (Value<T>) Rotation(Vec.ZERO);
-            case TYPE_POSITION -> (Value<T>) Position(Vec.ZERO);
-            case TYPE_OPTPOSITION -> (Value<T>) OptPosition(null);
-            case TYPE_DIRECTION -> (Value<T>) Direction(Direction.DOWN);
-            case TYPE_OPTUUID -> (Value<T>) OptUUID(null);
-            case TYPE_OPTBLOCKID -> (Value<T>) OptBlockID(null);
-            case TYPE_NBT -> (Value<T>) NBT(new NBTEnd());
-            case TYPE_PARTICLE -> throw new UnsupportedOperationException();
-            case TYPE_VILLAGERDATA -> (Value<T>) VillagerData(0, 0, 0);
-            case TYPE_OPTVARINT -> (Value<T>) OptVarInt(null);
-            case TYPE_POSE -> (Value<T>) Pose(Entity.Pose.STANDING);
-            default -> throw new UnsupportedOperationException();
-        };
-    }
-
     private static <T> Value<T> read(int type, BinaryReader reader) {
-        Value<T> value = getCorrespondingNewEmptyValue(type);
+        Value<T> value = new Value<>(type, null);
         value.read(reader);
         return value;
     }
@@ -328,6 +422,9 @@ public class Metadata {
         protected final Consumer<BinaryWriter> valueWriter;
         protected final Function<BinaryReader, T> readingFunction;
 
+        /**
+         * Creates a value with a custom writer, stored as is by {@link Metadata}.
+         */
         public Value(int type, T value, @NotNull Consumer<BinaryWriter> valueWriter, @NotNull Function<BinaryReader, T> readingFunction) {
             this.type = type;
             this.value = value;
@@ -335,16 +432,28 @@ public class Metadata {
             this.readingFunction = readingFunction;
         }
 
+        protected Value(int type, T value) {
+            this.type = type;
+            this.value = value;
+            this.valueWriter = null;
+            this.readingFunction = null;
+        }
+
         @Override
         public void write(@NotNull BinaryWriter writer) {
             writer.writeVarInt(type);
-            this.valueWriter.accept(writer);
+            if (valueWriter != null) {
+                this.valueWriter.accept(writer);
+            } else {
+                writeValue(writer, type, value);
+            }
         }
 
         @Override
+        @SuppressWarnings("unchecked")
         public void read(@NotNull BinaryReader reader) {
             // skip type, will be read somewhere else
-            value = readingFunction.apply(reader);
+            value = readingFunction != null ? readingFunction.apply(reader) : (T) readValue(reader, type);
         }
 
         public int getType() {
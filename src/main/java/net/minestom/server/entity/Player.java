@@ -40,6 +40,7 @@ import net.minestom.server.event.item.ItemUpdateStateEvent;
 import net.minestom.server.event.item.PickupExperienceEvent;
 import net.minestom.server.event.player.*;
 import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.EntitySpatialIndex;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.inventory.Inventory;
 import net.minestom.server.inventory.PlayerInventory;
@@ -58,6 +59,7 @@ import net.minestom.server.network.packet.client.play.ClientChatMessagePacket;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.login.LoginDisconnectPacket;
 import net.minestom.server.network.packet.server.play.*;
+import net.minestom.server.network.player.ClientPacketQueue;
 import net.minestom.server.network.player.PlayerConnection;
 import net.minestom.server.network.player.PlayerSocketConnection;
 import net.minestom.server.recipe.Recipe;
@@ -66,13 +68,12 @@ import net.minestom.server.resourcepack.ResourcePack;
 import net.minestom.server.scoreboard.BelowNameTag;
 import net.minestom.server.scoreboard.Team;
 import net.minestom.server.statistic.PlayerStatistic;
-import net.minestom.server.utils.ArrayUtils;
 import net.minestom.server.utils.MathUtils;
 import net.minestom.server.utils.PacketUtils;
 import net.minestom.server.utils.TickUtils;
 import net.minestom.server.utils.async.AsyncUtils;
+import net.minestom.server.utils.chunk.ChunkQueue;
 import net.minestom.server.utils.chunk.ChunkUtils;
-import net.minestom.server.utils.entity.EntityUtils;
 import net.minestom.server.utils.identity.NamedAndIdentified;
 import net.minestom.server.utils.instance.InstanceUtils;
 import net.minestom.server.utils.inventory.PlayerInventoryUtils;
@@ -89,7 +90,6 @@ import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.UnaryOperator;
 
@@ -101,6 +101,10 @@ import java.util.function.UnaryOperator;
  */
 public class Player extends LivingEntity implements CommandSender, Localizable, HoverEventSource<ShowEntity>, Identified, NamedAndIdentified {
 
+    private static final int CHUNKS_PER_TICK = Integer.getInteger("minestom.chunks-per-tick", 32);
+    private static final int CHUNK_BYTES_PER_TICK = Integer.getInteger("minestom.chunk-bytes-per-tick", 1_048_576);
+    private static final int PACKET_QUEUE_SIZE = Integer.getInteger("minestom.packet-queue-size", 1024);
+
     private static final Component REMOVE_MESSAGE = Component.text("You have been removed from the server without reason.", NamedTextColor.RED);
 
     private long lastKeepAlive;
@@ -120,11 +124,18 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
     private GameMode gameMode;
     // Chunks that the player can view
     protected final Set<Chunk> viewableChunks = ConcurrentHashMap.newKeySet();
+    // Chunks entering the view, sent by priority within the per-tick budgets
+    private final ChunkQueue chunkQueue = new ChunkQueue();
+    private long chunkBatchStart;
+    private int chunkBatchSize;
+    // Last processed view squares, a negative range means that the view has to be computed from scratch
+    private int viewChunkX, viewChunkZ, viewRange = -1;
+    private int entityViewChunkX, entityViewChunkZ, entityViewRange = -1;
 
     private final AtomicInteger teleportId = new AtomicInteger();
     private int receivedTeleportId;
 
-    private final Queue<ClientPlayPacket> packets = new ConcurrentLinkedQueue<>();
+    private final ClientPacketQueue packets = new ClientPacketQueue(PACKET_QUEUE_SIZE);
     private final boolean levelFlat;
     private final PlayerSettings settings;
     private float exp;
@@ -306,28 +317,28 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
             packet.process(this);
         }
 
+        // Send chunks entering the view
+        sendQueuedChunks(time);
+
         super.update(time); // Super update (item pickup/fire management)
 
         // Experience orb pickup
         if (experiencePickupCooldown.isReady(time)) {
             experiencePickupCooldown.refreshLastUpdate(time);
-            final Chunk chunk = getChunk(); // TODO check surrounding chunks
-            final Set<Entity> entities = instance.getChunkEntities(chunk);
-            for (Entity entity : entities) {
-                if (entity instanceof ExperienceOrb) {
-                    final ExperienceOrb experienceOrb = (ExperienceOrb) entity;
-                    final BoundingBox itemBoundingBox = experienceOrb.getBoundingBox();
-                    if (expandedBoundingBox.intersect(itemBoundingBox)) {
+            instance.getEntityIndex().visitBox(
+                    new Vec(expandedBoundingBox.getMinX() - 1, expandedBoundingBox.getMinY() - 1, expandedBoundingBox.getMinZ() - 1),
+                    new Vec(expandedBoundingBox.getMaxX() + 1, expandedBoundingBox.getMaxY() + 1, expandedBoundingBox.getMaxZ() + 1),
+                    ExperienceOrb.class, experienceOrb -> {
+                        if (!expandedBoundingBox.intersect(experienceOrb.getBoundingBox()))
+                            return;
                         if (experienceOrb.shouldRemove() || experienceOrb.isRemoveScheduled())
-                            continue;
+                            return;
                         PickupExperienceEvent pickupExperienceEvent = new PickupExperienceEvent(this, experienceOrb);
                         EventDispatcher.callCancellable(pickupExperienceEvent, () -> {
                             short experienceCount = pickupExperienceEvent.getExperienceCount(); // TODO give to player
-                            entity.remove();
+                            experienceOrb.remove();
                         });
-                    }
-                }
-            }
+                    });
         }
 
         // Eating animation
@@ -436,8 +447,15 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
      */
     public void refreshCommands() {
         CommandManager commandManager = MinecraftServer.getCommandManager();
-        DeclareCommandsPacket declareCommandsPacket = commandManager.createDeclareCommandsPacket(this);
-        playerConnection.sendPacket(declareCommandsPacket);
+        final FramedPacket framedPacket = commandManager.getDeclareCommandsPacket(this);
+        if (playerConnection instanceof PlayerSocketConnection) {
+            // The shared frame is written directly, call the packet listeners as done for grouped packets
+            if (!MinecraftServer.getPacketListenerManager()
+                    .processServerPacket(framedPacket.packet(), Collections.singleton(this))) return;
+            playerConnection.sendPacket(framedPacket);
+        } else {
+            playerConnection.sendPacket(framedPacket.packet());
+        }
     }
 
     @Override
@@ -559,6 +577,9 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
         if (!firstSpawn) {
             // Player instance changed, clear current viewable collections
             previousChunks.forEach(chunk -> chunk.removeViewer(this));
+            this.chunkQueue.clear();
+            this.viewRange = -1;
+            this.entityViewRange = -1;
 
             //TODO: entity#removeViewer sends a packet for each removed entity
             //Sending destroy entity packets is not necessary when the dimension changes
@@ -1188,16 +1209,20 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
         final int newChunkX = newChunk.getChunkX();
         final int newChunkZ = newChunk.getChunkZ();
         final int range = getChunkRange();
-        // Previous chunks indexes
-        final long[] lastVisibleChunks = viewableChunks.stream().mapToLong(ChunkUtils::getChunkIndex).toArray();
-        // New chunks indexes
-        final long[] updatedVisibleChunks = ChunkUtils.getChunksInRange(newChunkX, newChunkZ, range);
+        final int lastChunkX = viewChunkX, lastChunkZ = viewChunkZ, lastRange = viewRange;
+        this.viewChunkX = newChunkX;
+        this.viewChunkZ = newChunkZ;
+        this.viewRange = range;
 
         // Update client render distance
         updateViewPosition(newChunkX, newChunkZ);
 
-        // Unload old chunks
-        ArrayUtils.forDifferencesBetweenArray(lastVisibleChunks, updatedVisibleChunks, chunkIndex -> {
+        // Unload chunks leaving the view
+        ChunkUtils.forDifferingChunksInRange(lastChunkX, lastChunkZ, lastRange, newChunkX, newChunkZ, range, chunkIndex -> {
+            if (chunkQueue.remove(chunkIndex)) {
+                // Never sent
+                return;
+            }
             final int chunkX = ChunkUtils.getChunkCoordX(chunkIndex);
             final int chunkZ = ChunkUtils.getChunkCoordZ(chunkIndex);
             this.playerConnection.sendPacket(new UnloadChunkPacket(chunkX, chunkZ));
@@ -1206,22 +1231,9 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
                 chunk.removeViewer(this);
             }
         });
-        // Load new chunks
-        ArrayUtils.forDifferencesBetweenArray(updatedVisibleChunks, lastVisibleChunks, chunkIndex -> {
-            final int chunkX = ChunkUtils.getChunkCoordX(chunkIndex);
-            final int chunkZ = ChunkUtils.getChunkCoordZ(chunkIndex);
-            this.instance.loadOptionalChunk(chunkX, chunkZ).thenAccept(chunk -> {
-                if (chunk == null) {
-                    // Cannot load chunk (auto-load is not enabled)
-                    return;
-                }
-                try {
-                    chunk.addViewer(this);
-                } catch (Exception e) {
-                    MinecraftServer.getExceptionManager().handleException(e);
-                }
-            });
-        });
+        // Queue chunks entering the view
+        ChunkUtils.forDifferingChunksInRange(newChunkX, newChunkZ, range, lastChunkX, lastChunkZ, lastRange, chunkQueue::add);
+        this.chunkQueue.center(newChunkX, newChunkZ, position.yaw());
     }
 
     public void refreshVisibleChunks() {
@@ -1231,6 +1243,66 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
         }
     }
 
+    /**
+     * Sends the queued chunks within the limits of {@code minestom.chunks-per-tick} and {@code minestom.chunk-bytes-per-tick}.
+     * <p>
+     * The byte budget also shrinks with the connection backlog, so a client not draining its socket
+     * receives fewer chunks until it catches up.
+     *
+     * @param time the tick time in milliseconds
+     */
+    private void sendQueuedChunks(long time) {
+        if (chunkQueue.isEmpty()) return;
+        if (chunkBatchStart == 0) {
+            this.chunkBatchStart = time;
+            this.chunkBatchSize = 0;
+            EventDispatcher.call(new PlayerChunkBatchStartEvent(this, chunkQueue.size()));
+        }
+        this.chunkQueue.center(viewChunkX, viewChunkZ, position.yaw());
+
+        final PlayerSocketConnection socket = playerConnection instanceof PlayerSocketConnection connection ? connection : null;
+        final long startPending = socket != null ? socket.getPendingBytes() : 0;
+        final long budget = socket != null ?
+                Math.min(CHUNK_BYTES_PER_TICK, MinecraftServer.getMaxPendingBytes() / 2 - startPending) : Long.MAX_VALUE;
+        int sent = 0;
+        if (budget > 0) {
+            sent = chunkQueue.drain(CHUNKS_PER_TICK, chunkIndex -> {
+                sendQueuedChunk(chunkIndex);
+                return socket == null || socket.getPendingBytes() - startPending < budget;
+            });
+        }
+        final long bytes = socket != null ? Math.max(0, socket.getPendingBytes() - startPending) : 0;
+        this.chunkQueue.record(sent, bytes);
+        this.chunkBatchSize += sent;
+
+        if (chunkQueue.isEmpty()) {
+            EventDispatcher.call(new PlayerChunkBatchFinishEvent(this, chunkBatchSize, time - chunkBatchStart));
+            this.chunkBatchStart = 0;
+        }
+    }
+
+    private void sendQueuedChunk(long chunkIndex) {
+        final Instance instance = this.instance;
+        final int chunkX = ChunkUtils.getChunkCoordX(chunkIndex);
+        final int chunkZ = ChunkUtils.getChunkCoordZ(chunkIndex);
+        instance.loadOptionalChunk(chunkX, chunkZ).thenAccept(chunk -> {
+            if (chunk == null) {
+                // Cannot load chunk (auto-load is not enabled)
+                return;
+            }
+            if (this.instance != instance || Math.abs(chunkX - viewChunkX) > viewRange ||
+                    Math.abs(chunkZ - viewChunkZ) > viewRange) {
+                // Left the view while loading
+                return;
+            }
+            try {
+                chunk.addViewer(this);
+            } catch (Exception e) {
+                MinecraftServer.getExceptionManager().handleException(e);
+            }
+        });
+    }
+
     /**
      * Refreshes the list of entities that the player should be able to see based
      * on {@link MinecraftServer#getEntityViewDistance()} and {@link Entity#isAutoViewable()}.
@@ -1238,31 +1310,86 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
      * @param newChunk the new chunk of the player (can be the current one)
      */
     public void refreshVisibleEntities(@NotNull Chunk newChunk) {
-        final int entityViewDistance = MinecraftServer.getEntityViewDistance();
-        final float maximalDistance = entityViewDistance * Chunk.CHUNK_SECTION_SIZE;
-        // Manage already viewable entities
-        this.viewableEntities.stream()
-                .filter(entity -> entity.getDistance(this) > maximalDistance)
-                .forEach(entity -> {
-                    // Entity shouldn't be viewable anymore
-                    if (isAutoViewable()) {
-                        entity.removeViewer(this);
-                    }
-                    if (entity instanceof Player && entity.isAutoViewable()) {
-                        removeViewer((Player) entity);
-                    }
-                });
-        // Manage entities in unchecked chunks
-        EntityUtils.forEachRange(instance, newChunk.toPosition(), entityViewDistance, entity -> {
-            if (entity.isAutoViewable() && !entity.viewers.contains(this)) {
-                entity.addViewer(this);
+        final int newChunkX = newChunk.getChunkX();
+        final int newChunkZ = newChunk.getChunkZ();
+        final int range = MinecraftServer.getEntityViewDistance();
+        final int lastChunkX = entityViewChunkX, lastChunkZ = entityViewChunkZ, lastRange = entityViewRange;
+        this.entityViewChunkX = newChunkX;
+        this.entityViewChunkZ = newChunkZ;
+        this.entityViewRange = range;
+
+        final EntitySpatialIndex entityIndex = instance.getEntityIndex();
+        // Manage entities leaving the view, viewable entities may have moved since the last refresh
+        // so they are all checked instead of only those in the chunks leaving the view
+        for (Entity entity : viewableEntities) {
+            final Pos position = entity.getPosition();
+            if (Math.abs(position.chunkX() - newChunkX) > range || Math.abs(position.chunkZ() - newChunkZ) > range) {
+                hideEntity(entity);
             }
-            if (entity instanceof Player && isAutoViewable() && !viewers.contains(entity)) {
-                addViewer((Player) entity);
+        }
+        // Manage entities entering the view, those moving into the previous view square did it themselves
+        ChunkUtils.forDifferingChunksInRange(newChunkX, newChunkZ, range, lastChunkX, lastChunkZ, lastRange, chunkIndex -> {
+            final Set<Entity> entities = entityIndex.chunkEntities(ChunkUtils.getChunkCoordX(chunkIndex),
+                    ChunkUtils.getChunkCoordZ(chunkIndex));
+            for (Entity entity : entities) {
+                if (entity.isAutoViewable() && !entity.viewers.contains(this)) {
+                    entity.addViewer(this);
+                }
+                if (entity instanceof Player && isAutoViewable() && !viewers.contains(entity)) {
+                    addViewer((Player) entity);
+                }
             }
         });
     }
 
+    /**
+     * Updates the viewers of an entity which moved to another chunk.
+     * <p>
+     * Players only look at the chunks entering and leaving their view when they move,
+     * the entity has to show itself to the players that it approached and hide from those it left.
+     * Only the players in the differing strips of the two view squares are visited.
+     *
+     * @param entity     the entity which changed chunk
+     * @param lastChunkX the previous chunk X of the entity
+     * @param lastChunkZ the previous chunk Z of the entity
+     * @param chunk      the new chunk of the entity
+     */
+    static void refreshEntityViewers(@NotNull Entity entity, int lastChunkX, int lastChunkZ, @NotNull Chunk chunk) {
+        if (!entity.isAutoViewable()) return;
+        final int chunkX = chunk.getChunkX();
+        final int chunkZ = chunk.getChunkZ();
+        final int range = MinecraftServer.getEntityViewDistance();
+        final EntitySpatialIndex entityIndex = entity.getInstance().getEntityIndex();
+        // Players left behind
+        ChunkUtils.forDifferingChunksInRange(lastChunkX, lastChunkZ, range, chunkX, chunkZ, range, chunkIndex -> {
+            for (Entity other : entityIndex.chunkEntities(ChunkUtils.getChunkCoordX(chunkIndex),
+                    ChunkUtils.getChunkCoordZ(chunkIndex))) {
+                if (other instanceof Player player && entity.viewers.contains(player)) {
+                    player.hideEntity(entity);
+                }
+            }
+        });
+        // Players approached
+        ChunkUtils.forDifferingChunksInRange(chunkX, chunkZ, range, lastChunkX, lastChunkZ, range, chunkIndex -> {
+            for (Entity other : entityIndex.chunkEntities(ChunkUtils.getChunkCoordX(chunkIndex),
+                    ChunkUtils.getChunkCoordZ(chunkIndex))) {
+                if (other instanceof Player player && player != entity && !entity.viewers.contains(player)) {
+                    entity.addViewer(player);
+                }
+            }
+        });
+    }
+
+    private void hideEntity(@NotNull Entity entity) {
+        // Entity shouldn't be viewable anymore
+        if (isAutoViewable()) {
+            entity.removeViewer(this);
+        }
+        if (entity instanceof Player && entity.isAutoViewable()) {
+            removeViewer((Player) entity);
+        }
+    }
+
     /**
      * Gets the player connection.
      * <p>
@@ -1828,11 +1955,17 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
      * All packets in the queue are executed in the {@link #update(long)} method
      * It is used internally to add all received packet from the client.
      * Could be used to "simulate" a received packet, but to use at your own risk.
+     * <p>
+     * Movement packets are coalesced, only the latest position and rotation are processed.
+     * The player is kicked if the queue is full.
      *
      * @param packet the packet to add in the queue
      */
     public void addPacketToQueue(@NotNull ClientPlayPacket packet) {
-        this.packets.add(packet);
+        if (!packets.offer(packet)) {
+            // Client sending packets faster than they can be processed
+            this.playerConnection.markPacketOverflow();
+        }
     }
 
     /**
@@ -1954,6 +2087,17 @@ public class Player extends LivingEntity implements CommandSender, Localizable,
         return Math.min(getSettings().viewDistance, MinecraftServer.getChunkViewDistance());
     }
 
+    /**
+     * Gets the queue of the chunks waiting to be sent to this player,
+     * exposing the queue depth and send rate.
+     *
+     * @return the chunk queue
+     */
+    @ApiStatus.Experimental
+    public @NotNull ChunkQueue getChunkQueue() {
+        return chunkQueue;
+    }
+
     /**
      * Gets the last sent keep alive id.
      *
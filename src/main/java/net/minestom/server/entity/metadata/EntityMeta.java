@@ -99,11 +99,11 @@ public class EntityMeta {
     }
 
     public int getAirTicks() {
-        return this.metadata.getIndex(OFFSET + 1, 300);
+        return this.metadata.getVarInt(OFFSET + 1, 300);
     }
 
     public void setAirTicks(int value) {
-        this.metadata.setIndex(OFFSET + 1, Metadata.VarInt(value));
+        this.metadata.setVarInt(OFFSET + 1, value);
     }
 
     public Component getCustomName() {
@@ -115,27 +115,27 @@ public class EntityMeta {
     }
 
     public boolean isCustomNameVisible() {
-        return this.metadata.getIndex(OFFSET + 3, false);
+        return this.metadata.getBoolean(OFFSET + 3, false);
     }
 
     public void setCustomNameVisible(boolean value) {
-        this.metadata.setIndex(OFFSET + 3, Metadata.Boolean(value));
+        this.metadata.setBoolean(OFFSET + 3, value);
     }
 
     public boolean isSilent() {
-        return this.metadata.getIndex(OFFSET + 4, false);
+        return this.metadata.getBoolean(OFFSET + 4, false);
     }
 
     public void setSilent(boolean value) {
-        this.metadata.setIndex(OFFSET + 4, Metadata.Boolean(value));
+        this.metadata.setBoolean(OFFSET + 4, value);
     }
 
     public boolean isHasNoGravity() {
-        return this.metadata.getIndex(OFFSET + 5, false);
+        return this.metadata.getBoolean(OFFSET + 5, false);
     }
 
     public void setHasNoGravity(boolean value) {
-        this.metadata.setIndex(OFFSET + 5, Metadata.Boolean(value));
+        this.metadata.setBoolean(OFFSET + 5, value);
     }
 
     public Entity.Pose getPose() {
@@ -147,19 +147,19 @@ public class EntityMeta {
     }
 
     public int getTickFrozen() {
-        return this.metadata.getIndex(OFFSET + 7, 0);
+        return this.metadata.getVarInt(OFFSET + 7, 0);
     }
 
     public void setTickFrozen(int tickFrozen) {
-        this.metadata.setIndex(OFFSET + 7, Metadata.VarInt(tickFrozen));
+        this.metadata.setVarInt(OFFSET + 7, tickFrozen);
     }
 
     protected byte getMask(int index) {
-        return this.metadata.getIndex(index, (byte) 0);
+        return this.metadata.getByte(index, (byte) 0);
     }
 
     protected void setMask(int index, byte mask) {
-        this.metadata.setIndex(index, Metadata.Byte(mask));
+        this.metadata.setByte(index, mask);
     }
 
     protected boolean getMaskBit(int index, byte bit) {
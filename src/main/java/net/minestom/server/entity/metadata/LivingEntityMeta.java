@@ -45,43 +45,43 @@ public class LivingEntityMeta extends EntityMeta {
     }
 
     public float getHealth() {
-        return super.metadata.getIndex(OFFSET + 1, 1F);
+        return super.metadata.getFloat(OFFSET + 1, 1F);
     }
 
     public void setHealth(float value) {
-        super.metadata.setIndex(OFFSET + 1, Metadata.Float(value));
+        super.metadata.setFloat(OFFSET + 1, value);
     }
 
     public int getPotionEffectColor() {
-        return super.metadata.getIndex(OFFSET + 2, 0);
+        return super.metadata.getVarInt(OFFSET + 2, 0);
     }
 
     public void setPotionEffectColor(int value) {
-        super.metadata.setIndex(OFFSET + 2, Metadata.VarInt(value));
+        super.metadata.setVarInt(OFFSET + 2, value);
     }
 
     public boolean isPotionEffectAmbient() {
-        return super.metadata.getIndex(OFFSET + 3, false);
+        return super.metadata.getBoolean(OFFSET + 3, false);
     }
 
     public void setPotionEffectAmbient(boolean value) {
-        super.metadata.setIndex(OFFSET + 3, Metadata.Boolean(value));
+        super.metadata.setBoolean(OFFSET + 3, value);
     }
 
     public int getArrowCount() {
-        return super.metadata.getIndex(OFFSET + 4, 0);
+        return super.metadata.getVarInt(OFFSET + 4, 0);
     }
 
     public void setArrowCount(int value) {
-        super.metadata.getIndex(OFFSET + 4, Metadata.VarInt(value));
+        super.metadata.setVarInt(OFFSET + 4, value);
     }
 
     public int getHealthAddedByAbsorption() {
-        return super.metadata.getIndex(OFFSET + 5, 0);
+        return super.metadata.getVarInt(OFFSET + 5, 0);
     }
 
     public void setHealthAddedByAbsorption(int value) {
-        super.metadata.getIndex(OFFSET + 5, Metadata.VarInt(value));
+        super.metadata.setVarInt(OFFSET + 5, value);
     }
 
     @Nullable
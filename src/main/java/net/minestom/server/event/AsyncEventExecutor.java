@@ -0,0 +1,40 @@
+package net.minestom.server.event;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor running the handlers of the listeners built with {@link EventListener.Builder#async()}.
+ * <p>
+ * Handlers are run by the calling thread once the queue is full, slowing down the producers
+ * instead of accumulating events.
+ */
+final class AsyncEventExecutor {
+    private static final int THREAD_COUNT = Integer.getInteger("minestom.event.async-threads",
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    private static final int QUEUE_SIZE = Integer.getInteger("minestom.event.async-queue-size", 4096);
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    static {
+        EXECUTOR = new ThreadPoolExecutor(THREAD_COUNT, THREAD_COUNT, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Ms-EventAsync-" + COUNTER.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    private AsyncEventExecutor() {
+    }
+
+    static void execute(Runnable runnable) {
+        EXECUTOR.execute(runnable);
+    }
+}
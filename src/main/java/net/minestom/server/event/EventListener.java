@@ -1,12 +1,18 @@
 package net.minestom.server.event;
 
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.event.trait.CancellableEvent;
+import net.minestom.server.utils.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -23,6 +29,19 @@ public interface EventListener<T extends Event> {
 
     @NotNull Result run(@NotNull T event);
 
+    /**
+     * Gets the execution timings of this listener.
+     * <p>
+     * Only collected for listeners created with {@link Builder} when
+     * the {@code minestom.event.listener-timings} system property is set.
+     *
+     * @return the timings of this listener, null if not collected
+     */
+    @ApiStatus.Experimental
+    default @Nullable Timings timings() {
+        return null;
+    }
+
     @Contract(pure = true)
     static <T extends Event> EventListener.@NotNull Builder<T> builder(@NotNull Class<T> eventType) {
         return new EventListener.Builder<>(eventType);
@@ -49,6 +68,7 @@ public interface EventListener<T extends Event> {
         private int expireCount;
         private Predicate<T> expireWhen;
         private Consumer<T> handler;
+        private boolean async;
 
         protected Builder(Class<T> eventType) {
             this.eventType = eventType;
@@ -110,9 +130,30 @@ public interface EventListener<T extends Event> {
             return this;
         }
 
+        /**
+         * Runs the handler on a bounded executor instead of the thread calling the event,
+         * filters and expiration conditions are still checked synchronously.
+         * <p>
+         * The handler receives the event after the call returned, it must therefore not modify it.
+         * {@link CancellableEvent cancellable events} are always handled synchronously as
+         * their result is read by the caller.
+         *
+         * @throws IllegalStateException if the event type is cancellable
+         */
+        @ApiStatus.Experimental
+        @Contract(value = "-> this")
+        public @NotNull EventListener.Builder<T> async() {
+            Check.stateCondition(CancellableEvent.class.isAssignableFrom(eventType),
+                    "Cancellable events cannot be handled asynchronously");
+            this.async = true;
+            return this;
+        }
+
         @Contract(value = "-> new", pure = true)
         public @NotNull EventListener<T> build() {
             final boolean ignoreCancelled = this.ignoreCancelled;
+            final boolean async = this.async;
+            final Timings timings = Timings.ENABLED ? new Timings() : null;
             AtomicInteger expirationCount = new AtomicInteger(this.expireCount);
             final boolean hasExpirationCount = expirationCount.get() > 0;
 
@@ -148,7 +189,18 @@ public interface EventListener<T extends Event> {
                     }
                     // Handler
                     if (handler != null) {
-                        handler.accept(event);
+                        // Cancellable events may be subclasses of the listened type
+                        if (async && !(event instanceof CancellableEvent)) {
+                            AsyncEventExecutor.execute(() -> {
+                                try {
+                                    handle(event);
+                                } catch (Throwable e) {
+                                    MinecraftServer.getExceptionManager().handleException(e);
+                                }
+                            });
+                        } else {
+                            handle(event);
+                        }
                     }
                     // Expiration count
                     if (hasExpirationCount && expirationCount.decrementAndGet() == 0) {
@@ -156,10 +208,86 @@ public interface EventListener<T extends Event> {
                     }
                     return Result.SUCCESS;
                 }
+
+                @Override
+                public @Nullable Timings timings() {
+                    return timings;
+                }
+
+                private void handle(T event) {
+                    if (timings == null) {
+                        handler.accept(event);
+                        return;
+                    }
+                    final long start = System.nanoTime();
+                    try {
+                        handler.accept(event);
+                    } finally {
+                        timings.record(System.nanoTime() - start);
+                    }
+                }
             };
         }
     }
 
+    /**
+     * Execution statistics of a listener handler.
+     */
+    @ApiStatus.Experimental
+    final class Timings {
+        static final boolean ENABLED = Boolean.getBoolean("minestom.event.listener-timings");
+
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        Timings() {
+        }
+
+        void record(long nanos) {
+            this.invocations.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        /**
+         * Gets the number of times the handler has been executed.
+         *
+         * @return the invocation count
+         */
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        /**
+         * Gets the total time spent in the handler.
+         *
+         * @return the total time in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Gets the longest execution of the handler.
+         *
+         * @return the maximum time in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Gets the average execution time of the handler.
+         *
+         * @return the average time in nanoseconds, 0 if never executed
+         */
+        public long getAverageNanos() {
+            final long invocations = getInvocations();
+            return invocations != 0 ? getTotalNanos() / invocations : 0;
+        }
+    }
+
     enum Result {
         SUCCESS,
         INVALID,
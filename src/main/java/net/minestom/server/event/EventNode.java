@@ -328,6 +328,16 @@ public sealed interface EventNode<T extends Event> permits EventNodeImpl {
     @Contract(value = "_ -> this")
     @NotNull EventNode<T> removeListener(@NotNull EventListener<? extends T> listener);
 
+    /**
+     * Gets the listeners directly registered to this node, excluding children and bindings.
+     * <p>
+     * Can be used with {@link EventListener#timings()} to find slow listeners.
+     *
+     * @return an unmodifiable snapshot of the listeners
+     */
+    @ApiStatus.Experimental
+    @NotNull List<@NotNull EventListener<? extends T>> getListeners();
+
     /**
      * Maps a specific object to a node.
      * <p>
@@ -1,5 +1,6 @@
 package net.minestom.server.event;
 
+import com.google.common.collect.MapMaker;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.event.trait.RecursiveEvent;
 import net.minestom.server.utils.validate.Check;
@@ -11,17 +12,24 @@ import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiConsumer;
 import java.util.function.BiPredicate;
 import java.util.function.Consumer;
 
 non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
-    private static final Object GLOBAL_CHILD_LOCK = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<EventNodeImpl, EventNodeImpl> PARENT_UPDATER =
+            AtomicReferenceFieldUpdater.newUpdater(EventNodeImpl.class, EventNodeImpl.class, "parent");
+    // Whether the listeners of a node tree are flattened into a single array of steps
+    private static final boolean COMPILED_DISPATCH = Boolean.getBoolean("minestom.event.compiled-dispatch");
 
     private final Map<Class<? extends T>, Handle<T>> handleMap = new ConcurrentHashMap<>();
     private final Map<Class<? extends T>, ListenerEntry<T>> listenerMap = new ConcurrentHashMap<>();
     private final Set<EventNodeImpl<T>> children = new CopyOnWriteArraySet<>();
-    private final Map<Object, EventNodeImpl<T>> mappedNodeCache = new WeakHashMap<>();
+    // Weak identity keys, mapped objects are generally entities or instances
+    private final Map<Object, EventNodeImpl<T>> mappedNodeCache = new MapMaker().weakKeys().makeMap();
 
     private final String name;
     private final EventFilter<T, ?> filter;
@@ -48,17 +56,15 @@ non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
 
     @Override
     public <E extends T> @NotNull List<EventNode<E>> findChildren(@NotNull String name, Class<E> eventType) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            if (children.isEmpty()) return Collections.emptyList();
-            List<EventNode<E>> result = new ArrayList<>();
-            for (EventNode<T> child : children) {
-                if (equals(child, name, eventType)) {
-                    result.add((EventNode<E>) child);
-                }
-                result.addAll(child.findChildren(name, eventType));
+        if (children.isEmpty()) return Collections.emptyList();
+        List<EventNode<E>> result = new ArrayList<>();
+        for (EventNode<T> child : children) {
+            if (equals(child, name, eventType)) {
+                result.add((EventNode<E>) child);
             }
-            return result;
+            result.addAll(child.findChildren(name, eventType));
         }
+        return result;
     }
 
     @Contract(pure = true)
@@ -66,127 +72,117 @@ non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
         return Collections.unmodifiableSet(children);
     }
 
+    @Override
+    public @NotNull List<@NotNull EventListener<? extends T>> getListeners() {
+        List<EventListener<? extends T>> result = new ArrayList<>();
+        for (ListenerEntry<T> entry : listenerMap.values()) {
+            result.addAll(entry.listeners);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
     @Override
     public <E extends T> void replaceChildren(@NotNull String name, @NotNull Class<E> eventType, @NotNull EventNode<E> eventNode) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            if (children.isEmpty()) return;
-            for (EventNode<T> child : children) {
-                if (equals(child, name, eventType)) {
-                    removeChild(child);
-                    addChild(eventNode);
-                    continue;
-                }
-                child.replaceChildren(name, eventType, eventNode);
+        if (children.isEmpty()) return;
+        for (EventNode<T> child : children) {
+            if (equals(child, name, eventType)) {
+                removeChild(child);
+                addChild(eventNode);
+                continue;
             }
+            child.replaceChildren(name, eventType, eventNode);
         }
     }
 
     @Override
     public void removeChildren(@NotNull String name, @NotNull Class<? extends T> eventType) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            if (children.isEmpty()) return;
-            for (EventNode<T> child : children) {
-                if (equals(child, name, eventType)) {
-                    removeChild(child);
-                    continue;
-                }
-                child.removeChildren(name, eventType);
+        if (children.isEmpty()) return;
+        for (EventNode<T> child : children) {
+            if (equals(child, name, eventType)) {
+                removeChild(child);
+                continue;
             }
+            child.removeChildren(name, eventType);
         }
     }
 
     @Override
     public @NotNull EventNode<T> addChild(@NotNull EventNode<? extends T> child) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var childImpl = (EventNodeImpl<? extends T>) child;
-            Check.stateCondition(childImpl.parent != null, "Node already has a parent");
-            Check.stateCondition(Objects.equals(parent, child), "Cannot have a child as parent");
-            if (!children.add((EventNodeImpl<T>) childImpl)) return this; // Couldn't add the child (already present?)
-            childImpl.parent = this;
-            childImpl.invalidateEventsFor(this);
-        }
+        final var childImpl = (EventNodeImpl<? extends T>) child;
+        Check.stateCondition(Objects.equals(parent, child), "Cannot have a child as parent");
+        Check.stateCondition(!PARENT_UPDATER.compareAndSet(childImpl, null, this), "Node already has a parent");
+        this.children.add((EventNodeImpl<T>) childImpl);
+        childImpl.invalidateEventsFor(this);
         return this;
     }
 
     @Override
     public @NotNull EventNode<T> removeChild(@NotNull EventNode<? extends T> child) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var childImpl = (EventNodeImpl<? extends T>) child;
-            final boolean result = this.children.remove(childImpl);
-            if (!result) return this; // Child not found
-            childImpl.parent = null;
-            childImpl.invalidateEventsFor(this);
-        }
+        final var childImpl = (EventNodeImpl<? extends T>) child;
+        final boolean result = this.children.remove(childImpl);
+        if (!result) return this; // Child not found
+        childImpl.parent = null;
+        childImpl.invalidateEventsFor(this);
         return this;
     }
 
     @Override
     public @NotNull EventNode<T> addListener(@NotNull EventListener<? extends T> listener) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var eventType = listener.eventType();
-            ListenerEntry<T> entry = getEntry(eventType);
-            entry.listeners.add((EventListener<T>) listener);
-            invalidateEvent(eventType);
-        }
+        final var eventType = listener.eventType();
+        ListenerEntry<T> entry = getEntry(eventType);
+        entry.listeners.add((EventListener<T>) listener);
+        invalidateEvent(eventType);
         return this;
     }
 
     @Override
     public @NotNull EventNode<T> removeListener(@NotNull EventListener<? extends T> listener) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var eventType = listener.eventType();
-            ListenerEntry<T> entry = listenerMap.get(eventType);
-            if (entry == null) return this; // There is no listener with such type
-            if (entry.listeners.remove(listener)) invalidateEvent(eventType);
-        }
+        final var eventType = listener.eventType();
+        ListenerEntry<T> entry = listenerMap.get(eventType);
+        if (entry == null) return this; // There is no listener with such type
+        if (entry.listeners.remove(listener)) invalidateEvent(eventType);
         return this;
     }
 
     @Override
     public void map(@NotNull EventNode<? extends T> node, @NotNull Object value) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var nodeImpl = (EventNodeImpl<? extends T>) node;
-            Check.stateCondition(nodeImpl.parent != null, "Node already has a parent");
-            Check.stateCondition(Objects.equals(parent, nodeImpl), "Cannot map to self");
-            EventNodeImpl<T> previous = this.mappedNodeCache.put(value, (EventNodeImpl<T>) nodeImpl);
-            if (previous != null) previous.parent = null;
-            nodeImpl.parent = this;
-            nodeImpl.invalidateEventsFor(this);
+        final var nodeImpl = (EventNodeImpl<? extends T>) node;
+        Check.stateCondition(Objects.equals(parent, nodeImpl), "Cannot map to self");
+        Check.stateCondition(!PARENT_UPDATER.compareAndSet(nodeImpl, null, this), "Node already has a parent");
+        EventNodeImpl<T> previous = this.mappedNodeCache.put(value, (EventNodeImpl<T>) nodeImpl);
+        if (previous != null) {
+            previous.parent = null;
+            previous.invalidateEventsFor(this);
         }
+        nodeImpl.invalidateEventsFor(this);
     }
 
     @Override
     public boolean unmap(@NotNull Object value) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            final var mappedNode = this.mappedNodeCache.remove(value);
-            if (mappedNode == null) return false; // Mapped node not found
-            final var childImpl = (EventNodeImpl<? extends T>) mappedNode;
-            childImpl.parent = null;
-            childImpl.invalidateEventsFor(this);
-            return true;
-        }
+        final var mappedNode = this.mappedNodeCache.remove(value);
+        if (mappedNode == null) return false; // Mapped node not found
+        final var childImpl = (EventNodeImpl<? extends T>) mappedNode;
+        childImpl.parent = null;
+        childImpl.invalidateEventsFor(this);
+        return true;
     }
 
     @Override
     public void register(@NotNull EventBinding<? extends T> binding) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            for (var eventType : binding.eventTypes()) {
-                ListenerEntry<T> entry = getEntry((Class<? extends T>) eventType);
-                final boolean added = entry.bindingConsumers.add((Consumer<T>) binding.consumer(eventType));
-                if (added) invalidateEvent((Class<? extends T>) eventType);
-            }
+        for (var eventType : binding.eventTypes()) {
+            ListenerEntry<T> entry = getEntry((Class<? extends T>) eventType);
+            final boolean added = entry.bindingConsumers.add((Consumer<T>) binding.consumer(eventType));
+            if (added) invalidateEvent((Class<? extends T>) eventType);
         }
     }
 
     @Override
     public void unregister(@NotNull EventBinding<? extends T> binding) {
-        synchronized (GLOBAL_CHILD_LOCK) {
-            for (var eventType : binding.eventTypes()) {
-                ListenerEntry<T> entry = listenerMap.get(eventType);
-                if (entry == null) return;
-                final boolean removed = entry.bindingConsumers.remove(binding.consumer(eventType));
-                if (removed) invalidateEvent((Class<? extends T>) eventType);
-            }
+        for (var eventType : binding.eventTypes()) {
+            ListenerEntry<T> entry = listenerMap.get(eventType);
+            if (entry == null) return;
+            final boolean removed = entry.bindingConsumers.remove(binding.consumer(eventType));
+            if (removed) invalidateEvent((Class<? extends T>) eventType);
         }
     }
 
@@ -229,7 +225,7 @@ non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
     private void invalidateEvent(Class<? extends T> eventClass) {
         forTargetEvents(eventClass, type -> {
             Handle<? super T> handle = handleMap.get(type);
-            if (handle != null) handle.updated = false;
+            if (handle != null) handle.invalidate();
         });
         final EventNodeImpl<? super T> parent = this.parent;
         if (parent != null) parent.invalidateEvent(eventClass);
@@ -262,8 +258,9 @@ non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
     static final class Handle<E extends Event> implements ListenerHandle<E> {
         private final EventNodeImpl<E> node;
         private final Class<E> eventType;
-        private Consumer<E> listener = null;
-        private volatile boolean updated;
+        // Incremented when the node tree changes, the listener is outdated if built for a previous version
+        private final AtomicInteger version = new AtomicInteger();
+        private volatile State<E> state;
 
         Handle(EventNodeImpl<E> node, Class<E> eventType) {
             this.node = node;
@@ -287,17 +284,22 @@ non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
         }
 
         @Nullable Consumer<E> updatedListener() {
-            if (updated) return listener;
-            synchronized (GLOBAL_CHILD_LOCK) {
-                if (updated) return listener;
-                final Consumer<E> listener = createConsumer();
-                this.listener = listener;
-                this.updated = true;
-                return listener;
-            }
+            final int version = this.version.get();
+            final State<E> state = this.state;
+            if (state != null && state.version == version) return state.listener;
+            // Rebuild without blocking, concurrent rebuilds produce equivalent listeners
+            // the new state is only published if no invalidation happened in the meantime
+            final Consumer<E> listener = createConsumer();
+            if (this.version.get() == version) this.state = new State<>(version, listener);
+            return listener;
+        }
+
+        void invalidate() {
+            this.version.incrementAndGet();
         }
 
         private @Nullable Consumer<E> createConsumer() {
+            if (COMPILED_DISPATCH) return compiledConsumer();
             // Standalone listeners
             List<Consumer<E>> listeners = new ArrayList<>();
             forTargetEvents(eventType, type -> {
@@ -351,6 +353,72 @@ non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
             };
         }
 
+        /**
+         * Create a consumer running the whole node tree as a flat array of steps.
+         * <p>
+         * Nodes are laid out in the same order as {@link #createConsumer()} would call them,
+         * a failing predicate jumps over the steps of its node and children.
+         * Rebuilt when any node of the tree invalidates the event.
+         */
+        private @Nullable Consumer<E> compiledConsumer() {
+            List<Step<E>> steps = new ArrayList<>();
+            if (!compile(this, steps)) return null;
+            final Step<E>[] program = steps.toArray(Step[]::new);
+            return event -> {
+                int i = 0;
+                while (i < program.length) {
+                    final Step<E> step = program[i];
+                    switch (step.type) {
+                        case Step.PREDICATE -> {
+                            if (!step.predicate.test(event, step.filter.getHandler(event))) {
+                                i = step.skipTo;
+                                continue;
+                            }
+                        }
+                        case Step.LISTENER -> step.handle.callListener(step.listener, event);
+                        case Step.CONSUMER -> step.consumer.accept(event);
+                    }
+                    i++;
+                }
+            };
+        }
+
+        private boolean compile(@NotNull Handle<E> handle, @NotNull List<Step<E>> steps) {
+            final EventNodeImpl<E> node = handle.node;
+            final int start = steps.size();
+            final Step<E> predicateStep = node.predicate != null ?
+                    new Step<>(Step.PREDICATE, node.filter, node.predicate, null, null, null) : null;
+            if (predicateStep != null) steps.add(predicateStep);
+            // Standalone listeners
+            forTargetEvents(eventType, type -> {
+                final ListenerEntry<E> entry = node.listenerMap.get(type);
+                if (entry == null) return;
+                for (EventListener<E> listener : entry.listeners) {
+                    steps.add(new Step<>(Step.LISTENER, null, null, handle, listener, null));
+                }
+                for (Consumer<E> binding : entry.bindingConsumers) {
+                    steps.add(new Step<>(Step.CONSUMER, null, null, null, null, binding));
+                }
+            });
+            // Mapped
+            final Consumer<E> mappedListener = handle.mappedConsumer();
+            if (mappedListener != null) {
+                steps.add(new Step<>(Step.CONSUMER, null, null, null, null, mappedListener));
+            }
+            // Children
+            node.children.stream()
+                    .filter(child -> child.eventType.isAssignableFrom(eventType)) // Invalid event type
+                    .sorted(Comparator.comparing(EventNode::getPriority))
+                    .forEach(child -> compile((Handle<E>) child.getHandle(eventType), steps));
+            // Empty check
+            if (steps.size() == start + (predicateStep != null ? 1 : 0)) {
+                steps.subList(start, steps.size()).clear();
+                return false;
+            }
+            if (predicateStep != null) predicateStep.skipTo = steps.size();
+            return true;
+        }
+
         /**
          * Create a consumer calling all listeners from {@link EventNode#addListener(EventListener)} and
          * {@link EventNode#register(EventBinding)}.
@@ -433,8 +501,36 @@ non-sealed class EventNodeImpl<T extends Event> implements EventNode<T> {
             EventListener.Result result = listener.run(event);
             if (result == EventListener.Result.EXPIRED) {
                 node.removeListener(listener);
-                this.updated = false;
+                invalidate();
             }
         }
     }
+
+    private record State<E extends Event>(int version, @Nullable Consumer<E> listener) {
+    }
+
+    private static final class Step<E extends Event> {
+        static final int PREDICATE = 0;
+        static final int LISTENER = 1;
+        static final int CONSUMER = 2;
+
+        final int type;
+        final EventFilter<E, ?> filter;
+        final BiPredicate<E, Object> predicate;
+        final Handle<E> handle;
+        final EventListener<E> listener;
+        final Consumer<E> consumer;
+        // Index of the step following the node, only for predicates
+        int skipTo;
+
+        Step(int type, EventFilter<E, ?> filter, BiPredicate<E, Object> predicate,
+             Handle<E> handle, EventListener<E> listener, Consumer<E> consumer) {
+            this.type = type;
+            this.filter = filter;
+            this.predicate = predicate;
+            this.handle = handle;
+            this.listener = listener;
+            this.consumer = consumer;
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package net.minestom.server.event.player;
+
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.trait.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called when every chunk queued for a player has been sent.
+ */
+public class PlayerChunkBatchFinishEvent implements PlayerEvent {
+
+    private final Player player;
+    private final int sentChunks;
+    private final long duration;
+
+    public PlayerChunkBatchFinishEvent(@NotNull Player player, int sentChunks, long duration) {
+        this.player = player;
+        this.sentChunks = sentChunks;
+        this.duration = duration;
+    }
+
+    /**
+     * Gets the number of chunks sent during the batch.
+     *
+     * @return the number of sent chunks
+     */
+    public int getSentChunks() {
+        return sentChunks;
+    }
+
+    /**
+     * Gets the time it took to send the batch.
+     *
+     * @return the batch duration in milliseconds
+     */
+    public long getDuration() {
+        return duration;
+    }
+
+    @Override
+    public @NotNull Player getPlayer() {
+        return player;
+    }
+}
@@ -0,0 +1,34 @@
+package net.minestom.server.event.player;
+
+import net.minestom.server.entity.Player;
+import net.minestom.server.event.trait.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Called when a player starts receiving queued chunks after its chunk queue was empty,
+ * typically after joining, teleporting or crossing a chunk border.
+ */
+public class PlayerChunkBatchStartEvent implements PlayerEvent {
+
+    private final Player player;
+    private final int queuedChunks;
+
+    public PlayerChunkBatchStartEvent(@NotNull Player player, int queuedChunks) {
+        this.player = player;
+        this.queuedChunks = queuedChunks;
+    }
+
+    /**
+     * Gets the number of chunks in the queue when the batch started.
+     *
+     * @return the number of queued chunks
+     */
+    public int getQueuedChunks() {
+        return queuedChunks;
+    }
+
+    @Override
+    public @NotNull Player getPlayer() {
+        return player;
+    }
+}
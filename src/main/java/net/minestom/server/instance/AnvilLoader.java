@@ -1,12 +1,19 @@
 package net.minestom.server.instance;
 
+import it.unimi.dsi.fastutil.shorts.Short2ObjectMap;
+import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.exception.ExceptionManager;
 import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.block.BlockGetter;
 import net.minestom.server.instance.block.BlockHandler;
 import net.minestom.server.instance.block.BlockManager;
+import net.minestom.server.instance.palette.Palette;
 import net.minestom.server.tag.Tag;
+import net.minestom.server.thread.MinestomThreadPool;
+import net.minestom.server.utils.MathUtils;
 import net.minestom.server.utils.async.AsyncUtils;
+import net.minestom.server.utils.chunk.ChunkUtils;
 import net.minestom.server.world.biomes.Biome;
 import net.minestom.server.world.biomes.BiomeManager;
 import org.jetbrains.annotations.NotNull;
@@ -18,15 +25,22 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.Arrays;
-import java.util.Map;
-import java.util.Objects;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 public class AnvilLoader implements IChunkLoader {
     private final static Logger LOGGER = LoggerFactory.getLogger(AnvilLoader.class);
@@ -35,7 +49,16 @@ public class AnvilLoader implements IChunkLoader {
     private static final ExceptionManager EXCEPTION_MANAGER = MinecraftServer.getExceptionManager();
     private static final Biome BIOME = Biome.PLAINS;
 
-    private final Map<String, RegionFile> alreadyLoaded = new ConcurrentHashMap<>();
+    private static final ExecutorService IO_EXECUTOR = new MinestomThreadPool(1, MinecraftServer.THREAD_NAME_CHUNK_IO);
+    private static final BlockState AIR_STATE = new BlockState(Block.AIR.name(), Map.of());
+    // First data version (20w17a) whose block indices never span over two longs
+    private static final int PACKING_DATA_VERSION = 2527;
+
+    private final Map<String, RegionReader> regionReaders = new ConcurrentHashMap<>();
+    private final Map<String, RegionWriter> regionWriters = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<Void>> pendingWrites = new ConcurrentHashMap<>();
+    // Only accessed from the chunk I/O thread
+    private final Short2ObjectMap<BlockState> blockStateCache = new Short2ObjectOpenHashMap<>();
     private final Path path;
     private final Path levelPath;
     private final Path regionPath;
@@ -71,66 +94,139 @@ public class AnvilLoader implements IChunkLoader {
             // No world folder
             return CompletableFuture.completedFuture(null);
         }
+        final CompletableFuture<Void> pendingWrite = pendingWrites.get(ChunkUtils.getChunkIndex(chunkX, chunkZ));
+        if (pendingWrite != null) {
+            // Read the chunk once its last version is on disk
+            return pendingWrite.thenCompose(unused -> loadChunk(instance, chunkX, chunkZ));
+        }
         try {
             return loadMCA(instance, chunkX, chunkZ);
-        } catch (IOException | AnvilException e) {
+        } catch (IOException | NBTException | AnvilException e) {
             EXCEPTION_MANAGER.handleException(e);
         }
         return CompletableFuture.completedFuture(null);
     }
 
-    private @NotNull CompletableFuture<@Nullable Chunk> loadMCA(Instance instance, int chunkX, int chunkZ) throws IOException, AnvilException {
-        final RegionFile mcaFile = getMCAFile(chunkX, chunkZ);
-        if (mcaFile == null)
+    private @NotNull CompletableFuture<@Nullable Chunk> loadMCA(Instance instance, int chunkX, int chunkZ) throws IOException, NBTException, AnvilException {
+        final RegionReader region = getRegionReader(chunkX, chunkZ);
+        if (region == null)
             return CompletableFuture.completedFuture(null);
-        final ChunkColumn fileChunk = mcaFile.getChunk(chunkX, chunkZ);
-        if (fileChunk == null)
+        final NBTCompound chunkData = region.readChunk(chunkX, chunkZ);
+        if (chunkData == null)
+            return CompletableFuture.completedFuture(null);
+        final NBTCompound level = chunkData.getCompound("Level");
+        if (level == null)
             return CompletableFuture.completedFuture(null);
 
-        Biome[] biomes;
-        if (fileChunk.getGenerationStatus().compareTo(ChunkColumn.GenerationStatus.Biomes) > 0) {
-            int[] fileChunkBiomes = fileChunk.getBiomes();
-            biomes = new Biome[fileChunkBiomes.length];
+        final Biome[] biomes = new Biome[1024]; // TODO don't hardcode
+        final int[] fileChunkBiomes = level.getIntArray("Biomes");
+        if (fileChunkBiomes != null && fileChunkBiomes.length == biomes.length) {
             for (int i = 0; i < fileChunkBiomes.length; i++) {
                 final int id = fileChunkBiomes[i];
                 biomes[i] = Objects.requireNonNullElse(BIOME_MANAGER.getById(id), BIOME);
             }
         } else {
-            biomes = new Biome[1024]; // TODO don't hardcode
             Arrays.fill(biomes, BIOME);
         }
-        Chunk chunk = new DynamicChunk(instance, biomes, chunkX, chunkZ);
-        // Blocks
-        loadBlocks(chunk, fileChunk);
-        loadTileEntities(chunk, fileChunk);
-        // Lights
-        for (var chunkSection : fileChunk.getSections()) {
-            Section section = chunk.getSection(chunkSection.getY());
-            section.setSkyLight(chunkSection.getSkyLights());
-            section.setBlockLight(chunkSection.getBlockLights());
-        }
-        mcaFile.forget(fileChunk);
+        final Chunk chunk = instance instanceof InstanceContainer container ?
+                container.getChunkSupplier().createChunk(instance, biomes, chunkX, chunkZ) :
+                new DynamicChunk(instance, biomes, chunkX, chunkZ);
+        // Before 20w17a (1.16) the block indices could span over two longs, decode them through hephaistos
+        final Integer dataVersion = chunkData.getInt("DataVersion");
+        final boolean legacyPacking = dataVersion == null || dataVersion < PACKING_DATA_VERSION;
+        if (legacyPacking) loadLegacyBlocks(chunk, new ChunkColumn(chunkData));
+        final NBTList<NBTCompound> sections = level.getList("Sections");
+        if (sections != null) {
+            for (NBTCompound sectionData : sections) {
+                final Byte sectionY = sectionData.getByte("Y");
+                if (sectionY == null) continue;
+                // Blocks
+                if (!legacyPacking) loadBlocks(chunk, sectionY, sectionData);
+                // Lights
+                final byte[] skyLight = sectionData.getByteArray("SkyLight");
+                final byte[] blockLight = sectionData.getByteArray("BlockLight");
+                if (skyLight != null || blockLight != null) {
+                    Section section = chunk.getSection(sectionY);
+                    if (skyLight != null) section.setSkyLight(skyLight);
+                    if (blockLight != null) section.setBlockLight(blockLight);
+                }
+            }
+        }
+        final NBTList<NBTCompound> tileEntities = level.getList("TileEntities");
+        if (tileEntities != null) loadTileEntities(chunk, tileEntities);
+        chunk.markSaved();
         return CompletableFuture.completedFuture(chunk);
     }
 
-    private @Nullable RegionFile getMCAFile(int chunkX, int chunkZ) {
+    private @Nullable RegionReader getRegionReader(int chunkX, int chunkZ) {
         final int regionX = CoordinatesKt.chunkToRegion(chunkX);
         final int regionZ = CoordinatesKt.chunkToRegion(chunkZ);
-        return alreadyLoaded.computeIfAbsent(RegionFile.Companion.createFileName(regionX, regionZ), n -> {
+        return regionReaders.computeIfAbsent(RegionFile.Companion.createFileName(regionX, regionZ), n -> {
             try {
                 final Path regionPath = this.regionPath.resolve(n);
                 if (!Files.exists(regionPath)) {
                     return null;
                 }
-                return new RegionFile(new RandomAccessFile(regionPath.toFile(), "rw"), regionX, regionZ);
-            } catch (IOException | AnvilException e) {
+                return new RegionReader(regionPath);
+            } catch (IOException e) {
                 EXCEPTION_MANAGER.handleException(e);
                 return null;
             }
         });
     }
 
-    private void loadBlocks(Chunk chunk, ChunkColumn fileChunk) {
+    /**
+     * Loads the blocks of a section by resolving each palette entry once,
+     * the packed indices are then copied in bulk into the section palette.
+     */
+    private void loadBlocks(Chunk chunk, int sectionY, NBTCompound sectionData) {
+        final NBTList<NBTCompound> paletteData = sectionData.getList("Palette");
+        final long[] blockStates = sectionData.getLongArray("BlockStates");
+        if (paletteData == null || blockStates == null || blockStates.length == 0) return;
+
+        final int paletteSize = paletteData.getLength();
+        final short[] stateIds = new short[paletteSize];
+        // Palette entries which cannot be represented by their state id alone
+        Block[] specialBlocks = null;
+        int i = 0;
+        for (NBTCompound entry : paletteData) {
+            final Block block = readPaletteEntry(entry);
+            stateIds[i] = block.stateId();
+            if (block.handler() != null || block.registry().isBlockEntity()) {
+                if (specialBlocks == null) specialBlocks = new Block[paletteSize];
+                specialBlocks[i] = block;
+            }
+            i++;
+        }
+        // Indices are packed without spanning over multiple longs, same as our palette
+        final int bitsPerIndex = Math.max(4, MathUtils.bitsToRepresent(Math.max(1, paletteSize - 1)));
+        final Section section = chunk.getSection(sectionY);
+        section.getPalette().setAll(stateIds, blockStates, bitsPerIndex);
+
+        if (specialBlocks != null) {
+            // Register handlers and block entities
+            final int yOffset = Chunk.CHUNK_SECTION_SIZE * sectionY;
+            final int indicesPerLong = Long.SIZE / bitsPerIndex;
+            final long indexMask = (1L << bitsPerIndex) - 1;
+            for (int index = 0; index < Palette.BLOCK_COUNT; index++) {
+                final int longIndex = index / indicesPerLong;
+                if (longIndex >= blockStates.length) break;
+                final int paletteIndex = (int) (blockStates[longIndex] >>> (index % indicesPerLong) * bitsPerIndex & indexMask);
+                if (paletteIndex >= paletteSize) continue;
+                final Block block = specialBlocks[paletteIndex];
+                if (block == null) continue;
+                final int x = index & 0xF;
+                final int z = index >> 4 & 0xF;
+                final int y = index >> 8;
+                chunk.setBlock(x, y + yOffset, z, block);
+            }
+        }
+    }
+
+    /**
+     * Loads the blocks of a chunk saved before 1.16, block by block.
+     */
+    private void loadLegacyBlocks(Chunk chunk, ChunkColumn fileChunk) {
         for (var section : fileChunk.getSections()) {
             if (section.getEmpty()) continue;
             final int yOffset = Chunk.CHUNK_SECTION_SIZE * section.getY();
@@ -146,7 +242,7 @@ public class AnvilLoader implements IChunkLoader {
                             final Map<String, String> properties = blockState.getProperties();
                             if (!properties.isEmpty()) block = block.withProperties(properties);
                             // Handler
-                            final BlockHandler handler = MinecraftServer.getBlockManager().getHandler(block.name());
+                            final BlockHandler handler = BLOCK_MANAGER.getHandler(block.name());
                             if (handler != null) block = block.withHandler(handler);
 
                             chunk.setBlock(x, y + yOffset, z, block);
@@ -159,8 +255,35 @@ public class AnvilLoader implements IChunkLoader {
         }
     }
 
-    private void loadTileEntities(Chunk loadedChunk, ChunkColumn fileChunk) {
-        for (NBTCompound te : fileChunk.getTileEntities()) {
+    private @NotNull Block readPaletteEntry(NBTCompound entry) {
+        final String blockName = entry.getString("Name");
+        if (blockName == null) return Block.AIR;
+        Block block = Block.fromNamespaceId(blockName);
+        if (block == null) {
+            LOGGER.warn("Unknown block {}, replaced by air", blockName);
+            return Block.AIR;
+        }
+        // Properties
+        final NBTCompound propertiesData = entry.getCompound("Properties");
+        if (propertiesData != null && propertiesData.getSize() > 0) {
+            Map<String, String> properties = new HashMap<>(propertiesData.getSize());
+            for (String key : propertiesData.getKeys()) {
+                properties.put(key, propertiesData.getString(key));
+            }
+            try {
+                block = block.withProperties(properties);
+            } catch (Exception e) {
+                EXCEPTION_MANAGER.handleException(e);
+            }
+        }
+        // Handler
+        final BlockHandler handler = BLOCK_MANAGER.getHandler(block.name());
+        if (handler != null) block = block.withHandler(handler);
+        return block;
+    }
+
+    private void loadTileEntities(Chunk loadedChunk, NBTList<NBTCompound> tileEntities) {
+        for (NBTCompound te : tileEntities) {
             final var x = te.getInt("x");
             final var y = te.getInt("y");
             final var z = te.getInt("z");
@@ -201,90 +324,107 @@ public class AnvilLoader implements IChunkLoader {
         return AsyncUtils.VOID_FUTURE;
     }
 
+    /**
+     * Captures the chunk sections modified since the last save, the region file is then updated
+     * asynchronously by the chunk I/O thread.
+     * <p>
+     * Writes to the same region file are batched together and synced to disk once.
+     */
     @Override
     public @NotNull CompletableFuture<Void> saveChunk(@NotNull Chunk chunk) {
-        final int chunkX = chunk.getChunkX();
-        final int chunkZ = chunk.getChunkZ();
-        RegionFile mcaFile;
-        synchronized (alreadyLoaded) {
-            mcaFile = getMCAFile(chunkX, chunkZ);
-            if (mcaFile == null) {
-                final int regionX = CoordinatesKt.chunkToRegion(chunkX);
-                final int regionZ = CoordinatesKt.chunkToRegion(chunkZ);
-                final String n = RegionFile.Companion.createFileName(regionX, regionZ);
-                File regionFile = new File(regionPath.toFile(), n);
-                try {
-                    if (!regionFile.exists()) {
-                        if (!regionFile.getParentFile().exists()) {
-                            regionFile.getParentFile().mkdirs();
-                        }
-                        regionFile.createNewFile();
-                    }
-                    mcaFile = new RegionFile(new RandomAccessFile(regionFile, "rw"), regionX, regionZ);
-                    alreadyLoaded.put(n, mcaFile);
-                } catch (AnvilException | IOException e) {
-                    LOGGER.error("Failed to save chunk " + chunkX + ", " + chunkZ, e);
-                    EXCEPTION_MANAGER.handleException(e);
-                    return AsyncUtils.VOID_FUTURE;
-                }
-            }
-        }
-        ChunkColumn column;
-        try {
-            column = mcaFile.getOrCreateChunk(chunkX, chunkZ);
-        } catch (AnvilException | IOException e) {
-            LOGGER.error("Failed to save chunk " + chunkX + ", " + chunkZ, e);
-            EXCEPTION_MANAGER.handleException(e);
-            return AsyncUtils.VOID_FUTURE;
+        final ChunkSnapshot snapshot = ChunkSnapshot.capture(chunk);
+        final int chunkX = snapshot.chunkX();
+        final int chunkZ = snapshot.chunkZ();
+        final long index = ChunkUtils.getChunkIndex(chunkX, chunkZ);
+        final String fileName = RegionFile.Companion.createFileName(
+                CoordinatesKt.chunkToRegion(chunkX), CoordinatesKt.chunkToRegion(chunkZ));
+        final RegionWriter writer = regionWriters.computeIfAbsent(fileName, RegionWriter::new);
+        final CompletableFuture<Void> future = snapshot.future();
+        this.pendingWrites.put(index, future);
+        future.whenComplete((unused, throwable) -> {
+            pendingWrites.remove(index, future);
+            // The captured changes have not been written, save them again next time
+            if (throwable != null) chunk.markUnsaved();
+        });
+        writer.pending.add(snapshot);
+        if (writer.scheduled.compareAndSet(false, true)) {
+            IO_EXECUTOR.execute(writer::flush);
         }
-        save(chunk, column);
-        try {
-            LOGGER.debug("Attempt saving at {} {}", chunk.getChunkX(), chunk.getChunkZ());
-            mcaFile.writeColumn(column);
-            mcaFile.forget(column);
-        } catch (IOException e) {
-            LOGGER.error("Failed to save chunk " + chunkX + ", " + chunkZ, e);
-            EXCEPTION_MANAGER.handleException(e);
-            return AsyncUtils.VOID_FUTURE;
+        return future;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> saveChunks(@NotNull Collection<Chunk> chunks) {
+        if (chunks.isEmpty()) return AsyncUtils.VOID_FUTURE;
+        CompletableFuture<?>[] futures = new CompletableFuture[chunks.size()];
+        int i = 0;
+        for (Chunk chunk : chunks) {
+            futures[i++] = saveChunk(chunk);
         }
-        return AsyncUtils.VOID_FUTURE;
+        return CompletableFuture.allOf(futures);
     }
 
-    private void save(Chunk chunk, ChunkColumn chunkColumn) {
-        NBTList<NBTCompound> tileEntities = new NBTList<>(NBTTypes.TAG_Compound);
+    /**
+     * Applies a snapshot to its column, only called from the chunk I/O thread.
+     */
+    private void save(ChunkSnapshot snapshot, ChunkColumn chunkColumn) {
         chunkColumn.setGenerationStatus(ChunkColumn.GenerationStatus.Full);
-        for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
-            for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
-                for (int y = 0; y < 256; y++) { // TODO don't hardcode world height
-                    final Block block = chunk.getBlock(x, y, z);
-                    // Block
-                    BlockState state = new BlockState(block.name(), block.properties());
-                    chunkColumn.setBlockState(x, y, z, state);
-                    // Biome
-                    int index = ((y >> 2) & 63) << 4 | ((z >> 2) & 3) << 2 | ((x >> 2) & 3); // https://wiki.vg/Chunk_Format#Biomes
-                    Biome biome = chunk.getBiomes()[index];
-                    chunkColumn.setBiome(x, 0, z, biome.getId());
-
-                    // Tile entity
-                    var nbt = block.nbt();
-                    final BlockHandler handler = block.handler();
-                    if (nbt != null || handler != null) {
-                        nbt = Objects.requireNonNullElseGet(nbt, NBTCompound::new);
-                        if (handler != null) {
-                            nbt.setString("id", handler.getNamespaceId().asString());
-                        }
-                        nbt.setInt("x", x + Chunk.CHUNK_SIZE_X * chunk.getChunkX());
-                        nbt.setInt("y", y);
-                        nbt.setInt("z", z + Chunk.CHUNK_SIZE_Z * chunk.getChunkZ());
-                        nbt.setByte("keepPacked", (byte) 0);
-                        tileEntities.add(nbt);
+        // Blocks
+        for (var entry : snapshot.sections().entrySet()) {
+            final int yOffset = entry.getKey() * Chunk.CHUNK_SECTION_SIZE;
+            final Palette palette = entry.getValue();
+            if (yOffset < 0 || yOffset >= 256) continue; // TODO don't hardcode world height
+            for (int y = 0; y < Chunk.CHUNK_SECTION_SIZE; y++) {
+                for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                    for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+                        final short stateId = palette.getBlockAt(x, y, z);
+                        chunkColumn.setBlockState(x, y + yOffset, z, getBlockState(stateId));
                     }
                 }
             }
         }
+        // Biomes, one per 4x4x4 cell, see https://wiki.vg/Chunk_Format#Biomes
+        final Biome[] biomes = snapshot.biomes();
+        for (int i = 0; i < biomes.length; i++) {
+            final Biome biome = biomes[i];
+            if (biome == null) continue;
+            final int x = (i & 3) << 2;
+            final int z = (i >> 2 & 3) << 2;
+            final int y = (i >> 4) << 2;
+            if (y >= 256) break;
+            chunkColumn.setBiome(x, y, z, biome.getId());
+        }
+        // Tile entities
+        NBTList<NBTCompound> tileEntities = new NBTList<>(NBTTypes.TAG_Compound);
+        snapshot.tileEntities().forEach(tileEntities::add);
         chunkColumn.setTileEntities(tileEntities);
     }
 
+    private BlockState getBlockState(short stateId) {
+        if (stateId <= 0) return AIR_STATE;
+        BlockState state = blockStateCache.get(stateId);
+        if (state == null) {
+            final Block block = Objects.requireNonNullElse(Block.fromStateId(stateId), Block.AIR);
+            state = new BlockState(block.name(), block.properties());
+            this.blockStateCache.put(stateId, state);
+        }
+        return state;
+    }
+
+    /**
+     * Closes the region files once their pending writes are done.
+     */
+    @Override
+    public void unloadInstance(@NotNull Instance instance) {
+        for (RegionWriter writer : regionWriters.values()) {
+            IO_EXECUTOR.execute(writer::close);
+        }
+        this.regionReaders.values().removeIf(reader -> {
+            reader.close();
+            return true;
+        });
+    }
+
     @Override
     public boolean supportsParallelLoading() {
         return true;
@@ -294,4 +434,246 @@ public class AnvilLoader implements IChunkLoader {
     public boolean supportsParallelSaving() {
         return true;
     }
+
+    /**
+     * Content of a chunk to save, captured from the thread owning the chunk.
+     *
+     * @param sections the palettes of the modified sections, indexed by section Y
+     */
+    private record ChunkSnapshot(int chunkX, int chunkZ,
+                                 Map<Integer, Palette> sections, Biome[] biomes,
+                                 List<NBTCompound> tileEntities,
+                                 CompletableFuture<Void> future) {
+        static ChunkSnapshot capture(Chunk chunk) {
+            final int chunkX = chunk.getChunkX();
+            final int chunkZ = chunk.getChunkZ();
+            // Copied chunks have never been saved, and may share clean sections with their source
+            final boolean fullSave = chunk instanceof DynamicChunk dynamicChunk && dynamicChunk.fullSave;
+            Map<Integer, Palette> sections = new HashMap<>();
+            for (var entry : chunk.getSections().entrySet()) {
+                final Section section = entry.getValue();
+                if (fullSave || section.isDirty()) sections.put(entry.getKey(), section.getPalette().clone());
+            }
+            List<NBTCompound> tileEntities = new ArrayList<>();
+            if (chunk instanceof DynamicChunk dynamicChunk) {
+                // Only blocks with data are stored in the chunk entries
+                for (var entry : dynamicChunk.entries.int2ObjectEntrySet()) {
+                    final int index = entry.getIntKey();
+                    final NBTCompound tileEntity = createTileEntity(chunk, entry.getValue(),
+                            ChunkUtils.blockIndexToChunkPositionX(index),
+                            ChunkUtils.blockIndexToChunkPositionY(index),
+                            ChunkUtils.blockIndexToChunkPositionZ(index));
+                    if (tileEntity != null) tileEntities.add(tileEntity);
+                }
+            } else {
+                for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                        for (int y = 0; y < 256; y++) { // TODO don't hardcode world height
+                            final Block block = chunk.getBlock(x, y, z, BlockGetter.Condition.CACHED);
+                            if (block == null) continue;
+                            final NBTCompound tileEntity = createTileEntity(chunk, block, x, y, z);
+                            if (tileEntity != null) tileEntities.add(tileEntity);
+                        }
+                    }
+                }
+            }
+            chunk.markSaved();
+            return new ChunkSnapshot(chunkX, chunkZ, sections, chunk.getBiomes().clone(), tileEntities,
+                    new CompletableFuture<>());
+        }
+
+        private static @Nullable NBTCompound createTileEntity(Chunk chunk, Block block, int x, int y, int z) {
+            var nbt = block.nbt();
+            final BlockHandler handler = block.handler();
+            if (nbt == null && handler == null) return null;
+            nbt = Objects.requireNonNullElseGet(nbt, NBTCompound::new);
+            if (handler != null) {
+                nbt.setString("id", handler.getNamespaceId().asString());
+            }
+            nbt.setInt("x", x + Chunk.CHUNK_SIZE_X * chunk.getChunkX());
+            nbt.setInt("y", y);
+            nbt.setInt("z", z + Chunk.CHUNK_SIZE_Z * chunk.getChunkZ());
+            nbt.setByte("keepPacked", (byte) 0);
+            return nbt;
+        }
+    }
+
+    /**
+     * Batches the writes to a region file, flushed by the chunk I/O thread.
+     */
+    private final class RegionWriter {
+        private final String fileName;
+        private final Queue<ChunkSnapshot> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private RandomAccessFile file;
+        private RegionFile regionFile;
+
+        RegionWriter(String fileName) {
+            this.fileName = fileName;
+        }
+
+        void flush() {
+            // Reset first so that snapshots added during the flush schedule another one
+            this.scheduled.set(false);
+            List<ChunkSnapshot> written = new ArrayList<>();
+            ChunkSnapshot snapshot;
+            while ((snapshot = pending.poll()) != null) {
+                try {
+                    write(snapshot);
+                    written.add(snapshot);
+                } catch (IOException | AnvilException e) {
+                    LOGGER.error("Failed to save chunk " + snapshot.chunkX() + ", " + snapshot.chunkZ(), e);
+                    EXCEPTION_MANAGER.handleException(e);
+                    snapshot.future().completeExceptionally(e);
+                }
+            }
+            if (written.isEmpty()) return;
+            try {
+                // Single sync for the whole batch
+                file.getFD().sync();
+            } catch (IOException e) {
+                EXCEPTION_MANAGER.handleException(e);
+            }
+            for (ChunkSnapshot writtenSnapshot : written) {
+                writtenSnapshot.future().complete(null);
+            }
+        }
+
+        void close() {
+            flush();
+            if (file == null) return;
+            try {
+                file.close();
+            } catch (IOException e) {
+                EXCEPTION_MANAGER.handleException(e);
+            }
+            // Opened again if the loader is used afterward
+            this.file = null;
+            this.regionFile = null;
+        }
+
+        private void write(ChunkSnapshot snapshot) throws IOException, AnvilException {
+            final int chunkX = snapshot.chunkX();
+            final int chunkZ = snapshot.chunkZ();
+            if (regionFile == null) {
+                File regionFile = regionPath.resolve(fileName).toFile();
+                if (!regionFile.exists()) {
+                    if (!regionFile.getParentFile().exists()) {
+                        regionFile.getParentFile().mkdirs();
+                    }
+                    regionFile.createNewFile();
+                }
+                this.file = new RandomAccessFile(regionFile, "rw");
+                this.regionFile = new RegionFile(file, CoordinatesKt.chunkToRegion(chunkX), CoordinatesKt.chunkToRegion(chunkZ));
+            }
+            LOGGER.debug("Attempt saving at {} {}", chunkX, chunkZ);
+            final ChunkColumn column = regionFile.getOrCreateChunk(chunkX, chunkZ);
+            save(snapshot, column);
+            regionFile.writeColumn(column);
+            regionFile.forget(column);
+        }
+    }
+
+    /**
+     * Read-only access to a region file, chunks can be read concurrently
+     * without going through the synchronized {@link RegionFile}.
+     * <p>
+     * Reads are positional and the file is not mapped, so the {@link RegionWriter} can grow
+     * the same file and the next reads see its new content.
+     * <p>
+     * See https://minecraft.fandom.com/wiki/Region_file_format
+     */
+    private static final class RegionReader {
+        private static final int SECTOR_SIZE = 4096;
+        private static final int HEADER_SIZE = 2 * SECTOR_SIZE;
+
+        private final Path path;
+        private final FileChannel channel;
+
+        RegionReader(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        @Nullable NBTCompound readChunk(int chunkX, int chunkZ) throws IOException, NBTException {
+            final long size = channel.size();
+            if (size < HEADER_SIZE) return null; // Empty region
+            final ByteBuffer header = ByteBuffer.allocate(5);
+            if (!read(header.limit(4), ((chunkX & 31) + (chunkZ & 31) * 32) * 4)) return null;
+            final int location = header.getInt(0);
+            final long offset = (long) (location >>> 8) * SECTOR_SIZE;
+            if (offset == 0 || offset + 5 > size) return null; // Chunk not present
+            if (!read(header.clear(), offset)) return null;
+            final int length = header.getInt(0) - 1;
+            final byte compression = header.get(4);
+            final InputStream input;
+            if ((compression & 0x80) != 0) {
+                // Chunk stored in its own file
+                final Path externalPath = path.resolveSibling("c." + chunkX + "." + chunkZ + ".mcc");
+                input = Files.newInputStream(externalPath);
+            } else {
+                if (length <= 0 || offset + 5 + length > size) return null;
+                final ByteBuffer data = ByteBuffer.allocate(length);
+                if (!read(data, offset + 5)) return null;
+                input = new BufferInputStream(data.flip());
+            }
+            final InputStream decompressed = switch (compression & 0x7F) {
+                case 1 -> new GZIPInputStream(input);
+                case 2 -> new InflaterInputStream(input);
+                case 3 -> input;
+                default -> throw new IOException("Unknown chunk compression " + compression);
+            };
+            try (NBTReader reader = new NBTReader(decompressed, false)) {
+                return (NBTCompound) reader.read();
+            }
+        }
+
+        /**
+         * Fills {@code buffer} from the file starting at {@code position}.
+         *
+         * @return false if the end of the file has been reached first
+         */
+        private boolean read(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                final int read = channel.read(buffer, position);
+                if (read == -1) return false;
+                position += read;
+            }
+            return true;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                EXCEPTION_MANAGER.handleException(e);
+            }
+        }
+    }
+
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte @NotNull [] bytes, int off, int len) {
+            if (!buffer.hasRemaining()) return -1;
+            len = Math.min(len, buffer.remaining());
+            buffer.get(bytes, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
 }
@@ -16,6 +16,7 @@ import net.minestom.server.instance.block.BlockSetter;
 import net.minestom.server.network.packet.server.play.ChunkDataPacket;
 import net.minestom.server.tag.Tag;
 import net.minestom.server.tag.TagHandler;
+import net.minestom.server.utils.ViewableStorage;
 import net.minestom.server.utils.chunk.ChunkSupplier;
 import net.minestom.server.world.biomes.Biome;
 import org.jetbrains.annotations.NotNull;
@@ -60,6 +61,7 @@ public abstract class Chunk implements BlockGetter, BlockSetter, Viewable, Ticka
     protected volatile boolean loaded = true;
     protected final Set<Player> viewers = ConcurrentHashMap.newKeySet();
     private final Set<Player> unmodifiableViewers = Collections.unmodifiableSet(viewers);
+    private final ViewableStorage viewableStorage = new ViewableStorage(this::getViewers);
 
     // Path finding
     protected PFColumnarSpace columnarSpace;
@@ -126,6 +128,34 @@ public abstract class Chunk implements BlockGetter, BlockSetter, Viewable, Ticka
      */
     public abstract long getLastChangeTime();
 
+    /**
+     * Gets if this chunk changed since it has been loaded or last saved.
+     * <p>
+     * Chunks which are not dirty are skipped by {@link Instance#saveChunksToStorage()},
+     * implementations unable to track changes should always return true.
+     *
+     * @return true if the chunk needs to be saved
+     */
+    public boolean isDirty() {
+        return true;
+    }
+
+    /**
+     * Marks this chunk as saved, called by the {@link IChunkLoader} once the chunk content has been captured
+     * or after the chunk has been loaded.
+     */
+    public void markSaved() {
+        // Empty
+    }
+
+    /**
+     * Marks this chunk as modified since its last save, called by the {@link IChunkLoader} if saving the content
+     * captured during {@link #markSaved()} failed.
+     */
+    public void markUnsaved() {
+        // Empty
+    }
+
     /**
      * Sends the chunk data to {@code player}.
      *
@@ -270,6 +300,8 @@ public abstract class Chunk implements BlockGetter, BlockSetter, Viewable, Ticka
      */
     @Override
     public boolean addViewer(@NotNull Player player) {
+        // Pending block changes are already part of the chunk data sent below
+        this.viewableStorage.process();
         final boolean result = this.viewers.add(player);
 
         // Add to the viewable chunks set
@@ -314,6 +346,11 @@ public abstract class Chunk implements BlockGetter, BlockSetter, Viewable, Ticka
         return unmodifiableViewers;
     }
 
+    @Override
+    public @NotNull ViewableStorage getViewableStorage() {
+        return viewableStorage;
+    }
+
     @Override
     public <T> @Nullable T getTag(@NotNull Tag<T> tag) {
         return tag.read(nbt);
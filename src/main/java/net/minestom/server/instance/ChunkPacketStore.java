@@ -0,0 +1,129 @@
+package net.minestom.server.instance;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.minestom.server.network.packet.FramedPacket;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.utils.PacketUtils;
+import net.minestom.server.utils.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * Bounded store of the encoded chunk and light packets, shared by every instance.
+ * <p>
+ * Packets are kept in direct buffers and keyed by chunk position and content version,
+ * a chunk is therefore only re-encoded after its content changed, the previous version being removed. Chunks sharing the same
+ * content (e.g. an {@link InstanceContainer} viewed through multiple {@link SharedInstance}s, or copies)
+ * retrieve the same bytes. The least recently used chunks are evicted once the store exceeds its size.
+ */
+@ApiStatus.Experimental
+public final class ChunkPacketStore {
+    private final Cache<Key, Packets> cache;
+
+    /**
+     * Creates a store.
+     *
+     * @param maximumBytes the maximum number of encoded bytes to keep
+     */
+    public ChunkPacketStore(long maximumBytes) {
+        Check.argCondition(maximumBytes < 0, "The store size cannot be negative");
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<Key, Packets>weigher((key, packets) -> packets.size())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Gets the encoded packets of a chunk, encoding them if absent.
+     *
+     * @param chunkIndex    the chunk index, see {@link net.minestom.server.utils.chunk.ChunkUtils#getChunkIndex(int, int)}
+     * @param version       the version of the chunk content
+     * @param chunkSupplier supplier of the chunk packet
+     * @param lightSupplier supplier of the light packet
+     * @return the encoded packets
+     */
+    @NotNull Packets retrieve(long chunkIndex, long version,
+                              @NotNull Supplier<@NotNull ServerPacket> chunkSupplier,
+                              @NotNull Supplier<@NotNull ServerPacket> lightSupplier) {
+        return cache.get(new Key(chunkIndex, version), key ->
+                new Packets(PacketUtils.allocateTrimmedPacket(chunkSupplier.get()),
+                        PacketUtils.allocateTrimmedPacket(lightSupplier.get())));
+    }
+
+    /**
+     * Removes the encoded packets of a chunk version which will not be retrieved anymore.
+     *
+     * @param chunkIndex the chunk index
+     * @param version    the outdated version
+     */
+    void invalidate(long chunkIndex, long version) {
+        this.cache.invalidate(new Key(chunkIndex, version));
+    }
+
+    /**
+     * Removes all the encoded packets.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Gets the number of retrievals which did not require encoding.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Gets the number of retrievals which required encoding.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Gets the ratio of retrievals which did not require encoding.
+     *
+     * @return the hit ratio, between 0 and 1
+     */
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * Gets the number of evicted chunks.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Gets the number of encoded bytes currently stored.
+     *
+     * @return the stored bytes
+     */
+    public long getStoredBytes() {
+        return cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+    }
+
+    record Key(long chunkIndex, long version) {
+    }
+
+    record Packets(@NotNull FramedPacket chunk, @NotNull FramedPacket light) {
+        int size() {
+            return chunk.body().remaining() + light.body().remaining();
+        }
+    }
+}
@@ -4,12 +4,12 @@ import com.extollit.gaming.ai.path.model.ColumnarOcclusionFieldList;
 import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.coordinate.Point;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.pathfinding.PFBlock;
 import net.minestom.server.instance.block.Block;
 import net.minestom.server.instance.block.BlockHandler;
-import net.minestom.server.network.packet.CachedPacket;
 import net.minestom.server.network.packet.server.play.ChunkDataPacket;
 import net.minestom.server.network.packet.server.play.UpdateLightPacket;
 import net.minestom.server.utils.ArrayUtils;
@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a {@link Chunk} which store each individual block in memory.
@@ -32,6 +33,7 @@ import java.util.Objects;
  * WARNING: not thread-safe.
  */
 public class DynamicChunk extends Chunk {
+    private static final AtomicLong PACKET_VERSION = new AtomicLong();
 
     protected final Int2ObjectAVLTreeMap<Section> sectionMap = new Int2ObjectAVLTreeMap<>();
 
@@ -40,8 +42,15 @@ public class DynamicChunk extends Chunk {
     protected final Int2ObjectOpenHashMap<Block> tickableMap = new Int2ObjectOpenHashMap<>();
 
     private long lastChange;
-    private final CachedPacket chunkCache = new CachedPacket(this::createChunkPacket);
-    private final CachedPacket lightCache = new CachedPacket(this::createLightPacket);
+    // Whether the chunk changed outside its sections since the last save
+    private volatile boolean dirty = true;
+    // Whether all the sections need to be saved, even the ones which did not change
+    volatile boolean fullSave;
+    // Version of the content sent to the clients, unique across all the chunks
+    // copies at the same position share the version of their source until modified
+    private volatile long packetVersion = PACKET_VERSION.incrementAndGet();
+    // Last version retrieved from the store, removed from it once outdated
+    private volatile long storedVersion = -1;
 
     public DynamicChunk(@NotNull Instance instance, @Nullable Biome[] biomes, int chunkX, int chunkZ) {
         super(instance, biomes, chunkX, chunkZ, true);
@@ -50,8 +59,7 @@ public class DynamicChunk extends Chunk {
     @Override
     public void setBlock(int x, int y, int z, @NotNull Block block) {
         this.lastChange = System.currentTimeMillis();
-        this.chunkCache.invalidate();
-        this.lightCache.invalidate();
+        this.dirty = true;
         // Update pathfinder
         if (columnarSpace != null) {
             final ColumnarOcclusionFieldList columnarOcclusionFieldList = columnarSpace.occlusionFields();
@@ -59,15 +67,17 @@ public class DynamicChunk extends Chunk {
             columnarOcclusionFieldList.onBlockChanged(x, y, z, blockDescription, 0);
         }
         Section section = getSection(ChunkUtils.getSectionAt(y));
+        final short previousState = section.getBlockAt(x, y, z);
         section.setBlockAt(x, y, z, block.stateId());
 
         final int index = ChunkUtils.getBlockIndex(x, y, z);
         // Handler
         final BlockHandler handler = block.handler();
-        if (handler != null || block.hasNbt() || block.registry().isBlockEntity()) {
-            this.entries.put(index, block);
-        } else {
-            this.entries.remove(index);
+        final boolean hasEntry = handler != null || block.hasNbt() || block.registry().isBlockEntity();
+        final Block previousEntry = hasEntry ? this.entries.put(index, block) : this.entries.remove(index);
+        // Only re-encode the chunk if the content sent to the clients changed
+        if (previousState != block.stateId() || hasEntry || previousEntry != null) {
+            invalidatePackets();
         }
         // Block tick
         if (handler != null && handler.isTickable()) {
@@ -82,9 +92,22 @@ public class DynamicChunk extends Chunk {
         return sectionMap;
     }
 
+    /**
+     * Gets a section which can be modified, shared sections are cloned first.
+     */
     @Override
     public @NotNull Section getSection(int section) {
-        return sectionMap.computeIfAbsent(section, key -> new Section());
+        Section result = sectionMap.get(section);
+        if (result == null) {
+            result = new Section();
+            this.sectionMap.put(section, result);
+        } else if (result.isShared()) {
+            // Copy-on-write
+            result = result.clone();
+            result.setDirty(true);
+            this.sectionMap.put(section, result);
+        }
+        return result;
     }
 
     @Override
@@ -123,39 +146,110 @@ public class DynamicChunk extends Chunk {
         return lastChange;
     }
 
+    @Override
+    public boolean isDirty() {
+        if (dirty || fullSave) return true;
+        for (Section section : sectionMap.values()) {
+            if (section.isDirty()) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void markSaved() {
+        this.dirty = false;
+        this.fullSave = false;
+        for (Section section : sectionMap.values()) {
+            // Shared sections may still need to be saved by the other chunks
+            if (!section.isShared()) section.setDirty(false);
+        }
+    }
+
+    @Override
+    public void markUnsaved() {
+        // The failed save may have only contained some sections
+        this.fullSave = true;
+    }
+
     @Override
     public void sendChunk(@NotNull Player player) {
         if (!isLoaded()) return;
-        player.sendPacket(lightCache.retrieve());
-        player.sendPacket(chunkCache.retrieve());
+        final ChunkPacketStore.Packets packets = retrievePackets();
+        player.sendPacket(packets.light());
+        player.sendPacket(packets.chunk());
     }
 
     @Override
     public void sendChunk() {
         if (!isLoaded()) return;
         if (getViewers().isEmpty()) return;
-        sendPacketToViewers(lightCache.retrieve());
-        sendPacketToViewers(chunkCache.retrieve());
+        final ChunkPacketStore.Packets packets = retrievePackets();
+        sendPacketToViewers(packets.light());
+        sendPacketToViewers(packets.chunk());
     }
 
     @NotNull
     @Override
     public Chunk copy(@NotNull Instance instance, int chunkX, int chunkZ) {
         DynamicChunk dynamicChunk = new DynamicChunk(instance, biomes.clone(), chunkX, chunkZ);
+        // Sections are shared until modified by either chunk
         for (var entry : sectionMap.int2ObjectEntrySet()) {
-            dynamicChunk.sectionMap.put(entry.getIntKey(), entry.getValue().clone());
+            final Section section = entry.getValue();
+            section.markShared();
+            dynamicChunk.sectionMap.put(entry.getIntKey(), section);
         }
         dynamicChunk.entries.putAll(entries);
+        dynamicChunk.tickableMap.putAll(tickableMap);
+        dynamicChunk.lastChange = lastChange;
+        dynamicChunk.fullSave = true; // Never saved
+        if (chunkX == this.chunkX && chunkZ == this.chunkZ) {
+            // Same content at the same position, the encoded packets can be reused
+            dynamicChunk.packetVersion = packetVersion;
+            dynamicChunk.storedVersion = storedVersion;
+        }
         return dynamicChunk;
     }
 
     @Override
     public void reset() {
-        this.sectionMap.values().forEach(Section::clear);
+        for (var entry : sectionMap.int2ObjectEntrySet()) {
+            Section section = entry.getValue();
+            if (section.isShared()) {
+                section = section.clone();
+                this.sectionMap.put(entry.getIntKey(), section);
+            }
+            section.clear();
+        }
         this.entries.clear();
+        this.tickableMap.clear();
+        this.dirty = true;
+        invalidatePackets();
+    }
+
+    /**
+     * Forces the chunk and light packets to be encoded again the next time they are sent,
+     * must be called after modifying the chunk content outside of {@link #setBlock(int, int, int, Block)}.
+     */
+    public void invalidatePackets() {
+        final long previousVersion = this.packetVersion;
+        this.packetVersion = PACKET_VERSION.incrementAndGet();
+        if (storedVersion == previousVersion) {
+            // Copies at the same position may still use the previous version, they will encode it again
+            this.storedVersion = -1;
+            MinecraftServer.getInstanceManager().getChunkPacketStore().invalidate(
+                    ChunkUtils.getChunkIndex(chunkX, chunkZ), previousVersion);
+        }
+    }
+
+    private @NotNull ChunkPacketStore.Packets retrievePackets() {
+        final long version = this.packetVersion;
+        this.storedVersion = version;
+        return MinecraftServer.getInstanceManager().getChunkPacketStore().retrieve(
+                ChunkUtils.getChunkIndex(chunkX, chunkZ), version,
+                this::createChunkPacket, this::createLightPacket);
     }
 
-    private synchronized @NotNull ChunkDataPacket createChunkPacket() {
+    synchronized @NotNull ChunkDataPacket createChunkPacket() {
         ChunkDataPacket packet = new ChunkDataPacket();
         packet.biomes = biomes;
         packet.chunkX = chunkX;
@@ -182,7 +276,7 @@ public class DynamicChunk extends Chunk {
         return packet;
     }
 
-    private synchronized @NotNull UpdateLightPacket createLightPacket() {
+    synchronized @NotNull UpdateLightPacket createLightPacket() {
         List<byte[]> skyLights = new ArrayList<>();
         List<byte[]> blockLights = new ArrayList<>();
 
@@ -0,0 +1,220 @@
+package net.minestom.server.instance;
+
+import net.minestom.server.coordinate.Point;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.utils.chunk.ChunkUtils;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Spatial hash of the entities present in an {@link Instance}, bucketed by chunk column.
+ * <p>
+ * Buckets are concurrent sets stored in a concurrent map, queries are therefore lock-free
+ * and can run from any thread while entities are moving. Visitor methods do not allocate,
+ * positions are checked against the live entity position so results are exact even though
+ * the buckets are only updated when an entity changes chunk.
+ */
+@ApiStatus.Experimental
+public final class EntitySpatialIndex {
+
+    private final Map<Long, Set<Entity>> cells = new ConcurrentHashMap<>();
+
+    EntitySpatialIndex() {
+    }
+
+    void add(long chunkIndex, @NotNull Entity entity) {
+        this.cells.compute(chunkIndex, (i, entities) -> {
+            if (entities == null) entities = ConcurrentHashMap.newKeySet();
+            entities.add(entity);
+            return entities;
+        });
+    }
+
+    void remove(long chunkIndex, @NotNull Entity entity) {
+        this.cells.computeIfPresent(chunkIndex, (i, entities) -> {
+            entities.remove(entity);
+            return entities.isEmpty() ? null : entities;
+        });
+    }
+
+    void move(long fromIndex, long toIndex, @NotNull Entity entity) {
+        if (fromIndex == toIndex) return;
+        remove(fromIndex, entity);
+        add(toIndex, entity);
+    }
+
+    void clearChunk(long chunkIndex) {
+        this.cells.remove(chunkIndex);
+    }
+
+    /**
+     * Gets the entities located in a chunk.
+     *
+     * @param chunkX the chunk X
+     * @param chunkZ the chunk Z
+     * @return an unmodifiable view of the entities in the chunk
+     */
+    public @NotNull Set<@NotNull Entity> chunkEntities(int chunkX, int chunkZ) {
+        final Set<Entity> entities = cells.get(ChunkUtils.getChunkIndex(chunkX, chunkZ));
+        return entities != null ? Collections.unmodifiableSet(entities) : Collections.emptySet();
+    }
+
+    /**
+     * Visits every entity in the square of chunks of radius {@code chunkRange} around {@code point}.
+     *
+     * @param point      the center
+     * @param chunkRange the radius in chunks
+     * @param consumer   the visitor
+     */
+    public void visitChunks(@NotNull Point point, int chunkRange, @NotNull Consumer<@NotNull Entity> consumer) {
+        final int minX = point.chunkX() - chunkRange, maxX = point.chunkX() + chunkRange;
+        final int minZ = point.chunkZ() - chunkRange, maxZ = point.chunkZ() + chunkRange;
+        if (scanCells(minX, maxX, minZ, maxZ)) {
+            for (Set<Entity> entities : cells.values()) {
+                for (Entity entity : entities) {
+                    final Point position = entity.getPosition();
+                    final int chunkX = position.chunkX(), chunkZ = position.chunkZ();
+                    if (chunkX >= minX && chunkX <= maxX && chunkZ >= minZ && chunkZ <= maxZ) {
+                        consumer.accept(entity);
+                    }
+                }
+            }
+            return;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                final Set<Entity> entities = cells.get(ChunkUtils.getChunkIndex(x, z));
+                if (entities != null) entities.forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * Visits every entity whose position is at most {@code radius} blocks away from {@code center}.
+     *
+     * @param center   the sphere center
+     * @param radius   the sphere radius
+     * @param consumer the visitor
+     */
+    public void visitSphere(@NotNull Point center, double radius, @NotNull Consumer<@NotNull Entity> consumer) {
+        visitSphere(center, radius, Entity.class, consumer);
+    }
+
+    /**
+     * Visits every entity of type {@code type} whose position is at most {@code radius} blocks away from {@code center}.
+     *
+     * @param center   the sphere center
+     * @param radius   the sphere radius
+     * @param type     the entity class to filter
+     * @param consumer the visitor
+     */
+    public <T extends Entity> void visitSphere(@NotNull Point center, double radius,
+                                               @NotNull Class<T> type, @NotNull Consumer<@NotNull T> consumer) {
+        final double squaredRadius = radius * radius;
+        final int minX = ChunkUtils.getChunkCoordinate(center.x() - radius);
+        final int maxX = ChunkUtils.getChunkCoordinate(center.x() + radius);
+        final int minZ = ChunkUtils.getChunkCoordinate(center.z() - radius);
+        final int maxZ = ChunkUtils.getChunkCoordinate(center.z() + radius);
+        if (scanCells(minX, maxX, minZ, maxZ)) {
+            for (Set<Entity> entities : cells.values()) {
+                for (Entity entity : entities) {
+                    if (type.isInstance(entity) && center.distanceSquared(entity.getPosition()) <= squaredRadius) {
+                        consumer.accept(type.cast(entity));
+                    }
+                }
+            }
+            return;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                final Set<Entity> entities = cells.get(ChunkUtils.getChunkIndex(x, z));
+                if (entities == null) continue;
+                for (Entity entity : entities) {
+                    if (type.isInstance(entity) && center.distanceSquared(entity.getPosition()) <= squaredRadius) {
+                        consumer.accept(type.cast(entity));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits every entity whose position is inside the box delimited by {@code min} and {@code max} (inclusive).
+     *
+     * @param min      the lowest corner
+     * @param max      the highest corner
+     * @param consumer the visitor
+     */
+    public void visitBox(@NotNull Point min, @NotNull Point max, @NotNull Consumer<@NotNull Entity> consumer) {
+        visitBox(min, max, Entity.class, consumer);
+    }
+
+    /**
+     * Visits every entity of type {@code type} whose position is inside the box delimited
+     * by {@code min} and {@code max} (inclusive).
+     *
+     * @param min      the lowest corner
+     * @param max      the highest corner
+     * @param type     the entity class to filter
+     * @param consumer the visitor
+     */
+    public <T extends Entity> void visitBox(@NotNull Point min, @NotNull Point max,
+                                            @NotNull Class<T> type, @NotNull Consumer<@NotNull T> consumer) {
+        final int minX = min.chunkX(), maxX = max.chunkX();
+        final int minZ = min.chunkZ(), maxZ = max.chunkZ();
+        if (scanCells(minX, maxX, minZ, maxZ)) {
+            for (Set<Entity> entities : cells.values()) {
+                visitBox(entities, min, max, type, consumer);
+            }
+            return;
+        }
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                final Set<Entity> entities = cells.get(ChunkUtils.getChunkIndex(x, z));
+                if (entities != null) visitBox(entities, min, max, type, consumer);
+            }
+        }
+    }
+
+    private static <T extends Entity> void visitBox(@NotNull Set<Entity> entities, @NotNull Point min, @NotNull Point max,
+                                                    @NotNull Class<T> type, @NotNull Consumer<@NotNull T> consumer) {
+        for (Entity entity : entities) {
+            if (!type.isInstance(entity)) continue;
+            final Point position = entity.getPosition();
+            if (position.x() >= min.x() && position.x() <= max.x() &&
+                    position.y() >= min.y() && position.y() <= max.y() &&
+                    position.z() >= min.z() && position.z() <= max.z()) {
+                consumer.accept(type.cast(entity));
+            }
+        }
+    }
+
+    /**
+     * Gets if a query covering the given chunk rectangle should iterate the occupied cells
+     * instead of probing every chunk, which happens with very large ranges.
+     */
+    private boolean scanCells(int minX, int maxX, int minZ, int maxZ) {
+        final long area = ((long) maxX - minX + 1) * ((long) maxZ - minZ + 1);
+        return area > cells.size();
+    }
+
+    /**
+     * Visits every indexed entity of type {@code type}.
+     *
+     * @param type     the entity class to filter
+     * @param consumer the visitor
+     */
+    public <T extends Entity> void visitType(@NotNull Class<T> type, @NotNull Consumer<@NotNull T> consumer) {
+        for (Set<Entity> entities : cells.values()) {
+            for (Entity entity : entities) {
+                if (type.isInstance(entity)) consumer.accept(type.cast(entity));
+            }
+        }
+    }
+}
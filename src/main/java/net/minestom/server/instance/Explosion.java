@@ -3,7 +3,6 @@ package net.minestom.server.instance;
 import net.minestom.server.coordinate.Point;
 import net.minestom.server.instance.block.Block;
 import net.minestom.server.network.packet.server.play.ExplosionPacket;
-import net.minestom.server.utils.PacketUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
@@ -81,7 +80,7 @@ public abstract class Explosion {
         postExplosion(instance, blocks, packet);
 
         // TODO send only to close players
-        PacketUtils.sendGroupedPacket(instance.getPlayers(), packet);
+        instance.sendGroupedPacket(packet);
 
         postSend(instance, blocks);
     }
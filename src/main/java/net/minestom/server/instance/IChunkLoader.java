@@ -26,6 +26,14 @@ public interface IChunkLoader {
     default void loadInstance(@NotNull Instance instance) {
     }
 
+    /**
+     * Called once the instance using this loader has been unregistered, used to release resources.
+     *
+     * @param instance the unregistered instance
+     */
+    default void unloadInstance(@NotNull Instance instance) {
+    }
+
     /**
      * Loads a {@link Chunk}, all blocks should be set since the {@link ChunkGenerator} is not applied.
      *
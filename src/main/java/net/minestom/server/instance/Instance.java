@@ -1,7 +1,5 @@
 package net.minestom.server.instance;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.kyori.adventure.identity.Identity;
 import net.kyori.adventure.pointer.Pointers;
 import net.minestom.server.MinecraftServer;
@@ -22,6 +20,7 @@ import net.minestom.server.event.instance.AddEntityToInstanceEvent;
 import net.minestom.server.event.instance.InstanceTickEvent;
 import net.minestom.server.event.instance.RemoveEntityFromInstanceEvent;
 import net.minestom.server.instance.block.*;
+import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.play.BlockActionPacket;
 import net.minestom.server.network.packet.server.play.TimeUpdatePacket;
 import net.minestom.server.tag.Tag;
@@ -85,8 +84,8 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
     protected final Set<EntityCreature> creatures = ConcurrentHashMap.newKeySet();
     protected final Set<ExperienceOrb> experienceOrbs = ConcurrentHashMap.newKeySet();
     // Entities per chunk
-    protected final Object entitiesLock = new Object(); // Lock used to prevent the entities Set and Map to be subject to race condition
-    protected final Long2ObjectMap<Set<Entity>> chunkEntities = new Long2ObjectOpenHashMap<>();
+    protected final Object entitiesLock = new Object(); // Lock used to keep the entity sets and the index consistent on add/remove
+    protected final EntitySpatialIndex entityIndex = new EntitySpatialIndex();
 
     // the uuid of this instance
     protected UUID uniqueId;
@@ -376,7 +375,7 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
      */
     public void setTime(long time) {
         this.time = time;
-        PacketUtils.sendGroupedPacket(getPlayers(), createTimePacket());
+        sendGroupedPacket(createTimePacket());
     }
 
     /**
@@ -465,6 +464,20 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
         return Collections.unmodifiableSet(players);
     }
 
+    /**
+     * Sends a packet to all the players in the instance immediately.
+     * <p>
+     * Instance-wide packets do not go through a {@link net.minestom.server.utils.ViewableStorage},
+     * the packets already queued for entities and chunks are written first so that they are not overtaken.
+     *
+     * @param packet the packet to broadcast
+     */
+    @Override
+    public void sendGroupedPacket(@NotNull ServerPacket packet) {
+        PacketUtils.flushStorages();
+        PacketUtils.sendGroupedPacket(getPlayers(), packet);
+    }
+
     /**
      * Gets the creatures in the instance;
      *
@@ -493,13 +506,20 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
     public @NotNull Set<@NotNull Entity> getChunkEntities(Chunk chunk) {
         if (!ChunkUtils.isLoaded(chunk))
             return Collections.emptySet();
-        final Set<Entity> entities;
-        synchronized (entitiesLock) {
-            if ((entities = chunkEntities.get(ChunkUtils.getChunkIndex(chunk))) == null) {
-                return Collections.emptySet();
-            }
-        }
-        return Collections.unmodifiableSet(entities);
+        return entityIndex.chunkEntities(chunk.getChunkX(), chunk.getChunkZ());
+    }
+
+    /**
+     * Gets the spatial index of the entities in this instance.
+     * <p>
+     * Prefer its visitor methods over {@link #getNearbyEntities(Point, double)} in hot paths,
+     * they do not allocate nor lock.
+     *
+     * @return the entity index
+     */
+    @ApiStatus.Experimental
+    public @NotNull EntitySpatialIndex getEntityIndex() {
+        return entityIndex;
     }
 
     /**
@@ -510,35 +530,8 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
      * @return entities that are not further than the specified distance from the transmitted position.
      */
     public @NotNull Collection<Entity> getNearbyEntities(@NotNull Point point, double range) {
-        int minX = ChunkUtils.getChunkCoordinate(point.x() - range);
-        int maxX = ChunkUtils.getChunkCoordinate(point.x() + range);
-        int minZ = ChunkUtils.getChunkCoordinate(point.z() - range);
-        int maxZ = ChunkUtils.getChunkCoordinate(point.z() + range);
-
-        // Cache squared range to prevent sqrt operations
-        double squaredRange = range * range;
-
         List<Entity> result = new ArrayList<>();
-        synchronized (entitiesLock) {
-            for (int x = minX; x <= maxX; ++x) {
-                for (int z = minZ; z <= maxZ; ++z) {
-                    Chunk chunk = getChunk(x, z);
-
-                    if (chunk == null) {
-                        continue;
-                    }
-
-                    Set<Entity> chunkEntities = getChunkEntities(chunk);
-
-                    // Filter all entities out of range
-                    for (Entity chunkEntity : chunkEntities) {
-                        if (point.distanceSquared(chunkEntity.getPosition()) < squaredRange) {
-                            result.add(chunkEntity);
-                        }
-                    }
-                }
-            }
-        }
+        this.entityIndex.visitSphere(point, range, result::add);
         return result;
     }
 
@@ -677,18 +670,13 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
     public synchronized void UNSAFE_switchEntityChunk(@NotNull Entity entity, @NotNull Chunk lastChunk, @NotNull Chunk newChunk) {
         Check.notNull(newChunk, "The chunk {0} is not loaded, you can make it automatic by using Instance#enableAutoChunkLoad(true)", newChunk);
         Check.argCondition(!newChunk.isLoaded(), "Chunk {0} has been unloaded previously", newChunk);
-        final long oldIndex = ChunkUtils.getChunkIndex(lastChunk);
-        final long newIndex = ChunkUtils.getChunkIndex(newChunk);
-        synchronized (entitiesLock) {
-            removeEntityChunk(oldIndex, entity);
-            addEntityChunk(newIndex, entity);
-        }
+        this.entityIndex.move(ChunkUtils.getChunkIndex(lastChunk), ChunkUtils.getChunkIndex(newChunk), entity);
     }
 
     private void UNSAFE_addEntityToChunk(@NotNull Entity entity, @NotNull Chunk chunk) {
         final long chunkIndex = ChunkUtils.getChunkIndex(chunk);
         synchronized (entitiesLock) {
-            addEntityChunk(chunkIndex, entity);
+            this.entityIndex.add(chunkIndex, entity);
             this.entities.add(entity);
             if (entity instanceof Player) {
                 this.players.add((Player) entity);
@@ -703,7 +691,7 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
     private void UNSAFE_removeEntityFromChunk(@NotNull Entity entity, @NotNull Chunk chunk) {
         final long chunkIndex = ChunkUtils.getChunkIndex(chunk);
         synchronized (entitiesLock) {
-            removeEntityChunk(chunkIndex, entity);
+            this.entityIndex.remove(chunkIndex, entity);
             this.entities.remove(entity);
             if (entity instanceof Player) {
                 this.players.remove(entity);
@@ -715,20 +703,6 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
         }
     }
 
-    private void addEntityChunk(long index, Entity entity) {
-        this.chunkEntities.computeIfAbsent(index, i -> ConcurrentHashMap.newKeySet()).add(entity);
-    }
-
-    private void removeEntityChunk(long index, Entity entity) {
-        var chunkEntities = this.chunkEntities.get(index);
-        if (chunkEntities != null) {
-            chunkEntities.remove(entity);
-            if (chunkEntities.isEmpty()) {
-                this.chunkEntities.remove(index);
-            }
-        }
-    }
-
     /**
      * Performs a single tick in the instance, including scheduled tasks from {@link #scheduleNextTick(Consumer)}.
      * <p>
@@ -751,7 +725,7 @@ public abstract class Instance implements BlockGetter, BlockSetter, Tickable, Ta
             this.time += timeRate;
             // time needs to be sent to players
             if (timeUpdate != null && !Cooldown.hasCooldown(time, lastTimeUpdate, timeUpdate)) {
-                PacketUtils.sendGroupedPacket(getPlayers(), createTimePacket());
+                sendGroupedPacket(createTimePacket());
                 this.lastTimeUpdate = time;
             }
 
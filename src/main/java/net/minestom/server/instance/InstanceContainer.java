@@ -226,9 +226,7 @@ public class InstanceContainer extends Instance {
         synchronized (chunks) {
             this.chunks.remove(index);
         }
-        synchronized (entitiesLock) {
-            this.chunkEntities.remove(index);
-        }
+        this.entityIndex.clearChunk(index);
         chunk.unload();
         UPDATE_MANAGER.signalChunkUnload(chunk);
     }
@@ -253,7 +251,12 @@ public class InstanceContainer extends Instance {
 
     @Override
     public @NotNull CompletableFuture<Void> saveChunksToStorage() {
-        return chunkLoader.saveChunks(getChunks());
+        List<Chunk> dirtyChunks = new ArrayList<>();
+        for (Chunk chunk : getChunks()) {
+            if (chunk.isDirty()) dirtyChunks.add(chunk);
+        }
+        if (dirtyChunks.isEmpty()) return AsyncUtils.VOID_FUTURE;
+        return chunkLoader.saveChunks(dirtyChunks);
     }
 
     protected @NotNull CompletableFuture<@NotNull Chunk> retrieveChunk(int chunkX, int chunkZ) {
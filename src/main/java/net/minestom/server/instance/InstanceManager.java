@@ -19,7 +19,10 @@ import java.util.concurrent.CopyOnWriteArraySet;
  */
 public final class InstanceManager {
 
+    private static final long CHUNK_PACKET_STORE_SIZE = Long.getLong("minestom.chunk-packet-store-size", 256L * 1024 * 1024);
+
     private final Set<Instance> instances = new CopyOnWriteArraySet<>();
+    private final ChunkPacketStore chunkPacketStore = new ChunkPacketStore(CHUNK_PACKET_STORE_SIZE);
 
     /**
      * Registers an {@link Instance} internally.
@@ -112,8 +115,10 @@ public final class InstanceManager {
         Check.stateCondition(!instance.getPlayers().isEmpty(), "You cannot unregister an instance with players inside.");
         synchronized (instance) {
             // Unload all chunks
-            if (instance instanceof InstanceContainer) {
+            if (instance instanceof InstanceContainer container) {
                 instance.getChunks().forEach(instance::unloadChunk);
+                final IChunkLoader chunkLoader = container.getChunkLoader();
+                if (chunkLoader != null) chunkLoader.unloadInstance(instance);
             }
             // Unregister
             instance.setRegistered(false);
@@ -157,4 +162,14 @@ public final class InstanceManager {
         this.instances.add(instance);
         MinecraftServer.getUpdateManager().signalInstanceCreate(instance);
     }
+
+    /**
+     * Gets the store of the encoded chunk packets, shared by all the instances.
+     *
+     * @return the chunk packet store
+     */
+    @ApiStatus.Experimental
+    public @NotNull ChunkPacketStore getChunkPacketStore() {
+        return chunkPacketStore;
+    }
 }
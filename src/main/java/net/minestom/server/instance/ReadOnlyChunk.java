@@ -0,0 +1,416 @@
+package net.minestom.server.instance;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.shorts.Short2ShortOpenHashMap;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Point;
+import net.minestom.server.entity.Player;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.block.BlockHandler;
+import net.minestom.server.instance.palette.Palette;
+import net.minestom.server.listener.manager.PacketListenerManager;
+import net.minestom.server.network.packet.server.play.ChunkDataPacket;
+import net.minestom.server.network.packet.server.play.UpdateLightPacket;
+import net.minestom.server.network.player.PlayerSocketConnection;
+import net.minestom.server.utils.ArrayUtils;
+import net.minestom.server.utils.MathUtils;
+import net.minestom.server.utils.PacketUtils;
+import net.minestom.server.utils.chunk.ChunkSupplier;
+import net.minestom.server.utils.chunk.ChunkUtils;
+import net.minestom.server.utils.validate.Check;
+import net.minestom.server.world.biomes.Biome;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Represents an immutable {@link Chunk}, for maps which never change (lobbies, arenas, etc...).
+ * <p>
+ * The chunk can be filled by the {@link IChunkLoader} or {@link ChunkGenerator} like any other,
+ * it is then compacted the first time it is ticked or sent: only the encoded chunk/light packets,
+ * a minimal block lookup and the light arrays are kept, identical sections being shared between all read-only chunks.
+ * The packet objects are rebuilt from the compacted sections when needed, for connections without a socket
+ * and packet listeners.
+ * Any modification afterward throws an {@link IllegalStateException}.
+ * <p>
+ * Can be used with {@link InstanceContainer#setChunkSupplier(ChunkSupplier)} using {@code ReadOnlyChunk::new}.
+ */
+public class ReadOnlyChunk extends Chunk {
+    private static final Map<CompactSection, WeakReference<CompactSection>> SECTIONS = new WeakHashMap<>();
+
+    // Used until the chunk is compacted
+    private volatile DynamicChunk builder;
+
+    private CompactSection[] sections;
+    // Light arrays of the sections, null if empty
+    private byte[][] skyLights, blockLights;
+    private int minSection;
+    private Int2ObjectOpenHashMap<Block> entries;
+    private Int2ObjectOpenHashMap<Block> tickableMap;
+    // Encoded packets, sent as-is to socket connections
+    private ByteBuffer chunkBody;
+    private ByteBuffer lightBody;
+    // Packet objects rebuilt from the compacted content
+    private SoftReference<Packets> packets = new SoftReference<>(null);
+    private long lastChange;
+
+    public ReadOnlyChunk(@NotNull Instance instance, @Nullable Biome[] biomes, int chunkX, int chunkZ) {
+        super(instance, biomes, chunkX, chunkZ, true);
+        this.builder = new DynamicChunk(instance, this.biomes, chunkX, chunkZ);
+    }
+
+    @Override
+    public void setBlock(int x, int y, int z, @NotNull Block block) {
+        final DynamicChunk builder = this.builder;
+        Check.stateCondition(builder == null, "Cannot modify a compacted read-only chunk");
+        builder.setBlock(x, y, z, block);
+    }
+
+    @Override
+    public @NotNull Map<Integer, Section> getSections() {
+        final DynamicChunk builder = this.builder;
+        return builder != null ? builder.getSections() : Map.of();
+    }
+
+    @Override
+    public @NotNull Section getSection(int section) {
+        final DynamicChunk builder = this.builder;
+        Check.stateCondition(builder == null, "Cannot modify a compacted read-only chunk");
+        return builder.getSection(section);
+    }
+
+    @Override
+    public void tick(long time) {
+        compact();
+        if (tickableMap.isEmpty()) return;
+        Int2ObjectMaps.fastForEach(tickableMap, entry -> {
+            final int index = entry.getIntKey();
+            final Block block = entry.getValue();
+            final BlockHandler handler = block.handler();
+            if (handler == null) return;
+            final Point blockPosition = ChunkUtils.getBlockPosition(index, chunkX, chunkZ);
+            handler.tick(new BlockHandler.Tick(block, instance, blockPosition));
+        });
+    }
+
+    @Override
+    public @Nullable Block getBlock(int x, int y, int z, @NotNull Condition condition) {
+        final DynamicChunk builder = this.builder;
+        if (builder != null) return builder.getBlock(x, y, z, condition);
+        if (condition != Condition.TYPE) {
+            final Block entry = !entries.isEmpty() ?
+                    entries.get(ChunkUtils.getBlockIndex(x, y, z)) : null;
+            if (entry != null || condition == Condition.CACHED) {
+                return entry;
+            }
+        }
+        final int sectionIndex = ChunkUtils.getSectionAt(y) - minSection;
+        if (sectionIndex < 0 || sectionIndex >= sections.length) return Block.AIR;
+        final CompactSection section = sections[sectionIndex];
+        if (section == null) return Block.AIR;
+        final short blockStateId = section.get(x & 0xF, y & 0xF, z & 0xF);
+        return Objects.requireNonNullElse(Block.fromStateId(blockStateId), Block.AIR);
+    }
+
+    @Override
+    public long getLastChangeTime() {
+        final DynamicChunk builder = this.builder;
+        return builder != null ? builder.getLastChangeTime() : lastChange;
+    }
+
+    @Override
+    public boolean isDirty() {
+        final DynamicChunk builder = this.builder;
+        return builder != null && builder.isDirty();
+    }
+
+    @Override
+    public void markSaved() {
+        final DynamicChunk builder = this.builder;
+        if (builder != null) builder.markSaved();
+    }
+
+    @Override
+    public void markUnsaved() {
+        final DynamicChunk builder = this.builder;
+        if (builder != null) builder.markUnsaved();
+    }
+
+    @Override
+    public void sendChunk(@NotNull Player player) {
+        if (!isLoaded()) return;
+        compact();
+        sendPackets(List.of(player));
+    }
+
+    @Override
+    public void sendChunk() {
+        if (!isLoaded()) return;
+        final Set<Player> viewers = getViewers();
+        if (viewers.isEmpty()) return;
+        compact();
+        sendPackets(viewers);
+    }
+
+    private void sendPackets(Collection<Player> players) {
+        List<Player> socketPlayers = null;
+        for (Player player : players) {
+            if (player.getPlayerConnection() instanceof PlayerSocketConnection) {
+                if (socketPlayers == null) socketPlayers = new ArrayList<>(players.size());
+                socketPlayers.add(player);
+            } else {
+                // Goes through the connection, listeners included
+                final Packets packets = getPackets();
+                player.sendPacket(packets.light());
+                player.sendPacket(packets.chunk());
+            }
+        }
+        if (socketPlayers == null) return;
+        boolean sendLight = true, sendChunk = true;
+        if (!MinecraftServer.getConnectionManager().getSendPacketConsumers().isEmpty()) {
+            final PacketListenerManager listenerManager = MinecraftServer.getPacketListenerManager();
+            final Packets packets = getPackets();
+            sendLight = listenerManager.processServerPacket(packets.light(), socketPlayers);
+            sendChunk = listenerManager.processServerPacket(packets.chunk(), socketPlayers);
+        }
+        for (Player player : socketPlayers) {
+            final PlayerSocketConnection connection = (PlayerSocketConnection) player.getPlayerConnection();
+            if (sendLight) connection.sendFramedBody(lightBody);
+            if (sendChunk) connection.sendFramedBody(chunkBody);
+        }
+    }
+
+    /**
+     * Gets the chunk and light packets, rebuilt from the compacted sections if not cached.
+     */
+    private @NotNull Packets getPackets() {
+        Packets packets = this.packets.get();
+        if (packets == null) {
+            synchronized (this) {
+                packets = this.packets.get();
+                if (packets == null) {
+                    final DynamicChunk chunk = toDynamicChunk(instance, chunkX, chunkZ);
+                    packets = new Packets(chunk.createChunkPacket(), chunk.createLightPacket());
+                    this.packets = new SoftReference<>(packets);
+                }
+            }
+        }
+        return packets;
+    }
+
+    @Override
+    public @NotNull Chunk copy(@NotNull Instance instance, int chunkX, int chunkZ) {
+        ReadOnlyChunk chunk = new ReadOnlyChunk(instance, biomes.clone(), chunkX, chunkZ);
+        final DynamicChunk builder = this.builder;
+        if (builder != null) {
+            chunk.builder = (DynamicChunk) builder.copy(instance, chunkX, chunkZ);
+            return chunk;
+        }
+        chunk.builder = null;
+        chunk.sections = sections;
+        chunk.skyLights = skyLights;
+        chunk.blockLights = blockLights;
+        chunk.minSection = minSection;
+        chunk.entries = entries;
+        chunk.tickableMap = tickableMap;
+        chunk.lastChange = lastChange;
+        if (chunkX == this.chunkX && chunkZ == this.chunkZ) {
+            // Same position, the encoded packets can be shared
+            chunk.chunkBody = chunkBody;
+            chunk.lightBody = lightBody;
+        } else {
+            chunk.encodePackets(chunk.toDynamicChunk(instance, chunkX, chunkZ));
+        }
+        chunk.setReadOnly(true);
+        return chunk;
+    }
+
+    /**
+     * Creates a modifiable chunk with the compacted content, used to build packets.
+     */
+    private @NotNull DynamicChunk toDynamicChunk(@NotNull Instance instance, int chunkX, int chunkZ) {
+        DynamicChunk chunk = new DynamicChunk(instance, biomes, chunkX, chunkZ);
+        for (int i = 0; i < sections.length; i++) {
+            final CompactSection section = sections[i];
+            final byte[] skyLight = skyLights[i];
+            final byte[] blockLight = blockLights[i];
+            if (section == null && skyLight == null && blockLight == null) continue;
+            final Section target = chunk.getSection(i + minSection);
+            if (section != null) section.copyTo(target);
+            // Light arrays are never modified, they can be shared
+            if (skyLight != null) target.setSkyLight(skyLight);
+            if (blockLight != null) target.setBlockLight(blockLight);
+        }
+        chunk.entries.putAll(entries);
+        return chunk;
+    }
+
+    @Override
+    public void reset() {
+        final DynamicChunk builder = this.builder;
+        Check.stateCondition(builder == null, "Cannot modify a compacted read-only chunk");
+        builder.reset();
+    }
+
+    /**
+     * Gets if the chunk has been compacted, and cannot be modified anymore.
+     *
+     * @return true if the chunk has been compacted
+     */
+    public boolean isCompacted() {
+        return builder == null;
+    }
+
+    /**
+     * Compacts the chunk if not already done, called automatically when the chunk is first ticked or sent.
+     */
+    public synchronized void compact() {
+        final DynamicChunk builder = this.builder;
+        if (builder == null) return;
+        encodePackets(builder);
+        // Blocks
+        final var builderSections = builder.sectionMap;
+        if (builderSections.isEmpty()) {
+            this.sections = new CompactSection[0];
+            this.skyLights = new byte[0][];
+            this.blockLights = new byte[0][];
+            this.minSection = 0;
+        } else {
+            final int minSection = builderSections.firstIntKey();
+            final int maxSection = builderSections.lastIntKey();
+            final int count = maxSection - minSection + 1;
+            CompactSection[] sections = new CompactSection[count];
+            byte[][] skyLights = new byte[count][];
+            byte[][] blockLights = new byte[count][];
+            for (var entry : builderSections.int2ObjectEntrySet()) {
+                final int index = entry.getIntKey() - minSection;
+                final Section builderSection = entry.getValue();
+                final CompactSection section = CompactSection.of(builderSection.getPalette());
+                if (section != null) sections[index] = section;
+                final byte[] skyLight = builderSection.getSkyLight();
+                final byte[] blockLight = builderSection.getBlockLight();
+                if (!ArrayUtils.empty(skyLight)) skyLights[index] = skyLight;
+                if (!ArrayUtils.empty(blockLight)) blockLights[index] = blockLight;
+            }
+            this.sections = sections;
+            this.skyLights = skyLights;
+            this.blockLights = blockLights;
+            this.minSection = minSection;
+        }
+        this.entries = builder.entries.isEmpty() ? new Int2ObjectOpenHashMap<>(0) : builder.entries.clone();
+        this.tickableMap = builder.tickableMap.isEmpty() ? new Int2ObjectOpenHashMap<>(0) : builder.tickableMap.clone();
+        this.entries.trim();
+        this.tickableMap.trim();
+        this.lastChange = builder.getLastChangeTime();
+        setReadOnly(true);
+        this.builder = null;
+    }
+
+    private void encodePackets(DynamicChunk chunk) {
+        // Only keep the encoded bytes, the packet objects reference the full sections
+        this.chunkBody = PacketUtils.allocateTrimmedPacket(chunk.createChunkPacket()).body();
+        this.lightBody = PacketUtils.allocateTrimmedPacket(chunk.createLightPacket()).body();
+    }
+
+    private record Packets(@NotNull ChunkDataPacket chunk, @NotNull UpdateLightPacket light) {
+    }
+
+    /**
+     * Immutable section storing the block state ids with the fewest bits possible,
+     * compared by content to be shared between chunks.
+     */
+    private static final class CompactSection {
+        private final short[] palette;
+        private final long[] indices;
+        private final int bitsPerEntry;
+        private final int hash;
+
+        private CompactSection(short[] palette, long[] indices, int bitsPerEntry) {
+            this.palette = palette;
+            this.indices = indices;
+            this.bitsPerEntry = bitsPerEntry;
+            this.hash = 31 * (31 * Arrays.hashCode(palette) + Arrays.hashCode(indices)) + bitsPerEntry;
+        }
+
+        static @Nullable CompactSection of(Palette source) {
+            if (source.isSingleValue()) {
+                final short value = source.getBlockAt(0, 0, 0);
+                return value == 0 ? null : intern(new CompactSection(new short[]{value}, new long[0], 0));
+            }
+            short[] blocks = new short[Palette.BLOCK_COUNT];
+            Short2ShortOpenHashMap paletteMap = new Short2ShortOpenHashMap();
+            short[] palette = new short[16];
+            for (int i = 0; i < Palette.BLOCK_COUNT; i++) {
+                final short stateId = source.getBlockAt(i & 0xF, i >> 8, i >> 4 & 0xF);
+                short index = paletteMap.getOrDefault(stateId, (short) -1);
+                if (index == -1) {
+                    index = (short) paletteMap.size();
+                    paletteMap.put(stateId, index);
+                    if (index >= palette.length) palette = Arrays.copyOf(palette, palette.length * 2);
+                    palette[index] = stateId;
+                }
+                blocks[i] = index;
+            }
+            final int paletteSize = paletteMap.size();
+            if (paletteSize == 1 && palette[0] == 0) return null; // Only air
+            palette = Arrays.copyOf(palette, paletteSize);
+            final int bitsPerEntry = paletteSize == 1 ? 0 : MathUtils.bitsToRepresent(paletteSize - 1);
+            long[] indices;
+            if (bitsPerEntry == 0) {
+                indices = new long[0];
+            } else {
+                final int valuesPerLong = Long.SIZE / bitsPerEntry;
+                indices = new long[(Palette.BLOCK_COUNT + valuesPerLong - 1) / valuesPerLong];
+                for (int i = 0; i < Palette.BLOCK_COUNT; i++) {
+                    indices[i / valuesPerLong] |= (long) blocks[i] << (i % valuesPerLong) * bitsPerEntry;
+                }
+            }
+            return intern(new CompactSection(palette, indices, bitsPerEntry));
+        }
+
+        private static CompactSection intern(CompactSection section) {
+            synchronized (SECTIONS) {
+                final WeakReference<CompactSection> ref = SECTIONS.get(section);
+                final CompactSection cached = ref != null ? ref.get() : null;
+                if (cached != null) return cached;
+                SECTIONS.put(section, new WeakReference<>(section));
+                return section;
+            }
+        }
+
+        short get(int x, int y, int z) {
+            if (bitsPerEntry == 0) return palette[0];
+            final int index = y << 8 | z << 4 | x;
+            final int valuesPerLong = Long.SIZE / bitsPerEntry;
+            final long mask = (1L << bitsPerEntry) - 1;
+            return palette[(int) (indices[index / valuesPerLong] >>> (index % valuesPerLong) * bitsPerEntry & mask)];
+        }
+
+        void copyTo(Section section) {
+            final Palette target = section.getPalette();
+            if (bitsPerEntry == 0) {
+                target.fill(palette[0]);
+            } else {
+                target.setAll(palette, indices, bitsPerEntry);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CompactSection that)) return false;
+            return hash == that.hash && bitsPerEntry == that.bitsPerEntry &&
+                    Arrays.equals(palette, that.palette) && Arrays.equals(indices, that.indices);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -11,12 +11,17 @@ public class Section implements PublicCloneable<Section> {
     private byte[] skyLight = new byte[0];
     private byte[] blockLight = new byte[0];
 
+    // Whether the blocks changed since the last save
+    private volatile boolean dirty;
+    // Whether the section is referenced by multiple chunks, and must be cloned before any modification
+    private volatile boolean shared;
+
     private Section(Palette palette) {
         this.palette = palette;
     }
 
     public Section() {
-        this(new Palette(8, 2));
+        this(new Palette(Palette.MINIMUM_BITS_PER_ENTRY, 1));
     }
 
     public short getBlockAt(int x, int y, int z) {
@@ -29,6 +34,29 @@ public class Section implements PublicCloneable<Section> {
         x = toChunkRelativeCoordinate(x);
         z = toChunkRelativeCoordinate(z);
         palette.setBlockAt(x, y, z, blockId);
+        this.dirty = true;
+    }
+
+    /**
+     * Fills the whole section with a single block.
+     *
+     * @param blockId the block state id
+     */
+    public void fill(short blockId) {
+        palette.fill(blockId);
+        this.dirty = true;
+    }
+
+    /**
+     * Fills the section layers between {@code minY} (inclusive) and {@code maxY} (exclusive) with a single block.
+     *
+     * @param minY    the lowest section-relative y
+     * @param maxY    the section-relative y to stop at
+     * @param blockId the block state id
+     */
+    public void fill(int minY, int maxY, short blockId) {
+        palette.fill(minY, maxY, blockId);
+        this.dirty = true;
     }
 
     public byte[] getSkyLight() {
@@ -53,6 +81,34 @@ public class Section implements PublicCloneable<Section> {
 
     public void clear() {
         palette.clear();
+        this.dirty = true;
+    }
+
+    /**
+     * Gets if the blocks of this section changed since the last time it was saved.
+     *
+     * @return true if the section needs to be saved
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void setDirty(boolean dirty) {
+        this.dirty = dirty;
+    }
+
+    /**
+     * Gets if this section is shared between multiple chunks (e.g. after {@link InstanceContainer#copy()}),
+     * in which case it has to be cloned by its chunk before being modified.
+     *
+     * @return true if the section is shared
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    void markShared() {
+        this.shared = true;
     }
 
     public Palette getPalette() {
@@ -61,7 +117,11 @@ public class Section implements PublicCloneable<Section> {
 
     @Override
     public @NotNull Section clone() {
-        return new Section(palette.clone());
+        Section section = new Section(palette.clone());
+        // Light arrays are replaced, never modified
+        section.skyLight = skyLight;
+        section.blockLight = blockLight;
+        return section;
     }
 
     /**
@@ -5,7 +5,6 @@ import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.play.*;
-import net.minestom.server.utils.PacketUtils;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -250,7 +249,7 @@ public class WorldBorder {
     }
 
     private void sendPacket(@NotNull ServerPacket packet) {
-        PacketUtils.sendGroupedPacket(instance.getPlayers(), packet);
+        instance.sendGroupedPacket(packet);
     }
 
     public enum CollisionAxis {
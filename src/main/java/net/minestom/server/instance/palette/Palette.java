@@ -2,18 +2,30 @@ package net.minestom.server.instance.palette;
 
 import it.unimi.dsi.fastutil.shorts.Short2ShortOpenHashMap;
 import net.minestom.server.MinecraftServer;
-import net.minestom.server.instance.Chunk;
 import net.minestom.server.utils.MathUtils;
+import net.minestom.server.utils.Utils;
 import net.minestom.server.utils.clone.PublicCloneable;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import static net.minestom.server.instance.Chunk.CHUNK_SECTION_SIZE;
 
 /**
  * Represents a palette storing a complete chunk section.
  * <p>
- * 0 is always interpreted as being air, reason being that the block array will be filled with it during initialization.
+ * The palette has three modes:
+ * <ul>
+ *     <li>single value, when the whole section is a single block (e.g. air or stone), no array is allocated</li>
+ *     <li>indirect, the blocks are stored as indices in a palette, searched linearly when small and hashed otherwise</li>
+ *     <li>direct, the blocks are stored as global block ids</li>
+ * </ul>
+ * Transitions keep the existing palette indices, growing the palette only re-packs the array.
+ * <p>
+ * Block id 0 is always interpreted as being air.
  */
 @ApiStatus.Internal
 public final class Palette implements PublicCloneable<Palette> {
@@ -45,162 +57,270 @@ public final class Palette implements PublicCloneable<Palette> {
                     511, 1023, 2047, 4095,
                     8191, 16383, 32767};
 
-    private static final Short2ShortOpenHashMap MAP_TEMPLATE = new Short2ShortOpenHashMap(CHUNK_SECTION_SIZE);
+    // Palettes up to this size are searched linearly
+    private static final int LINEAR_PALETTE_SIZE = 16;
 
-    static {
-        MAP_TEMPLATE.put((short) 0, (short) 0);
-    }
+    private final int initialBitsPerEntry;
+    private final int bitsIncrement;
 
+    // 0 in single value mode
+    private int bitsPerEntry;
+    private int valuesPerLong;
+    // null in single value mode
     private long[] blocks;
+    private short singleValue;
 
     // palette index = block id
     private short[] paletteBlockArray;
-    // block id = palette index
+    private int paletteSize;
+    // block id = palette index, only created for big palettes
     private Short2ShortOpenHashMap blockPaletteMap;
 
-    private int bitsPerEntry;
-    private final int bitsIncrement;
-
-    private int valuesPerLong;
-    private boolean hasPalette;
-    private int lastPaletteIndex;
-
     private short blockCount = 0;
 
+    /**
+     * Creates an empty palette in single value mode.
+     *
+     * @param bitsPerEntry  the bits per entry used once the section contains multiple blocks
+     * @param bitsIncrement the bits added when the palette is full
+     */
     public Palette(int bitsPerEntry, int bitsIncrement) {
-        this.bitsPerEntry = bitsPerEntry;
+        this.initialBitsPerEntry = fixBitsPerEntry(bitsPerEntry);
         this.bitsIncrement = bitsIncrement;
-
-        this.valuesPerLong = Long.SIZE / bitsPerEntry;
-        this.hasPalette = bitsPerEntry <= PALETTE_MAXIMUM_BITS;
-
         clear();
     }
 
     public void setBlockAt(int x, int y, int z, short blockId) {
-        final boolean placedAir = blockId == 0;
-        if (blocks.length == 0) {
-            if (placedAir) {
-                // Section is empty and method is trying to place an air block, stop unnecessary computation
-                return;
-            }
-            // Initialize the section
-            this.blocks = new long[(BLOCK_COUNT + valuesPerLong - 1) / valuesPerLong];
+        if (bitsPerEntry == 0) {
+            if (blockId == singleValue) return; // Trying to place the same block
+            expand(initialBitsPerEntry);
         }
+        final int value = getPaletteIndex(blockId);
+        set(getSectionIndex(x, y, z), value, blockId == 0);
+    }
 
-        // Change to palette value
-        blockId = getPaletteIndex(blockId);
-
+    public short getBlockAt(int x, int y, int z) {
+        final int bitsPerEntry = this.bitsPerEntry;
+        if (bitsPerEntry == 0) return singleValue;
         final int sectionIndex = getSectionIndex(x, y, z);
+        final int valuesPerLong = this.valuesPerLong;
+        final int value = (int) (blocks[sectionIndex / valuesPerLong] >>> (sectionIndex % valuesPerLong) * bitsPerEntry
+                & MAGIC_MASKS[bitsPerEntry]);
+        // Change to palette value and return
+        return bitsPerEntry <= PALETTE_MAXIMUM_BITS ? paletteBlockArray[value] : (short) value;
+    }
 
-        final int index = sectionIndex / valuesPerLong;
-
-        final int bitIndex = (sectionIndex % valuesPerLong) * bitsPerEntry;
+    /**
+     * Fills the whole section with a single block, switching to the single value mode.
+     *
+     * @param blockId the block id to fill the section with
+     */
+    public void fill(short blockId) {
+        this.bitsPerEntry = 0;
+        this.valuesPerLong = 0;
+        this.blocks = null;
+        this.singleValue = blockId;
+        this.paletteBlockArray = null;
+        this.paletteSize = 0;
+        this.blockPaletteMap = null;
+        this.blockCount = blockId == 0 ? 0 : (short) BLOCK_COUNT;
+    }
 
-        long block = blocks[index];
-        {
-            final long clear = MAGIC_MASKS[bitsPerEntry];
-
-            final long oldBlock = block >> bitIndex & clear;
-            if (oldBlock == blockId)
-                return; // Trying to place the same block
-            final boolean currentAir = oldBlock == 0;
-
-            final long indexClear = clear << bitIndex;
-            block |= indexClear;
-            block ^= indexClear;
-            block |= (long) blockId << bitIndex;
-
-            if (currentAir != placedAir) {
-                // Block count changed
-                this.blockCount += (short) (currentAir ? 1 : -1);
-            }
-            blocks[index] = block;
+    /**
+     * Fills the layers between {@code minY} (inclusive) and {@code maxY} (exclusive) with a single block.
+     * <p>
+     * The palette index is retrieved once for the whole range.
+     *
+     * @param minY    the lowest section-relative y to fill
+     * @param maxY    the section-relative y to stop at
+     * @param blockId the block id to fill the layers with
+     */
+    public void fill(int minY, int maxY, short blockId) {
+        minY = Math.max(minY, 0);
+        maxY = Math.min(maxY, CHUNK_SECTION_SIZE);
+        if (minY >= maxY) return;
+        if (minY == 0 && maxY == CHUNK_SECTION_SIZE) {
+            fill(blockId);
+            return;
+        }
+        if (bitsPerEntry == 0) {
+            if (blockId == singleValue) return;
+            expand(initialBitsPerEntry);
+        }
+        final int value = getPaletteIndex(blockId);
+        final boolean air = blockId == 0;
+        final int end = maxY << 8;
+        for (int i = minY << 8; i < end; i++) {
+            set(i, value, air);
         }
     }
 
-    public short getBlockAt(int x, int y, int z) {
-        if (blocks.length == 0) {
-            // Section is not loaded, can only be air
-            return -1;
+    /**
+     * Replaces the whole section content with indices packed the same way as {@link #getBlocks()},
+     * each value being an index in {@code palette}.
+     * <p>
+     * The palette entries are registered once before the indices are re-packed,
+     * avoiding any per-block lookup or resize.
+     *
+     * @param palette      the block id of each index, null if the values are block ids
+     * @param indices      the packed indices, values do not span over multiple longs
+     * @param bitsPerIndex the number of bits used by each index in {@code indices}
+     */
+    public void setAll(short @Nullable [] palette, long[] indices, int bitsPerIndex) {
+        if (palette != null) {
+            if (palette.length == 0) {
+                clear();
+                return;
+            }
+            if (palette.length == 1 || bitsPerIndex <= 0) {
+                fill(palette[0]);
+                return;
+            }
         }
-        final int sectionIdentifier = getSectionIndex(x, y, z);
-
-        final int index = sectionIdentifier / valuesPerLong;
-        final int bitIndex = sectionIdentifier % valuesPerLong * bitsPerEntry;
-
-        final short value = (short) (blocks[index] >> bitIndex & MAGIC_MASKS[bitsPerEntry]);
-        // Change to palette value and return
-        return hasPalette ? paletteBlockArray[value] : value;
+        short[] mapping = null;
+        if (palette != null) {
+            final int requiredBits = fixBitsPerEntry(Math.max(initialBitsPerEntry,
+                    MathUtils.bitsToRepresent(palette.length - 1)));
+            if (requiredBits <= PALETTE_MAXIMUM_BITS) {
+                // Register the palette entries first
+                initIndirect(requiredBits, palette[0]);
+                mapping = new short[palette.length];
+                for (int i = 0; i < palette.length; i++) {
+                    mapping[i] = (short) getPaletteIndex(palette[i]);
+                }
+            } else {
+                initDirect();
+                mapping = palette;
+            }
+        } else {
+            initDirect();
+        }
+        final int indicesPerLong = Long.SIZE / bitsPerIndex;
+        final long indexMask = (1L << bitsPerIndex) - 1;
+        final int bitsPerEntry = this.bitsPerEntry;
+        final int valuesPerLong = this.valuesPerLong;
+        final long clear = MAGIC_MASKS[bitsPerEntry];
+        final short[] paletteBlockArray = this.paletteBlockArray;
+        final boolean indirect = bitsPerEntry <= PALETTE_MAXIMUM_BITS;
+        long[] blocks = this.blocks;
+        int blockCount = 0;
+        for (int i = 0; i < BLOCK_COUNT; i++) {
+            final int longIndex = i / indicesPerLong;
+            int index = longIndex < indices.length ?
+                    (int) (indices[longIndex] >>> (i % indicesPerLong) * bitsPerIndex & indexMask) : 0;
+            int value;
+            if (mapping != null) {
+                if (index >= mapping.length) index = 0; // Invalid index
+                value = mapping[index];
+            } else {
+                value = index;
+            }
+            final short blockId = indirect ? paletteBlockArray[value] : (short) value;
+            if (blockId != 0) blockCount++;
+            blocks[i / valuesPerLong] |= (value & clear) << (i % valuesPerLong) * bitsPerEntry;
+        }
+        this.blockCount = (short) blockCount;
     }
 
     /**
      * Resizes the array.
      * <p>
-     * Will create a new palette storage to set all the current blocks, and the data will be transferred to 'this'.
+     * The current palette indices are kept, only the array is re-packed.
      *
      * @param newBitsPerEntry the new bits per entry count
      */
     public void resize(int newBitsPerEntry) {
         newBitsPerEntry = fixBitsPerEntry(newBitsPerEntry);
-
-        Palette palette = new Palette(newBitsPerEntry, bitsIncrement);
-
-        for (int y = 0; y < Chunk.CHUNK_SECTION_SIZE; y++) {
-            for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
-                for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
-                    palette.setBlockAt(x, y, z, getBlockAt(x, y, z));
+        if (bitsPerEntry == 0) {
+            if (newBitsPerEntry <= PALETTE_MAXIMUM_BITS) {
+                expand(newBitsPerEntry);
+            } else {
+                final short value = singleValue;
+                initDirect();
+                if (value != 0) {
+                    final int valuesPerLong = this.valuesPerLong;
+                    for (int i = 0; i < BLOCK_COUNT; i++) {
+                        blocks[i / valuesPerLong] |= (long) value << (i % valuesPerLong) * bitsPerEntry;
+                    }
+                    this.blockCount = (short) BLOCK_COUNT;
                 }
             }
+            return;
+        }
+        if (newBitsPerEntry == bitsPerEntry) return;
+        if (bitsPerEntry <= PALETTE_MAXIMUM_BITS && newBitsPerEntry > PALETTE_MAXIMUM_BITS) {
+            // Indirect to direct, indices are replaced by their block id
+            final short[] mapping = paletteBlockArray;
+            repack(newBitsPerEntry, mapping);
+            this.paletteBlockArray = null;
+            this.paletteSize = 0;
+            this.blockPaletteMap = null;
+        } else if (newBitsPerEntry > bitsPerEntry || bitsPerEntry <= PALETTE_MAXIMUM_BITS &&
+                MathUtils.bitsToRepresent(Math.max(1, paletteSize - 1)) <= newBitsPerEntry) {
+            repack(newBitsPerEntry, null);
+            if (newBitsPerEntry <= PALETTE_MAXIMUM_BITS) {
+                this.paletteBlockArray = Arrays.copyOf(paletteBlockArray, 1 << newBitsPerEntry);
+            }
         }
-
-        this.paletteBlockArray = palette.paletteBlockArray;
-        this.lastPaletteIndex = palette.lastPaletteIndex;
-
-        this.bitsPerEntry = palette.bitsPerEntry;
-
-        this.valuesPerLong = palette.valuesPerLong;
-        this.hasPalette = palette.hasPalette;
-
-        this.blocks = palette.blocks;
-        this.blockCount = palette.blockCount;
     }
 
     /**
-     * Loops through all the sections and blocks to find unused array (empty chunk section)
+     * Switches back to the single value mode if the section only contains air.
      * <p>
-     * Useful after clearing one or multiple sections of a chunk. Can be unnecessarily expensive if the chunk
-     * is composed of almost-empty sections since the loop will not stop until a non-air block is discovered.
+     * Useful after clearing one or multiple sections of a chunk.
      */
     public synchronized void clean() {
-        if (blocks.length != 0) {
-            boolean canClear = true;
-            for (long blockGroup : blocks) {
-                if (blockGroup != 0) {
-                    canClear = false;
-                    break;
-                }
-            }
-            if (canClear) {
-                this.blocks = new long[0];
-            }
+        if (bitsPerEntry != 0 && blockCount == 0) {
+            clear();
         }
     }
 
     public void clear() {
-        this.blocks = new long[0];
-        this.paletteBlockArray = new short[1 << bitsPerEntry];
-        this.blockPaletteMap = MAP_TEMPLATE.clone();
-        this.blockCount = 0;
-        this.lastPaletteIndex = 1; // First index is air
+        fill((short) 0);
     }
 
-    public long[] getBlocks() {
-        return blocks;
+    /**
+     * Writes the section data in the protocol format.
+     * <p>
+     * The protocol does not support single value sections, those are sent with the minimum palette size.
+     *
+     * @param buffer the buffer to write to
+     */
+    public void write(@NotNull ByteBuffer buffer) {
+        buffer.putShort(blockCount);
+        if (bitsPerEntry == 0) {
+            buffer.put((byte) MINIMUM_BITS_PER_ENTRY);
+            Utils.writeVarInt(buffer, 1);
+            Utils.writeVarInt(buffer, singleValue);
+            final int length = BLOCK_COUNT / (Long.SIZE / MINIMUM_BITS_PER_ENTRY);
+            Utils.writeVarInt(buffer, length);
+            for (int i = 0; i < length; i++) {
+                buffer.putLong(0);
+            }
+            return;
+        }
+        buffer.put((byte) bitsPerEntry);
+        // Palette
+        if (bitsPerEntry <= PALETTE_MAXIMUM_BITS) {
+            Utils.writeVarInt(buffer, paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                Utils.writeVarInt(buffer, paletteBlockArray[i]);
+            }
+        }
+        Utils.writeVarInt(buffer, blocks.length);
+        for (long datum : blocks) {
+            buffer.putLong(datum);
+        }
     }
 
-    public void setBlocks(long[] blocks) {
-        this.blocks = blocks;
+    /**
+     * Gets the packed array, empty in single value mode.
+     *
+     * @return the packed blocks
+     */
+    public long[] getBlocks() {
+        final long[] blocks = this.blocks;
+        return blocks != null ? blocks : new long[0];
     }
 
     /**
@@ -216,20 +336,95 @@ public final class Palette implements PublicCloneable<Palette> {
         this.blockCount = blockCount;
     }
 
-    public short[] getPaletteBlockArray() {
-        return paletteBlockArray;
+    /**
+     * Gets the bits used per block.
+     *
+     * @return the bits per entry, 0 in single value mode
+     */
+    public int getBitsPerEntry() {
+        return bitsPerEntry;
     }
 
-    public int getLastPaletteIndex() {
-        return lastPaletteIndex;
+    /**
+     * Gets if the section only contains a single block.
+     *
+     * @return true if the palette is in single value mode
+     */
+    public boolean isSingleValue() {
+        return bitsPerEntry == 0;
     }
 
-    public Short2ShortOpenHashMap getBlockPaletteMap() {
-        return blockPaletteMap;
+    private void set(int sectionIndex, int value, boolean placedAir) {
+        final int bitsPerEntry = this.bitsPerEntry;
+        final int valuesPerLong = this.valuesPerLong;
+        final int index = sectionIndex / valuesPerLong;
+        final int bitIndex = (sectionIndex % valuesPerLong) * bitsPerEntry;
+        final long clear = MAGIC_MASKS[bitsPerEntry];
+
+        long block = blocks[index];
+        final int oldValue = (int) (block >>> bitIndex & clear);
+        if (oldValue == value) return; // Trying to place the same block
+        final boolean currentAir = (bitsPerEntry <= PALETTE_MAXIMUM_BITS ? paletteBlockArray[oldValue] : oldValue) == 0;
+        blocks[index] = block & ~(clear << bitIndex) | (long) value << bitIndex;
+        if (currentAir != placedAir) {
+            // Block count changed
+            this.blockCount += (short) (currentAir ? 1 : -1);
+        }
     }
 
-    public int getBitsPerEntry() {
-        return bitsPerEntry;
+    /**
+     * Leaves the single value mode, the single value becomes the first palette entry.
+     */
+    private void expand(int bitsPerEntry) {
+        initIndirect(bitsPerEntry, singleValue);
+        this.blockCount = singleValue == 0 ? 0 : (short) BLOCK_COUNT;
+    }
+
+    private void initIndirect(int bitsPerEntry, short firstValue) {
+        this.bitsPerEntry = bitsPerEntry;
+        this.valuesPerLong = Long.SIZE / bitsPerEntry;
+        this.blocks = new long[(BLOCK_COUNT + valuesPerLong - 1) / valuesPerLong];
+        this.paletteBlockArray = new short[1 << bitsPerEntry];
+        this.paletteBlockArray[0] = firstValue;
+        this.paletteSize = 1;
+        this.blockPaletteMap = null;
+        this.blockCount = 0;
+    }
+
+    private void initDirect() {
+        this.bitsPerEntry = MAXIMUM_BITS_PER_ENTRY;
+        this.valuesPerLong = Long.SIZE / MAXIMUM_BITS_PER_ENTRY;
+        this.blocks = new long[(BLOCK_COUNT + valuesPerLong - 1) / valuesPerLong];
+        this.paletteBlockArray = null;
+        this.paletteSize = 0;
+        this.blockPaletteMap = null;
+        this.blockCount = 0;
+    }
+
+    /**
+     * Re-packs the array with a different number of bits per entry.
+     *
+     * @param newBitsPerEntry the new bits per entry
+     * @param mapping         the new value of each current value, null to keep them
+     */
+    private void repack(int newBitsPerEntry, short @Nullable [] mapping) {
+        final int bitsPerEntry = this.bitsPerEntry;
+        final int valuesPerLong = this.valuesPerLong;
+        final long clear = MAGIC_MASKS[bitsPerEntry];
+        final int newValuesPerLong = Long.SIZE / newBitsPerEntry;
+        final long[] blocks = this.blocks;
+        long[] newBlocks = new long[(BLOCK_COUNT + newValuesPerLong - 1) / newValuesPerLong];
+        int i = 0;
+        for (long block : blocks) {
+            for (int j = 0; j < valuesPerLong && i < BLOCK_COUNT; j++, i++) {
+                int value = (int) (block >>> j * bitsPerEntry & clear);
+                if (mapping != null) value = mapping[value];
+                newBlocks[i / newValuesPerLong] |= (long) value << (i % newValuesPerLong) * newBitsPerEntry;
+            }
+        }
+        this.blocks = newBlocks;
+        this.bitsPerEntry = newBitsPerEntry;
+        this.valuesPerLong = newValuesPerLong;
     }
 
     /**
@@ -240,22 +435,42 @@ public final class Palette implements PublicCloneable<Palette> {
      * @param blockId the block id to convert
      * @return the palette index of {@code blockId}
      */
-    private short getPaletteIndex(short blockId) {
-        if (!hasPalette) return blockId;
-        final short value = blockPaletteMap.getOrDefault(blockId, (short) -1);
-        if (value != -1) return value;
+    private int getPaletteIndex(short blockId) {
+        if (bitsPerEntry > PALETTE_MAXIMUM_BITS) return blockId;
+        final int index = indexOf(blockId);
+        if (index != -1) return index;
 
-        if (lastPaletteIndex >= paletteBlockArray.length) {
+        if (paletteSize >= 1 << bitsPerEntry) {
             // Palette is full, must resize
             resize(bitsPerEntry + bitsIncrement);
-            if (!hasPalette) return blockId;
+            if (bitsPerEntry > PALETTE_MAXIMUM_BITS) return blockId;
         }
-        final short paletteIndex = (short) lastPaletteIndex++;
+        final int paletteIndex = paletteSize++;
         this.paletteBlockArray[paletteIndex] = blockId;
-        this.blockPaletteMap.put(blockId, paletteIndex);
+        if (blockPaletteMap != null) {
+            this.blockPaletteMap.put(blockId, (short) paletteIndex);
+        } else if (paletteSize > LINEAR_PALETTE_SIZE) {
+            // Switch to a hashed palette
+            Short2ShortOpenHashMap map = new Short2ShortOpenHashMap(paletteSize * 2);
+            map.defaultReturnValue((short) -1);
+            for (int i = 0; i < paletteSize; i++) {
+                map.put(paletteBlockArray[i], (short) i);
+            }
+            this.blockPaletteMap = map;
+        }
         return paletteIndex;
     }
 
+    private int indexOf(short blockId) {
+        final Short2ShortOpenHashMap map = this.blockPaletteMap;
+        if (map != null) return map.get(blockId);
+        final short[] paletteBlockArray = this.paletteBlockArray;
+        for (int i = 0; i < paletteSize; i++) {
+            if (paletteBlockArray[i] == blockId) return i;
+        }
+        return -1;
+    }
+
     /**
      * Gets the index of the block on the section array based on the block position.
      *
@@ -280,7 +495,7 @@ public final class Palette implements PublicCloneable<Palette> {
     private static int fixBitsPerEntry(int bitsPerEntry) {
         if (bitsPerEntry < MINIMUM_BITS_PER_ENTRY) {
             return MINIMUM_BITS_PER_ENTRY;
-        } else if (MathUtils.isBetween(bitsPerEntry, 9, 14)) {
+        } else if (bitsPerEntry > PALETTE_MAXIMUM_BITS) {
             return MAXIMUM_BITS_PER_ENTRY;
         }
         return bitsPerEntry;
@@ -290,10 +505,9 @@ public final class Palette implements PublicCloneable<Palette> {
     public @NotNull Palette clone() {
         try {
             Palette palette = (Palette) super.clone();
-            palette.blocks = blocks.clone();
-            palette.paletteBlockArray = paletteBlockArray.clone();
-            palette.blockPaletteMap = blockPaletteMap.clone();
-            palette.blockCount = blockCount;
+            if (blocks != null) palette.blocks = blocks.clone();
+            if (paletteBlockArray != null) palette.paletteBlockArray = paletteBlockArray.clone();
+            if (blockPaletteMap != null) palette.blockPaletteMap = blockPaletteMap.clone();
             return palette;
         } catch (CloneNotSupportedException e) {
             MinecraftServer.getExceptionManager().handleException(e);
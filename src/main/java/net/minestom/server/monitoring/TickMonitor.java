@@ -1,13 +1,23 @@
 package net.minestom.server.monitoring;
 
+import org.jetbrains.annotations.NotNull;
+
 public class TickMonitor {
 
+    private static final double[] EMPTY_THREAD_TIMES = new double[0];
+
     private final double tickTime;
     private final double acquisitionTime;
+    private final double[] threadTickTimes;
 
-    public TickMonitor(double tickTime, double acquisitionTime) {
+    public TickMonitor(double tickTime, double acquisitionTime, double @NotNull [] threadTickTimes) {
         this.tickTime = tickTime;
         this.acquisitionTime = acquisitionTime;
+        this.threadTickTimes = threadTickTimes;
+    }
+
+    public TickMonitor(double tickTime, double acquisitionTime) {
+        this(tickTime, acquisitionTime, EMPTY_THREAD_TIMES);
     }
 
     public double getTickTime() {
@@ -17,4 +27,13 @@ public class TickMonitor {
     public double getAcquisitionTime() {
         return acquisitionTime;
     }
+
+    /**
+     * Gets the time spent by each tick thread during the tick, indexed by thread number.
+     *
+     * @return the thread tick times in milliseconds
+     */
+    public double @NotNull [] getThreadTickTimes() {
+        return threadTickTimes.clone();
+    }
 }
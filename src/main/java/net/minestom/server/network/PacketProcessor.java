@@ -43,11 +43,24 @@ public final class PacketProcessor {
     }
 
     public void process(@NotNull PlayerSocketConnection playerConnection, int packetId, ByteBuffer body) {
+        process(playerConnection, packetId, new BinaryReader(body));
+    }
+
+    /**
+     * Reads and processes a packet.
+     * <p>
+     * Play packets are queued to be processed during the player tick, {@code binaryReader}
+     * can therefore be reused once this method returns.
+     *
+     * @param playerConnection the connection who sent the packet
+     * @param packetId         the packet id
+     * @param binaryReader     the reader positioned at the start of the packet body
+     */
+    public void process(@NotNull PlayerSocketConnection playerConnection, int packetId, @NotNull BinaryReader binaryReader) {
         if (MinecraftServer.getRateLimit() > 0) {
             // Increment packet count (checked in PlayerConnection#update)
             playerConnection.getPacketCounter().incrementAndGet();
         }
-        BinaryReader binaryReader = new BinaryReader(body);
         final ConnectionState connectionState = playerConnection.getConnectionState();
         if (connectionState == ConnectionState.UNKNOWN) {
             // Should be handshake packet
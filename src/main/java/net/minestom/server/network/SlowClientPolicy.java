@@ -0,0 +1,19 @@
+package net.minestom.server.network;
+
+/**
+ * Represents what happens to a client which does not read its data fast enough,
+ * and ends up exceeding {@link net.minestom.server.MinecraftServer#getMaxPendingBytes()}.
+ */
+public enum SlowClientPolicy {
+    /**
+     * Non-critical packets (particles, sounds, animations, time) are dropped while the limit is exceeded.
+     * Entity movements are relative to the previous position and are always sent.
+     * <p>
+     * The client is still disconnected if it reaches 4 times the limit.
+     */
+    DROP_NON_CRITICAL,
+    /**
+     * The client is disconnected as soon as the limit is exceeded.
+     */
+    DISCONNECT
+}
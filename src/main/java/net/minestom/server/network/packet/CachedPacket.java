@@ -9,7 +9,11 @@ import java.lang.ref.SoftReference;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Supplier;
 
+/**
+ * @deprecated chunk packets are stored in the {@link net.minestom.server.instance.ChunkPacketStore}
+ */
 @ApiStatus.Internal
+@Deprecated(forRemoval = true)
 public final class CachedPacket {
     private static final AtomicIntegerFieldUpdater<CachedPacket> UPDATER = AtomicIntegerFieldUpdater.newUpdater(CachedPacket.class, "updated");
     private final Supplier<ServerPacket> supplier;
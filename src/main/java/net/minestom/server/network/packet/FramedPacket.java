@@ -1,6 +1,7 @@
 package net.minestom.server.network.packet;
 
 import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.socket.Server;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -11,6 +12,9 @@ import java.nio.ByteBuffer;
  * Can be used if you want to send the exact same buffer to multiple clients without processing it more than once.
  * <p>
  * The {@link ByteBuffer} will ultimately become a MemorySegment once out of incubation.
+ * <p>
+ * Connections may keep a reference to bodies of at least {@link Server#SHARED_BUFFER_THRESHOLD} bytes
+ * until they are written to the socket, those must therefore never be modified once the framed packet is created.
  */
 @ApiStatus.Internal
 public record FramedPacket(@NotNull ServerPacket packet,
@@ -51,6 +51,7 @@ public class ChunkDataPacket implements ServerPacket {
         for (var entry : sections.entrySet()) {
             final int index = entry.getKey();
             final Section section = entry.getValue();
+            if (section.getPalette().getBlockCount() == 0) continue; // Empty sections do not need to be sent
 
             final int lengthIndex = index % 64;
             final int maskIndex = index / 64;
@@ -160,23 +161,19 @@ public class ChunkDataPacket implements ServerPacket {
                     final Section section = sections.computeIfAbsent(sectionIndex, i -> new Section());
                     final Palette palette = section.getPalette();
                     final short blockCount = reader.readShort();
-                    palette.setBlockCount(blockCount);
                     final byte bitsPerEntry = reader.readByte();
-                    // Resize palette if necessary
-                    if (bitsPerEntry > palette.getBitsPerEntry()) {
-                        palette.resize(bitsPerEntry);
-                    }
                     // Retrieve palette values
+                    short[] paletteValues = null;
                     if (bitsPerEntry < 9) {
                         int paletteSize = reader.readVarInt();
+                        paletteValues = new short[paletteSize];
                         for (int i = 0; i < paletteSize; i++) {
-                            final int paletteValue = reader.readVarInt();
-                            palette.getPaletteBlockArray()[i] = (short) paletteValue;
-                            palette.getBlockPaletteMap().put((short) paletteValue, (short) i);
+                            paletteValues[i] = (short) reader.readVarInt();
                         }
                     }
                     // Read blocks
-                    palette.setBlocks(reader.readLongArray());
+                    palette.setAll(paletteValues, reader.readLongArray(), bitsPerEntry);
+                    palette.setBlockCount(blockCount);
                 }
             }
 
@@ -0,0 +1,209 @@
+package net.minestom.server.network.player;
+
+import net.minestom.server.network.packet.client.ClientPlayPacket;
+import net.minestom.server.network.packet.client.play.ClientPlayerPacket;
+import net.minestom.server.network.packet.client.play.ClientPlayerPositionAndRotationPacket;
+import net.minestom.server.network.packet.client.play.ClientPlayerPositionPacket;
+import net.minestom.server.network.packet.client.play.ClientPlayerRotationPacket;
+import net.minestom.server.utils.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded queue of the packets received from a player, waiting to be processed during its tick.
+ * <p>
+ * Multiple threads can offer packets (the connection worker, fake player controllers...)
+ * but only the player tick can poll them.
+ * Movement packets received back to back are merged into a single one (so that neither the position
+ * nor the rotation is lost), a movement received after any other packet takes a new slot to keep the packets order.
+ */
+@ApiStatus.Internal
+public final class ClientPacketQueue {
+    // Set in a movement slot once polled, no movement can be merged in it anymore
+    private static final ClientPlayPacket TAKEN = new ClientPlayerPacket();
+
+    // Contains either packets or movement slots
+    private final AtomicReferenceArray<Object> buffer;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private volatile long consumerIndex;
+
+    private final Object producerLock = new Object();
+    // Last queued element if it is a movement slot, guarded by producerLock
+    private MovementSlot openMovement;
+
+    public ClientPacketQueue(int capacity) {
+        Check.argCondition(capacity <= 0, "The capacity must be positive");
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        this.buffer = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Queues a packet.
+     *
+     * @param packet the packet to queue
+     * @return false if the queue is full
+     */
+    public boolean offer(@NotNull ClientPlayPacket packet) {
+        synchronized (producerLock) {
+            if (!isMovement(packet)) {
+                // The next movement must not be handled before this packet
+                this.openMovement = null;
+                return offer0(packet);
+            }
+            final MovementSlot slot = this.openMovement;
+            if (slot != null && slot.merge(packet)) return true;
+            final MovementSlot newSlot = new MovementSlot(packet);
+            if (!offer0(newSlot)) return false;
+            this.openMovement = newSlot;
+            return true;
+        }
+    }
+
+    /**
+     * Retrieves the next packet, must only be called by the player tick.
+     *
+     * @return the next packet, null if the queue is empty
+     */
+    public @Nullable ClientPlayPacket poll() {
+        final long index = consumerIndex;
+        final int offset = (int) index & mask;
+        final Object element = buffer.get(offset);
+        // Empty, or the producer did not store the packet yet
+        if (element == null) return null;
+        this.buffer.lazySet(offset, null);
+        this.consumerIndex = index + 1;
+        if (element instanceof MovementSlot slot) return slot.take();
+        return (ClientPlayPacket) element;
+    }
+
+    /**
+     * Removes all the queued packets, must only be called by the player tick.
+     */
+    public void clear() {
+        //noinspection StatementWithEmptyBody
+        while (poll() != null) ;
+    }
+
+    /**
+     * Gets the number of queued packets, coalesced movements are counted once.
+     *
+     * @return the number of queued packets
+     */
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex);
+    }
+
+    public int capacity() {
+        return buffer.length();
+    }
+
+    private boolean offer0(Object element) {
+        while (true) {
+            final long index = producerIndex.get();
+            if (index - consumerIndex >= buffer.length()) return false;
+            if (producerIndex.compareAndSet(index, index + 1)) {
+                this.buffer.lazySet((int) index & mask, element);
+                return true;
+            }
+        }
+    }
+
+    private static final class MovementSlot {
+        private final AtomicReference<ClientPlayPacket> movement;
+
+        MovementSlot(ClientPlayPacket movement) {
+            this.movement = new AtomicReference<>(movement);
+        }
+
+        /**
+         * Merges a movement into this slot.
+         *
+         * @return false if the slot has already been polled
+         */
+        boolean merge(ClientPlayPacket next) {
+            while (true) {
+                final ClientPlayPacket previous = movement.get();
+                if (previous == TAKEN) return false;
+                if (movement.compareAndSet(previous, mergeMovement(previous, next))) return true;
+            }
+        }
+
+        ClientPlayPacket take() {
+            return movement.getAndSet(TAKEN);
+        }
+    }
+
+    private static boolean isMovement(ClientPlayPacket packet) {
+        return packet instanceof ClientPlayerPositionAndRotationPacket ||
+                packet instanceof ClientPlayerPositionPacket ||
+                packet instanceof ClientPlayerRotationPacket ||
+                packet.getClass() == ClientPlayerPacket.class;
+    }
+
+    private static ClientPlayPacket mergeMovement(ClientPlayPacket previous, ClientPlayPacket next) {
+        if (previous == null) return next;
+        // Nothing to keep from the previous packet
+        if ((hasPosition(next) || !hasPosition(previous)) && (hasRotation(next) || !hasRotation(previous))) return next;
+        final ClientPlayPacket positionSource = hasPosition(next) ? next : hasPosition(previous) ? previous : null;
+        final ClientPlayPacket rotationSource = hasRotation(next) ? next : hasRotation(previous) ? previous : null;
+        final boolean onGround = onGround(next);
+        if (positionSource != null && rotationSource != null) {
+            ClientPlayerPositionAndRotationPacket merged = new ClientPlayerPositionAndRotationPacket();
+            if (positionSource instanceof ClientPlayerPositionPacket position) {
+                merged.x = position.x;
+                merged.y = position.y;
+                merged.z = position.z;
+            } else if (positionSource instanceof ClientPlayerPositionAndRotationPacket position) {
+                merged.x = position.x;
+                merged.y = position.y;
+                merged.z = position.z;
+            }
+            if (rotationSource instanceof ClientPlayerRotationPacket rotation) {
+                merged.yaw = rotation.yaw;
+                merged.pitch = rotation.pitch;
+            } else if (rotationSource instanceof ClientPlayerPositionAndRotationPacket rotation) {
+                merged.yaw = rotation.yaw;
+                merged.pitch = rotation.pitch;
+            }
+            merged.onGround = onGround;
+            return merged;
+        } else if (positionSource instanceof ClientPlayerPositionPacket position) {
+            ClientPlayerPositionPacket merged = new ClientPlayerPositionPacket();
+            merged.x = position.x;
+            merged.y = position.y;
+            merged.z = position.z;
+            merged.onGround = onGround;
+            return merged;
+        } else if (rotationSource instanceof ClientPlayerRotationPacket rotation) {
+            ClientPlayerRotationPacket merged = new ClientPlayerRotationPacket();
+            merged.yaw = rotation.yaw;
+            merged.pitch = rotation.pitch;
+            merged.onGround = onGround;
+            return merged;
+        }
+        return next;
+    }
+
+    private static boolean hasPosition(ClientPlayPacket packet) {
+        return packet instanceof ClientPlayerPositionPacket || packet instanceof ClientPlayerPositionAndRotationPacket;
+    }
+
+    private static boolean hasRotation(ClientPlayPacket packet) {
+        return packet instanceof ClientPlayerRotationPacket || packet instanceof ClientPlayerPositionAndRotationPacket;
+    }
+
+    private static boolean onGround(ClientPlayPacket packet) {
+        if (packet instanceof ClientPlayerPositionAndRotationPacket movement) return movement.onGround;
+        if (packet instanceof ClientPlayerPositionPacket movement) return movement.onGround;
+        if (packet instanceof ClientPlayerRotationPacket movement) return movement.onGround;
+        return ((ClientPlayerPacket) packet).onGround;
+    }
+}
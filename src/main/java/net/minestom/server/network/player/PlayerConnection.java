@@ -36,6 +36,7 @@ public abstract class PlayerConnection {
     private final AtomicInteger packetCounter = new AtomicInteger(0);
     private final AtomicInteger lastPacketCounter = new AtomicInteger(0);
     private short tickCounter = 0;
+    private volatile boolean packetOverflow;
 
     public PlayerConnection() {
         this.online = true;
@@ -46,6 +47,12 @@ public abstract class PlayerConnection {
      * Updates values related to the network connection.
      */
     public void update() {
+        if (packetOverflow) {
+            // Packet queue filled faster than it is processed
+            player.kick(rateLimitKickMessage);
+            disconnect();
+            return;
+        }
         // Check rate limit
         if (MinecraftServer.getRateLimit() > 0) {
             tickCounter++;
@@ -63,6 +70,15 @@ public abstract class PlayerConnection {
         }
     }
 
+    /**
+     * Marks the connection as having overflowed its packet queue,
+     * the player is kicked during the next {@link #update()}.
+     */
+    @ApiStatus.Internal
+    public void markPacketOverflow() {
+        this.packetOverflow = true;
+    }
+
     public @NotNull AtomicInteger getPacketCounter() {
         return packetCounter;
     }
@@ -1,6 +1,5 @@
 package net.minestom.server.network.player;
 
-import net.kyori.adventure.translation.GlobalTranslator;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.adventure.MinestomAdventure;
 import net.minestom.server.entity.Player;
@@ -8,14 +7,18 @@ import net.minestom.server.entity.PlayerSkin;
 import net.minestom.server.extras.mojangAuth.MojangCrypt;
 import net.minestom.server.network.ConnectionState;
 import net.minestom.server.network.PacketProcessor;
+import net.minestom.server.network.SlowClientPolicy;
 import net.minestom.server.network.packet.FramedPacket;
 import net.minestom.server.network.packet.server.ComponentHoldingServerPacket;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.login.SetCompressionPacket;
+import net.minestom.server.network.packet.server.play.*;
+import net.minestom.server.network.socket.Server;
 import net.minestom.server.network.socket.Worker;
 import net.minestom.server.utils.PacketUtils;
 import net.minestom.server.utils.Utils;
 import net.minestom.server.utils.binary.BinaryBuffer;
+import net.minestom.server.utils.binary.BinaryReader;
 import net.minestom.server.utils.binary.PooledBuffers;
 import net.minestom.server.utils.validate.Check;
 import org.jetbrains.annotations.ApiStatus;
@@ -31,10 +34,12 @@ import java.io.IOException;
 import java.net.SocketAddress;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
-import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SocketChannel;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
@@ -47,6 +52,10 @@ import java.util.zip.Inflater;
 @ApiStatus.Internal
 public class PlayerSocketConnection extends PlayerConnection {
     private final static Logger LOGGER = LoggerFactory.getLogger(PlayerSocketConnection.class);
+    // Packets which can be skipped when the client is not reading fast enough, none of them is relative to a previous one
+    private final static Set<Class<? extends ServerPacket>> DROPPABLE_PACKETS = Set.of(
+            ParticlePacket.class, SoundEffectPacket.class, NamedSoundEffectPacket.class, EntitySoundEffectPacket.class,
+            EntityAnimationPacket.class, BlockBreakAnimationPacket.class, TimeUpdatePacket.class);
 
     private final Worker worker;
     private final SocketChannel channel;
@@ -75,9 +84,15 @@ public class PlayerSocketConnection extends PlayerConnection {
     private PlayerSkin bungeeSkin;
 
     private final Object bufferLock = new Object();
-    private final Object flushLock = new Object();
-    private final List<BinaryBuffer> waitingBuffers = new ArrayList<>();
-    private final AtomicReference<BinaryBuffer> tickBuffer = new AtomicReference<>(PooledBuffers.get());
+    // Buffers ready to be written to the socket, only consumed by the worker
+    private final Queue<WaitingBuffer> waitingBuffers = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<BinaryBuffer> tickBuffer = new AtomicReference<>(PooledBuffers.get(0));
+    // Tick buffer offset up to which data has been queued
+    private int flushedOffset;
+    // Bytes written to the connection but not yet to the socket
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicBoolean closing = new AtomicBoolean();
     private volatile BinaryBuffer cacheBuffer;
 
     public PlayerSocketConnection(@NotNull Worker worker, @NotNull SocketChannel channel, SocketAddress remoteAddress) {
@@ -86,7 +101,6 @@ public class PlayerSocketConnection extends PlayerConnection {
         this.channel = channel;
         this.remoteAddress = remoteAddress;
         PooledBuffers.registerBuffer(this, tickBuffer);
-        PooledBuffers.registerBuffers(this, waitingBuffers);
     }
 
     public void processPackets(Worker.Context workerContext, PacketProcessor packetProcessor) {
@@ -136,7 +150,9 @@ public class PlayerSocketConnection extends PlayerConnection {
                 ByteBuffer payload = content.asByteBuffer(content.readerOffset(), decompressedSize);
                 final int packetId = Utils.readVarInt(payload);
                 try {
-                    packetProcessor.process(this, packetId, payload);
+                    final BinaryReader reader = workerContext.reader;
+                    reader.reset(payload);
+                    packetProcessor.process(this, packetId, reader);
                 } catch (Exception e) {
                     // Error while reading the packet
                     MinecraftServer.getExceptionManager().handleException(e);
@@ -201,7 +217,7 @@ public class PlayerSocketConnection extends PlayerConnection {
     /**
      * Writes a packet to the connection channel.
      * <p>
-     * All packets are flushed during {@link net.minestom.server.entity.Player#update(long)}.
+     * All packets are flushed at the end of the server tick.
      *
      * @param serverPacket the packet to write
      */
@@ -213,8 +229,9 @@ public class PlayerSocketConnection extends PlayerConnection {
             if (player != null) {
                 // Flush happen during #update()
                 if ((MinestomAdventure.AUTOMATIC_COMPONENT_TRANSLATION && !skipTranslating) && serverPacket instanceof ComponentHoldingServerPacket) {
+                    final Locale locale = player.getLocale();
                     serverPacket = ((ComponentHoldingServerPacket) serverPacket).copyWithOperator(component ->
-                            GlobalTranslator.render(component, Objects.requireNonNullElseGet(player.getLocale(), MinestomAdventure::getDefaultLocale)));
+                            MinestomAdventure.translate(component, locale));
                 }
                 writePacket(serverPacket);
             } else {
@@ -224,45 +241,160 @@ public class PlayerSocketConnection extends PlayerConnection {
         }
     }
 
+    /**
+     * Writes a framed packet to the connection.
+     * <p>
+     * Bodies of at least {@link Server#SHARED_BUFFER_THRESHOLD} bytes are queued by reference
+     * and written directly from the shared buffer, unless the connection is encrypted.
+     *
+     * @param framedPacket the packet to write
+     */
     @Override
     public void sendPacket(@NotNull FramedPacket framedPacket) {
-        write(framedPacket.body());
+        if (!checkPendingBytes(framedPacket.packet())) return;
+        writeFramed(framedPacket.body());
     }
 
+    /**
+     * Writes an encoded packet whose object is not kept, the same way as {@link #sendPacket(FramedPacket)}.
+     * <p>
+     * Packet listeners are not called, the caller is responsible for it.
+     *
+     * @param body the framed packet bytes from position 0, never modified afterward
+     */
     @ApiStatus.Internal
-    public void write(@NotNull ByteBuffer buffer) {
+    public void sendFramedBody(@NotNull ByteBuffer body) {
+        if (!checkPendingBytes(null)) return;
+        writeFramed(body.duplicate());
+    }
+
+    private void writeFramed(@NotNull ByteBuffer body) {
+        final int size = body.remaining();
+        if (encrypted || size < Server.SHARED_BUFFER_THRESHOLD) {
+            writeBuffer(body);
+            return;
+        }
         synchronized (bufferLock) {
-            if (encrypted) { // Encryption support
-                ByteBuffer output = PacketUtils.localBuffer();
-                try {
-                    this.encryptCipher.update(buffer.duplicate(), output);
-                    buffer = output.flip();
-                } catch (ShortBufferException e) {
-                    MinecraftServer.getExceptionManager().handleException(e);
-                    return;
-                }
-            }
+            // Keep the packets order
+            enqueueTickBuffer();
+            this.waitingBuffers.add(new WaitingBuffer(body.duplicate(), null));
+            this.pendingBytes.addAndGet(size);
+        }
+    }
 
+    /**
+     * Writes already framed packets to the connection.
+     * <p>
+     * The content is unknown, it is never dropped by the slow client policy.
+     * See {@link #isDroppingPackets()} to skip non-critical packets beforehand.
+     *
+     * @param buffer the framed packets
+     */
+    @ApiStatus.Internal
+    public void write(@NotNull ByteBuffer buffer) {
+        if (!checkPendingBytes(null)) return;
+        writeBuffer(buffer);
+    }
+
+    /**
+     * Gets the number of bytes written to this connection which have not been sent yet.
+     *
+     * @return the pending bytes
+     */
+    public long getPendingBytes() {
+        return pendingBytes.get();
+    }
+
+    /**
+     * Gets if non-critical packets written to this connection are currently dropped.
+     * <p>
+     * Used by batched writes, which cannot be checked packet by packet once serialized.
+     *
+     * @return true if the packets matching {@link #isDroppable(ServerPacket)} should not be written
+     */
+    @ApiStatus.Internal
+    public boolean isDroppingPackets() {
+        final long maxPending = MinecraftServer.getMaxPendingBytes();
+        final long pending = pendingBytes.get();
+        return pending > maxPending && pending <= maxPending * 4 &&
+                MinecraftServer.getSlowClientPolicy() == SlowClientPolicy.DROP_NON_CRITICAL;
+    }
+
+    /**
+     * Gets if a packet can be lost without desynchronizing the client.
+     *
+     * @param packet the packet to check
+     * @return true if the packet can be dropped for a slow client
+     */
+    @ApiStatus.Internal
+    public static boolean isDroppable(@NotNull ServerPacket packet) {
+        return DROPPABLE_PACKETS.contains(packet.getClass());
+    }
+
+    /**
+     * Applies {@link MinecraftServer#getSlowClientPolicy()} if the pending bytes exceed the limit.
+     *
+     * @param packet the packet about to be written, null if unknown
+     * @return true if the packet should be written
+     */
+    private boolean checkPendingBytes(@Nullable ServerPacket packet) {
+        final long pending = pendingBytes.get();
+        final long maxPending = MinecraftServer.getMaxPendingBytes();
+        if (pending <= maxPending) return true;
+        if (MinecraftServer.getSlowClientPolicy() == SlowClientPolicy.DROP_NON_CRITICAL && pending <= maxPending * 4) {
+            return packet == null || !isDroppable(packet);
+        }
+        if (!closing.get()) {
+            LOGGER.warn("Disconnecting {}, {} bytes waiting to be sent", getIdentifier(), pending);
+            disconnect();
+        }
+        return false;
+    }
+
+    private void writeBuffer(@NotNull ByteBuffer buffer) {
+        synchronized (bufferLock) {
             BinaryBuffer localBuffer = tickBuffer.getPlain();
-            final int capacity = localBuffer.capacity();
             final int size = buffer.remaining();
-            if (size <= capacity) {
-                if (!localBuffer.canWrite(size)) localBuffer = updateLocalBuffer();
-                localBuffer.write(buffer);
+            if (localBuffer.canWrite(size)) {
+                writeToBuffer(localBuffer, buffer);
             } else {
-                final int bufferCount = size / capacity + 1;
-                for (int i = 0; i < bufferCount; i++) {
-                    buffer.position(i * capacity);
-                    buffer.limit(Math.min(size, buffer.position() + capacity));
-                    if (!localBuffer.canWrite(buffer.remaining())) localBuffer = updateLocalBuffer();
-                    localBuffer.write(buffer);
+                // Fill the current buffer and continue in new ones
+                int position = buffer.position();
+                final int limit = buffer.limit();
+                while (position < limit) {
+                    final int length = Math.min(limit - position, localBuffer.capacity() - localBuffer.writerOffset() - 1);
+                    if (length <= 0) {
+                        localBuffer = updateLocalBuffer(limit - position);
+                        if (localBuffer == null) return;
+                        continue;
+                    }
+                    writeToBuffer(localBuffer, buffer.slice(position, length));
+                    position += length;
                 }
             }
+            this.pendingBytes.addAndGet(size);
+        }
+    }
+
+    /**
+     * Copies {@code buffer} into {@code target}, the copied bytes are then encrypted in place if needed.
+     */
+    private void writeToBuffer(@NotNull BinaryBuffer target, @NotNull ByteBuffer buffer) {
+        final int start = target.writerOffset();
+        target.write(buffer);
+        if (encrypted) { // Encryption support
+            ByteBuffer written = target.asByteBuffer(start, target.writerOffset() - start);
+            try {
+                this.encryptCipher.update(written, written.duplicate());
+            } catch (ShortBufferException e) {
+                MinecraftServer.getExceptionManager().handleException(e);
+            }
         }
     }
 
     private void writePacket(@NotNull ServerPacket packet) {
-        write(PacketUtils.createFramedPacket(packet, compressed));
+        if (!checkPendingBytes(packet)) return;
+        writeBuffer(PacketUtils.createFramedPacket(packet, compressed));
     }
 
     public void writeAndFlush(@NotNull ServerPacket packet) {
@@ -272,45 +404,114 @@ public class PlayerSocketConnection extends PlayerConnection {
         }
     }
 
+    /**
+     * Hands the data written since the last flush over to the {@link Worker},
+     * which writes it as soon as the socket can accept more.
+     */
     @Override
     public void flush() {
-        try {
-            synchronized (bufferLock) {
-                try {
-                    updateLocalBuffer();
-                } catch (OutOfMemoryError e) {
-                    this.waitingBuffers.clear();
-                    System.gc(); // Explicit gc forcing buffers to be collected
-                    throw new ClosedChannelException();
-                }
+        synchronized (bufferLock) {
+            enqueueTickBuffer();
+        }
+        if (!waitingBuffers.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+            this.worker.flush(this);
+        }
+    }
+
+    /**
+     * Writes as much waiting data as possible to the socket,
+     * gathering multiple buffers in a single write.
+     * <p>
+     * Should only be called by the connection {@link Worker}.
+     *
+     * @param workerContext the context of the worker
+     * @return true if all the waiting data has been written, false if the socket is full
+     * @throws IOException if the socket cannot be written to
+     */
+    @ApiStatus.Internal
+    public boolean writeWaitingBuffers(Worker.Context workerContext) throws IOException {
+        // Reset before writing so that a concurrent flush is never missed
+        this.flushScheduled.set(false);
+        final ByteBuffer[] gatherBuffers = workerContext.gatherBuffers;
+        while (true) {
+            int count = 0;
+            for (WaitingBuffer waitingBuffer : waitingBuffers) {
+                if (count == gatherBuffers.length) break;
+                gatherBuffers[count++] = waitingBuffer.view();
             }
-            synchronized (flushLock) {
-                try {
-                    // Write as much as possible from the waiting list
-                    Iterator<BinaryBuffer> iterator = waitingBuffers.iterator();
-                    while (iterator.hasNext()) {
-                        BinaryBuffer waitingBuffer = iterator.next();
-                        if (!waitingBuffer.writeChannel(channel)) break;
-                        iterator.remove();
-                        PooledBuffers.add(waitingBuffer);
-                    }
-                } catch (IOException e) { // Couldn't write to the socket
-                    MinecraftServer.getExceptionManager().handleException(e);
-                    throw new ClosedChannelException();
-                }
+            if (count == 0) return true;
+            final long written = channel.write(gatherBuffers, 0, count);
+            this.pendingBytes.addAndGet(-written);
+            final boolean full = gatherBuffers[count - 1].hasRemaining();
+            Arrays.fill(gatherBuffers, 0, count, null);
+            // Release the written buffers
+            WaitingBuffer waitingBuffer;
+            while ((waitingBuffer = waitingBuffers.peek()) != null && !waitingBuffer.view().hasRemaining()) {
+                this.waitingBuffers.poll();
+                final BinaryBuffer pooled = waitingBuffer.release();
+                if (pooled != null) PooledBuffers.add(pooled);
             }
-        } catch (ClosedChannelException e) {
-            disconnect();
+            if (full) return false;
+        }
+    }
+
+    /**
+     * Allows the connection to be scheduled for flushing again, used when the worker could not write it.
+     * <p>
+     * Should only be called by the connection {@link Worker}.
+     */
+    @ApiStatus.Internal
+    public void cancelFlush() {
+        this.flushScheduled.set(false);
+    }
+
+    /**
+     * Returns the waiting buffers to the pool once the channel has been closed.
+     * <p>
+     * Should only be called by the connection {@link Worker}.
+     */
+    @ApiStatus.Internal
+    public void releaseWaitingBuffers() {
+        WaitingBuffer waitingBuffer;
+        while ((waitingBuffer = waitingBuffers.poll()) != null) {
+            final BinaryBuffer pooled = waitingBuffer.release();
+            if (pooled != null) PooledBuffers.add(pooled);
         }
     }
 
-    private BinaryBuffer updateLocalBuffer() {
-        synchronized (flushLock) {
-            BinaryBuffer newBuffer = PooledBuffers.get();
-            this.waitingBuffers.add(tickBuffer.getPlain());
-            this.tickBuffer.setPlain(newBuffer);
-            return newBuffer;
+    /**
+     * Queues the data written in the tick buffer since the last call.
+     * <p>
+     * The tick buffer keeps being used until full, the worker only reads the queued region.
+     */
+    private void enqueueTickBuffer() {
+        final BinaryBuffer buffer = tickBuffer.getPlain();
+        final int end = buffer.writerOffset();
+        if (end == flushedOffset) return;
+        this.waitingBuffers.add(new WaitingBuffer(buffer.asByteBuffer(flushedOffset, end - flushedOffset), null));
+        this.flushedOffset = end;
+    }
+
+    /**
+     * Retires the full tick buffer and replaces it with a new one.
+     *
+     * @param size the size of the data to write, used to select the size class of the new buffer
+     * @return the new tick buffer, null if the pool memory limit is reached
+     */
+    private @Nullable BinaryBuffer updateLocalBuffer(int size) {
+        final BinaryBuffer previous = tickBuffer.getPlain();
+        BinaryBuffer newBuffer = PooledBuffers.tryGet(Math.max(size, previous.capacity()));
+        if (newBuffer == null) {
+            LOGGER.warn("Disconnecting {}, pooled buffers memory limit reached", getIdentifier());
+            disconnect();
+            return null;
         }
+        final int end = previous.writerOffset();
+        // Last region of the buffer, return it to the pool once written
+        this.waitingBuffers.add(new WaitingBuffer(previous.asByteBuffer(flushedOffset, end - flushedOffset), previous));
+        this.tickBuffer.setPlain(newBuffer);
+        this.flushedOffset = 0;
+        return newBuffer;
     }
 
     @Override
@@ -332,7 +533,20 @@ public class PlayerSocketConnection extends PlayerConnection {
 
     @Override
     public void disconnect() {
-        this.worker.disconnect(this, channel);
+        if (closing.compareAndSet(false, true)) {
+            this.worker.disconnect(this, channel);
+        }
+    }
+
+    /**
+     * Gets if {@link #disconnect()} has been called, the channel is closed
+     * once the waiting data has been written.
+     *
+     * @return true if the connection is closing
+     */
+    @ApiStatus.Internal
+    public boolean isClosing() {
+        return closing.get();
     }
 
     public @NotNull SocketChannel getChannel() {
@@ -467,4 +681,13 @@ public class PlayerSocketConnection extends PlayerConnection {
     public void setNonce(byte[] nonce) {
         this.nonce = nonce;
     }
+
+    /**
+     * Region of a buffer waiting to be written.
+     *
+     * @param view    the remaining bytes to write, its position is updated by the socket writes
+     * @param release the pooled buffer to release once the view has been written, null otherwise
+     */
+    private record WaitingBuffer(ByteBuffer view, BinaryBuffer release) {
+    }
 }
@@ -23,6 +23,11 @@ public final class Server {
 
     public static final boolean NO_DELAY = true;
 
+    // Framed packets at least this large are written from their shared buffer instead of being copied per connection
+    public static final int SHARED_BUFFER_THRESHOLD = Integer.getInteger("minestom.shared-buffer-threshold", 8_192);
+    // Maximum number of buffers written in a single gathering write
+    public static final int GATHER_BUFFER_COUNT = 32;
+
     private volatile boolean stop;
 
     private final Selector selector = Selector.open();
@@ -68,7 +73,13 @@ public final class Server {
                             // Register socket and forward to thread
                             Worker worker = findWorker();
                             final SocketChannel client = serverSocket.accept();
-                            worker.receiveConnection(client);
+                            try {
+                                worker.receiveConnection(client);
+                            } catch (OutOfMemoryError e) {
+                                // Pooled buffers limit reached, refuse the connection
+                                client.close();
+                                MinecraftServer.getExceptionManager().handleException(e);
+                            }
                         } catch (IOException e) {
                             e.printStackTrace();
                         }
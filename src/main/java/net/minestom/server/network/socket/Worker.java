@@ -7,25 +7,35 @@ import net.minestom.server.network.PacketProcessor;
 import net.minestom.server.network.player.PlayerSocketConnection;
 import net.minestom.server.thread.MinestomThread;
 import net.minestom.server.utils.binary.BinaryBuffer;
+import net.minestom.server.utils.binary.BinaryReader;
 import org.jetbrains.annotations.ApiStatus;
 
 import java.io.IOException;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.SocketChannel;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.Inflater;
 
 @ApiStatus.Internal
 public final class Worker extends MinestomThread {
     private static final AtomicInteger COUNTER = new AtomicInteger();
+    // Maximum time given to a closing connection to write its remaining data
+    private static final long CLOSE_TIMEOUT = Long.getLong("minestom.connection-close-timeout", 5_000);
 
     final Selector selector = Selector.open();
     private final Context context = new Context();
     private final Map<SocketChannel, PlayerSocketConnection> connectionMap = new ConcurrentHashMap<>();
+    private final Queue<PlayerSocketConnection> flushQueue = new ConcurrentLinkedQueue<>();
+    // Closing connections waiting for the socket to accept their remaining data -> close deadline
+    private final Map<PlayerSocketConnection, Long> closingConnections = new HashMap<>();
     private final Server server;
     private final PacketProcessor packetProcessor;
 
@@ -42,8 +52,13 @@ public final class Worker extends MinestomThread {
                 this.selector.select(key -> {
                     final SocketChannel channel = (SocketChannel) key.channel();
                     if (!channel.isOpen()) return;
-                    if (!key.isReadable()) return;
                     PlayerSocketConnection connection = connectionMap.get(channel);
+                    if (connection == null) return;
+                    if (key.isWritable()) {
+                        write(connection, key);
+                        if (!key.isValid()) return;
+                    }
+                    if (!key.isReadable()) return;
                     try {
                         BinaryBuffer readBuffer = context.readBuffer.clear();
                         // Consume last incomplete packet
@@ -58,23 +73,96 @@ public final class Worker extends MinestomThread {
                         MinecraftServer.getExceptionManager().handleException(e);
                         connection.disconnect();
                     }
-                });
+                }, 1000);
+                // Write connections flushed since the last selection
+                PlayerSocketConnection connection;
+                while ((connection = flushQueue.poll()) != null) {
+                    final SelectionKey key = connection.getChannel().keyFor(selector);
+                    if (key != null && key.isValid()) {
+                        write(connection, key);
+                    } else if (connection.isClosing()) {
+                        this.closingConnections.remove(connection);
+                        close(connection, connection.getChannel());
+                    } else {
+                        // Not registered, allow the connection to be flushed again
+                        connection.cancelFlush();
+                    }
+                }
+                closeTimedOut();
             } catch (Exception e) {
                 MinecraftServer.getExceptionManager().handleException(e);
             }
         }
     }
 
+    /**
+     * Schedules {@code connection} to have its waiting buffers written by this worker.
+     *
+     * @param connection the connection to flush
+     */
+    public void flush(PlayerSocketConnection connection) {
+        this.flushQueue.add(connection);
+        this.selector.wakeup();
+    }
+
     public void disconnect(PlayerSocketConnection connection, SocketChannel channel) {
+        MinecraftServer.getConnectionManager().removePlayer(connection);
+        connection.refreshOnline(false);
+        Player player = connection.getPlayer();
+        if (player != null && !player.isRemoved()) {
+            player.scheduleNextTick(Entity::remove);
+        }
+        // The channel is closed by the worker once the remaining data has been written
+        flush(connection);
+    }
+
+    private void write(PlayerSocketConnection connection, SelectionKey key) {
+        final SocketChannel channel = connection.getChannel();
+        try {
+            final boolean written = connection.writeWaitingBuffers(context);
+            if (connection.isClosing()) {
+                if (written) {
+                    this.closingConnections.remove(connection);
+                    close(connection, channel);
+                } else {
+                    // Wait for the socket to accept the remaining data (kick message, etc...)
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    this.closingConnections.putIfAbsent(connection, System.currentTimeMillis() + CLOSE_TIMEOUT);
+                }
+            } else {
+                // Wait for the socket to accept more data if needed
+                key.interestOps(written ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            }
+        } catch (IOException e) {
+            // Couldn't write to the socket
+            if (connection.isClosing()) {
+                this.closingConnections.remove(connection);
+                close(connection, channel);
+            } else {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Closes the connections which did not manage to write their remaining data in time.
+     */
+    private void closeTimedOut() {
+        if (closingConnections.isEmpty()) return;
+        final long time = System.currentTimeMillis();
+        this.closingConnections.entrySet().removeIf(entry -> {
+            if (time < entry.getValue()) return false;
+            final PlayerSocketConnection connection = entry.getKey();
+            close(connection, connection.getChannel());
+            return true;
+        });
+    }
+
+    private void close(PlayerSocketConnection connection, SocketChannel channel) {
         try {
             channel.close();
             this.connectionMap.remove(channel);
-            MinecraftServer.getConnectionManager().removePlayer(connection);
-            connection.refreshOnline(false);
-            Player player = connection.getPlayer();
-            if (player != null && !player.isRemoved()) {
-                player.scheduleNextTick(Entity::remove);
-            }
+            connection.releaseWaitingBuffers();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -99,5 +187,7 @@ public final class Worker extends MinestomThread {
         public final BinaryBuffer readBuffer = BinaryBuffer.ofSize(Server.MAX_PACKET_SIZE);
         public final BinaryBuffer contentBuffer = BinaryBuffer.ofSize(Server.MAX_PACKET_SIZE);
         public final Inflater inflater = new Inflater();
+        public final BinaryReader reader = new BinaryReader(ByteBuffer.allocate(0));
+        public final ByteBuffer[] gatherBuffers = new ByteBuffer[Server.GATHER_BUFFER_COUNT];
     }
 }
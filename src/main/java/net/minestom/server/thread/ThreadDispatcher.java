@@ -5,22 +5,36 @@ import net.minestom.server.entity.Entity;
 import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.utils.MathUtils;
+import net.minestom.server.utils.validate.Check;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.UnmodifiableView;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Phaser;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Used to link chunks into multiple groups.
  * Then executed into a thread pool.
+ * <p>
+ * Chunks sharing the same {@link ThreadProvider#findThread(Chunk)} value are part of the same {@link ChunkGroup},
+ * a group is always ticked entirely by a single {@link TickThread}.
  */
 public final class ThreadDispatcher {
+    // Imbalance ratio between the most and least loaded threads before moving groups
+    private static final double BALANCE_TOLERANCE = 0.1;
+    // Minimum imbalance worth moving groups, in nanoseconds
+    private static final long BALANCE_MINIMUM_IMBALANCE = 500_000;
+
     private final ThreadProvider provider;
     private final List<TickThread> threads;
+    private final boolean workStealing;
 
     // Chunk -> ChunkEntry mapping
     private final Map<Chunk, ChunkEntry> chunkEntryMap = new HashMap<>();
+    // Group identifier -> ChunkGroup mapping
+    private final Map<Integer, ChunkGroup> groupMap = new HashMap<>();
     // Queue to update chunks linked thread
     private final ArrayDeque<Chunk> chunkUpdateQueue = new ArrayDeque<>();
 
@@ -32,18 +46,35 @@ public final class ThreadDispatcher {
 
     private final Phaser phaser = new Phaser(1);
 
-    private ThreadDispatcher(ThreadProvider provider, int threadCount) {
+    private ThreadDispatcher(ThreadProvider provider, int threadCount, boolean workStealing) {
+        Check.argCondition(threadCount < 1, "The thread count must be positive");
         this.provider = provider;
+        this.workStealing = workStealing && threadCount > 1;
         this.threads = new ArrayList<>(threadCount);
         for (int i = 0; i < threadCount; i++) {
-            final TickThread tickThread = new TickThread(phaser, i);
+            final TickThread tickThread = new TickThread(this, phaser, i);
             this.threads.add(tickThread);
             tickThread.start();
         }
     }
 
     public static @NotNull ThreadDispatcher of(@NotNull ThreadProvider provider, int threadCount) {
-        return new ThreadDispatcher(provider, threadCount);
+        return new ThreadDispatcher(provider, threadCount, false);
+    }
+
+    /**
+     * Creates a dispatcher where a {@link TickThread} done with its own groups
+     * takes whole {@link ChunkGroup groups} from slower threads.
+     * <p>
+     * Stolen groups stay linked to their new thread until {@link ThreadProvider#findThread(Chunk)}
+     * returns a different group for their chunks.
+     *
+     * @param provider    the provider used to group chunks
+     * @param threadCount the number of tick threads
+     * @return a new work-stealing dispatcher
+     */
+    public static @NotNull ThreadDispatcher workStealing(@NotNull ThreadProvider provider, int threadCount) {
+        return new ThreadDispatcher(provider, threadCount, true);
     }
 
     public static @NotNull ThreadDispatcher singleThread() {
@@ -79,6 +110,24 @@ public final class ThreadDispatcher {
         return (int) (MinecraftServer.TICK_MS * 0.3);
     }
 
+    /**
+     * Gets if idle threads are allowed to take groups from slower ones.
+     *
+     * @return true if work stealing is enabled
+     */
+    public boolean isWorkStealing() {
+        return workStealing;
+    }
+
+    /**
+     * Gets the threads used to tick chunks and entities.
+     *
+     * @return an unmodifiable view of the tick threads
+     */
+    public @UnmodifiableView @NotNull List<@NotNull TickThread> getThreads() {
+        return Collections.unmodifiableList(threads);
+    }
+
     /**
      * Prepares the update by creating the {@link TickThread} tasks.
      *
@@ -99,24 +148,43 @@ public final class ThreadDispatcher {
      *                 used to ensure that the refresh does not take more time than the tick itself
      */
     public void refreshThreads(long tickTime) {
+        processStolenGroups();
         processLoadedChunks();
         processUnloadedChunks();
         processUpdatedEntities();
         processRemovedEntities();
-        if (provider.getChunkRefreshType() == ThreadProvider.RefreshType.NEVER)
+        final boolean costAware = provider.isCostAware();
+        final ThreadProvider.RefreshType refreshType = provider.getChunkRefreshType();
+        if (refreshType == ThreadProvider.RefreshType.NEVER && !costAware)
             return;
 
         final int timeOffset = MathUtils.clamp((int) ((double) tickTime * getRefreshPercentage()),
                 getMinimumRefreshTime(), getMaximumRefreshTime());
         final long endTime = System.currentTimeMillis() + timeOffset;
+        if (costAware) balanceGroups(endTime);
+        if (refreshType == ThreadProvider.RefreshType.NEVER)
+            return;
+
         final int size = chunkUpdateQueue.size();
         int counter = 0;
         while (true) {
             final Chunk chunk = chunkUpdateQueue.pollFirst();
             if (chunk == null) break;
-            // Update chunk's thread
+            // Update chunk's group
             ChunkEntry chunkEntry = chunkEntryMap.get(chunk);
-            if (chunkEntry != null) chunkEntry.thread = retrieveThread(chunk);
+            if (chunkEntry != null) {
+                final int groupId = provider.findThread(chunk);
+                if (groupId != chunkEntry.group.id) {
+                    final ReentrantLock lock = chunkEntry.thread().lock();
+                    lock.lock();
+                    try {
+                        removeFromGroup(chunkEntry);
+                        addToGroup(chunkEntry, groupId);
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
             this.chunkUpdateQueue.addLast(chunk);
             if (++counter > size || System.currentTimeMillis() >= endTime)
                 break;
@@ -156,17 +224,122 @@ public final class ThreadDispatcher {
         this.entityRemovalRequests.add(entity);
     }
 
-    private TickThread retrieveThread(Chunk chunk) {
-        final int threadId = Math.abs(provider.findThread(chunk)) % threads.size();
+    /**
+     * Finds the thread of the next group to steal for {@code thief}.
+     *
+     * @param thief the thread looking for more work
+     * @return the thread with the most remaining groups, null if none
+     */
+    TickThread findVictim(TickThread thief) {
+        TickThread victim = null;
+        int remaining = 0;
+        for (TickThread thread : threads) {
+            if (thread == thief) continue;
+            final int threadRemaining = thread.remainingGroups();
+            if (threadRemaining > remaining) {
+                victim = thread;
+                remaining = threadRemaining;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * Moves groups from the most loaded thread to the least loaded one
+     * until the imbalance is within {@link #BALANCE_TOLERANCE} or the refresh time is elapsed.
+     *
+     * @param endTime the time in milliseconds at which the balancing must stop
+     */
+    private void balanceGroups(long endTime) {
+        final int threadCount = threads.size();
+        if (threadCount < 2) return;
+        long[] loads = new long[threadCount];
+        for (ChunkGroup group : groupMap.values()) {
+            group.refreshCost();
+            loads[group.thread.index] += group.cost;
+        }
+        while (System.currentTimeMillis() < endTime) {
+            int max = 0, min = 0;
+            for (int i = 1; i < threadCount; i++) {
+                if (loads[i] > loads[max]) max = i;
+                if (loads[i] < loads[min]) min = i;
+            }
+            final long imbalance = loads[max] - loads[min];
+            if (imbalance < BALANCE_MINIMUM_IMBALANCE || imbalance <= loads[max] * BALANCE_TOLERANCE)
+                break;
+            // Biggest group which does not reverse the imbalance
+            ChunkGroup candidate = null;
+            for (ChunkGroup group : threads.get(max).groups()) {
+                final long cost = group.cost;
+                if (cost > 0 && cost <= imbalance / 2 && (candidate == null || cost > candidate.cost)) {
+                    candidate = group;
+                }
+            }
+            if (candidate == null) break;
+            moveGroup(candidate, threads.get(min));
+            loads[max] -= candidate.cost;
+            loads[min] += candidate.cost;
+        }
+    }
+
+    private void moveGroup(ChunkGroup group, TickThread target) {
+        final TickThread previous = group.thread;
+        // Prevent acquisition from using the previous thread while the group moves
+        final ReentrantLock lock = previous.lock();
+        lock.lock();
+        try {
+            previous.removeGroup(group);
+            group.thread = target;
+            target.addGroup(group);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private TickThread retrieveThread(int groupId) {
+        final int threadId = Math.abs(groupId % threads.size());
         return threads.get(threadId);
     }
 
+    private void addToGroup(ChunkEntry chunkEntry, int groupId) {
+        ChunkGroup group = groupMap.get(groupId);
+        if (group == null) {
+            final TickThread thread = retrieveThread(groupId);
+            group = new ChunkGroup(groupId, thread);
+            this.groupMap.put(groupId, group);
+            thread.addGroup(group);
+        }
+        group.entries.add(chunkEntry);
+        chunkEntry.group = group;
+    }
+
+    private void removeFromGroup(ChunkEntry chunkEntry) {
+        final ChunkGroup group = chunkEntry.group;
+        group.entries.remove(chunkEntry);
+        if (group.entries.isEmpty()) {
+            this.groupMap.remove(group.id);
+            group.thread.removeGroup(group);
+        }
+    }
+
+    private void processStolenGroups() {
+        if (!workStealing) return;
+        for (TickThread thread : threads) {
+            thread.drainStolenGroups(group -> {
+                // The group thread has already been updated during the tick
+                for (TickThread previous : threads) {
+                    if (previous != thread && previous.removeGroup(group)) break;
+                }
+                thread.addGroup(group);
+            });
+        }
+    }
+
     private void processLoadedChunks() {
         Chunk chunk;
         while ((chunk = chunkLoadRequests.poll()) != null) {
-            final TickThread thread = retrieveThread(chunk);
-            final ChunkEntry chunkEntry = new ChunkEntry(thread, chunk);
-            thread.entries().add(chunkEntry);
+            final ChunkEntry chunkEntry = new ChunkEntry(chunk);
+            addToGroup(chunkEntry, provider.findThread(chunk));
             this.chunkEntryMap.put(chunk, chunkEntry);
             this.chunkUpdateQueue.add(chunk);
         }
@@ -177,8 +350,7 @@ public final class ThreadDispatcher {
         while ((chunk = chunkUnloadRequests.poll()) != null) {
             final ChunkEntry chunkEntry = chunkEntryMap.remove(chunk);
             if (chunkEntry != null) {
-                TickThread thread = chunkEntry.thread;
-                thread.entries().remove(chunkEntry);
+                removeFromGroup(chunkEntry);
             }
             this.chunkUpdateQueue.remove(chunk);
         }
@@ -215,18 +387,68 @@ public final class ThreadDispatcher {
         }
     }
 
+    /**
+     * Represents a set of chunks which must always be ticked by the same thread.
+     */
+    public static final class ChunkGroup {
+        private final int id;
+        private final List<ChunkEntry> entries = new ArrayList<>();
+        volatile TickThread thread;
+        private long cost;
+
+        private ChunkGroup(int id, TickThread thread) {
+            this.id = id;
+            this.thread = thread;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        public @NotNull TickThread thread() {
+            return thread;
+        }
+
+        public @NotNull List<ChunkEntry> entries() {
+            return entries;
+        }
+
+        /**
+         * Gets the smoothed time spent ticking this group,
+         * only computed when the provider is {@link ThreadProvider#isCostAware() cost-aware}.
+         *
+         * @return the group tick cost in nanoseconds
+         */
+        public long cost() {
+            return cost;
+        }
+
+        private void refreshCost() {
+            long total = 0;
+            for (ChunkEntry entry : entries) {
+                total += entry.tickCost;
+            }
+            // Exponential moving average to avoid moving groups because of a single spike
+            this.cost = cost == 0 ? total : (cost * 3 + total) / 4;
+        }
+    }
+
     public static final class ChunkEntry {
-        private volatile TickThread thread;
+        private volatile ChunkGroup group;
         private final Chunk chunk;
         private final List<Entity> entities = new ArrayList<>();
+        volatile long tickCost;
 
-        private ChunkEntry(TickThread thread, Chunk chunk) {
-            this.thread = thread;
+        private ChunkEntry(Chunk chunk) {
             this.chunk = chunk;
         }
 
         public @NotNull TickThread thread() {
-            return thread;
+            return group.thread;
+        }
+
+        public @NotNull ChunkGroup group() {
+            return group;
         }
 
         public @NotNull Chunk chunk() {
@@ -237,6 +459,15 @@ public final class ThreadDispatcher {
             return entities;
         }
 
+        /**
+         * Gets the time spent ticking the chunk and its entities during the last tick.
+         *
+         * @return the last tick cost in nanoseconds
+         */
+        public long tickCost() {
+            return tickCost;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -10,6 +10,36 @@ public interface ThreadProvider {
     ThreadProvider PER_CHUNk = Object::hashCode;
     ThreadProvider PER_INSTANCE = chunk -> chunk.getInstance().hashCode();
     ThreadProvider SINGLE = chunk -> 0;
+    ThreadProvider BALANCED_INSTANCE = costAware(PER_INSTANCE);
+
+    /**
+     * Creates a provider grouping chunks like {@code provider},
+     * but where groups are moved between threads based on their measured tick cost.
+     * <p>
+     * Chunks of the same group always stay on the same thread,
+     * grouping per instance therefore prevents entity acquisition between threads.
+     *
+     * @param provider the provider used to group chunks
+     * @return a new cost-aware provider
+     */
+    static @NotNull ThreadProvider costAware(@NotNull ThreadProvider provider) {
+        return new ThreadProvider() {
+            @Override
+            public int findThread(@NotNull Chunk chunk) {
+                return provider.findThread(chunk);
+            }
+
+            @Override
+            public @NotNull RefreshType getChunkRefreshType() {
+                return provider.getChunkRefreshType();
+            }
+
+            @Override
+            public boolean isCostAware() {
+                return true;
+            }
+        };
+    }
 
     /**
      * Performs a server tick for all chunks based on their linked thread.
@@ -27,6 +57,16 @@ public interface ThreadProvider {
         return RefreshType.NEVER;
     }
 
+    /**
+     * Defines if groups should be moved between threads
+     * during {@link ThreadDispatcher#refreshThreads(long)} to balance the time spent by each thread.
+     *
+     * @return true to balance groups based on their tick cost
+     */
+    default boolean isCostAware() {
+        return false;
+    }
+
     /**
      * Defines how often chunks thread should be refreshed.
      */
@@ -12,6 +12,7 @@ import java.util.List;
 import java.util.concurrent.Phaser;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
  * Thread responsible for ticking {@link Chunk chunks} and {@link Entity entities}.
@@ -20,15 +21,28 @@ import java.util.concurrent.locks.ReentrantLock;
  */
 @ApiStatus.Internal
 public final class TickThread extends MinestomThread {
+    private static final ThreadDispatcher.ChunkGroup[] EMPTY_GROUPS = new ThreadDispatcher.ChunkGroup[0];
+
     private final ReentrantLock lock = new ReentrantLock();
+    final int index;
+    private final ThreadDispatcher dispatcher;
     private final Phaser phaser;
     private volatile boolean stop;
 
     private long tickTime;
-    private final List<ThreadDispatcher.ChunkEntry> entries = new ArrayList<>();
+    private volatile long tickDuration;
+    private final List<ThreadDispatcher.ChunkGroup> groups = new ArrayList<>();
+
+    // Groups of the current tick, claimed by this thread or stolen by others (guarded by #lock)
+    private ThreadDispatcher.ChunkGroup[] tickGroups = EMPTY_GROUPS;
+    private boolean groupsChanged;
+    private volatile int groupCursor;
+    private final List<ThreadDispatcher.ChunkGroup> stolenGroups = new ArrayList<>();
 
-    public TickThread(Phaser phaser, int number) {
+    public TickThread(ThreadDispatcher dispatcher, Phaser phaser, int number) {
         super(MinecraftServer.THREAD_NAME_TICK + "-" + number);
+        this.index = number;
+        this.dispatcher = dispatcher;
         this.phaser = phaser;
     }
 
@@ -36,6 +50,7 @@ public final class TickThread extends MinestomThread {
     public void run() {
         LockSupport.park(this);
         while (!stop) {
+            final long start = System.nanoTime();
             this.lock.lock();
             try {
                 tick();
@@ -43,6 +58,14 @@ public final class TickThread extends MinestomThread {
                 MinecraftServer.getExceptionManager().handleException(e);
             }
             this.lock.unlock();
+            if (dispatcher.isWorkStealing()) {
+                try {
+                    steal();
+                } catch (Exception e) {
+                    MinecraftServer.getExceptionManager().handleException(e);
+                }
+            }
+            this.tickDuration = System.nanoTime() - start;
             // #acquire() callbacks
             this.phaser.arriveAndDeregister();
             LockSupport.park(this);
@@ -50,7 +73,52 @@ public final class TickThread extends MinestomThread {
     }
 
     private void tick() {
-        for (ThreadDispatcher.ChunkEntry entry : entries) {
+        ThreadDispatcher.ChunkGroup group;
+        while ((group = claimGroup()) != null) {
+            tickGroup(group);
+        }
+    }
+
+    private void steal() {
+        TickThread victim;
+        while ((victim = dispatcher.findVictim(this)) != null) {
+            // Holding the victim lock ensures that no acquisition happens while the group changes thread
+            final ThreadDispatcher.ChunkGroup group;
+            victim.lock.lock();
+            try {
+                group = victim.claimGroup();
+                if (group != null) group.thread = this;
+            } finally {
+                victim.lock.unlock();
+            }
+            if (group == null) continue;
+            this.stolenGroups.add(group);
+            this.lock.lock();
+            try {
+                tickGroup(group);
+            } catch (Exception e) {
+                MinecraftServer.getExceptionManager().handleException(e);
+            }
+            this.lock.unlock();
+        }
+    }
+
+    private ThreadDispatcher.ChunkGroup claimGroup() {
+        final int cursor = groupCursor;
+        final ThreadDispatcher.ChunkGroup[] groups = tickGroups;
+        if (cursor >= groups.length) return null;
+        this.groupCursor = cursor + 1;
+        return groups[cursor];
+    }
+
+    private void tickGroup(ThreadDispatcher.ChunkGroup group) {
+        for (ThreadDispatcher.ChunkEntry entry : group.entries()) {
+            if (lock.hasQueuedThreads()) {
+                this.lock.unlock();
+                // #acquire() callbacks should be called here
+                this.lock.lock();
+            }
+            final long start = System.nanoTime();
             final Chunk chunk = entry.chunk();
             try {
                 chunk.tick(tickTime);
@@ -72,22 +140,73 @@ public final class TickThread extends MinestomThread {
                     }
                 }
             }
+            entry.tickCost = System.nanoTime() - start;
         }
     }
 
     void startTick(long tickTime) {
-        if (entries.isEmpty())
+        if (groupsChanged) {
+            this.tickGroups = groups.toArray(EMPTY_GROUPS);
+            this.groupsChanged = false;
+        }
+        if (tickGroups.length == 0 && !dispatcher.isWorkStealing()) {
+            this.tickDuration = 0;
             return; // Nothing to tick
+        }
         this.phaser.register();
         this.tickTime = tickTime;
+        this.groupCursor = 0;
         this.stop = false;
         LockSupport.unpark(this);
     }
 
-    public Collection<ThreadDispatcher.ChunkEntry> entries() {
+    /**
+     * Gets the number of groups that have not been claimed yet during the current tick.
+     *
+     * @return the remaining group count
+     */
+    int remainingGroups() {
+        return tickGroups.length - groupCursor;
+    }
+
+    void addGroup(ThreadDispatcher.ChunkGroup group) {
+        this.groups.add(group);
+        this.groupsChanged = true;
+    }
+
+    boolean removeGroup(ThreadDispatcher.ChunkGroup group) {
+        final boolean removed = groups.remove(group);
+        if (removed) this.groupsChanged = true;
+        return removed;
+    }
+
+    void drainStolenGroups(Consumer<ThreadDispatcher.ChunkGroup> consumer) {
+        this.stolenGroups.forEach(consumer);
+        this.stolenGroups.clear();
+    }
+
+    public @NotNull Collection<ThreadDispatcher.ChunkGroup> groups() {
+        return groups;
+    }
+
+    public @NotNull Collection<ThreadDispatcher.ChunkEntry> entries() {
+        List<ThreadDispatcher.ChunkEntry> entries = new ArrayList<>();
+        for (ThreadDispatcher.ChunkGroup group : groups) {
+            entries.addAll(group.entries());
+        }
         return entries;
     }
 
+    /**
+     * Gets the time spent by this thread during the last tick,
+     * including the groups stolen from other threads.
+     *
+     * @return the last tick duration in nanoseconds
+     */
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
     /**
      * Gets the lock used to ensure the safety of entity acquisition.
      *
@@ -1,10 +1,5 @@
 package net.minestom.server.utils;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.longs.LongArrayList;
-import it.unimi.dsi.fastutil.longs.LongIterator;
-import it.unimi.dsi.fastutil.longs.LongList;
 import net.kyori.adventure.audience.Audience;
 import net.kyori.adventure.audience.ForwardingAudience;
 import net.minestom.server.MinecraftServer;
@@ -17,12 +12,8 @@ import net.minestom.server.listener.manager.PacketListenerManager;
 import net.minestom.server.network.packet.FramedPacket;
 import net.minestom.server.network.packet.server.ComponentHoldingServerPacket;
 import net.minestom.server.network.packet.server.ServerPacket;
-import net.minestom.server.network.player.PlayerConnection;
-import net.minestom.server.network.player.PlayerSocketConnection;
 import net.minestom.server.network.socket.Server;
-import net.minestom.server.utils.binary.BinaryBuffer;
 import net.minestom.server.utils.binary.BinaryWriter;
-import net.minestom.server.utils.binary.PooledBuffers;
 import net.minestom.server.utils.cache.LocalCache;
 import net.minestom.server.utils.callback.validator.PlayerValidator;
 import org.jetbrains.annotations.ApiStatus;
@@ -30,10 +21,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.ByteBuffer;
-import java.util.Collection;
-import java.util.Map;
-import java.util.Objects;
-import java.util.WeakHashMap;
+import java.util.*;
 import java.util.zip.Deflater;
 
 /**
@@ -46,15 +34,13 @@ import java.util.zip.Deflater;
  */
 public final class PacketUtils {
     private static final PacketListenerManager PACKET_LISTENER_MANAGER = MinecraftServer.getPacketListenerManager();
-    private static final LocalCache<Deflater> LOCAL_DEFLATER = LocalCache.of(Deflater::new);
+    // Deflaters indexed by compression level + 1 (DEFAULT_COMPRESSION is -1)
+    private static final LocalCache<Deflater[]> LOCAL_DEFLATERS = LocalCache.of(() -> new Deflater[Deflater.BEST_COMPRESSION + 2]);
 
     /// Local buffers
     private static final LocalCache<ByteBuffer> PACKET_BUFFER = LocalCache.ofBuffer(Server.MAX_PACKET_SIZE);
     private static final LocalCache<ByteBuffer> LOCAL_BUFFER = LocalCache.ofBuffer(Server.MAX_PACKET_SIZE);
 
-    // Viewable packets
-    private static final Map<Viewable, ViewableStorage> VIEWABLE_STORAGE_MAP = new WeakHashMap<>();
-
     private PacketUtils() {
     }
 
@@ -70,8 +56,7 @@ public final class PacketUtils {
      * <ol>
      *     <li>If {@code audience} is a {@link Player}, send the packet to them.</li>
      *     <li>Otherwise, if {@code audience} is a {@link PacketGroupingAudience}, call
-     *     {@link #sendGroupedPacket(Collection, ServerPacket)} on the players that the
-     *     grouping audience contains.</li>
+     *     {@link PacketGroupingAudience#sendGroupedPacket(ServerPacket)}.</li>
      *     <li>Otherwise, if {@code audience} is a {@link ForwardingAudience.Single},
      *     call this method on the single audience inside the forwarding audience.</li>
      *     <li>Otherwise, if {@code audience} is a {@link ForwardingAudience}, call this
@@ -87,7 +72,7 @@ public final class PacketUtils {
         if (audience instanceof Player) {
             ((Player) audience).getPlayerConnection().sendPacket(packet);
         } else if (audience instanceof PacketGroupingAudience) {
-            PacketUtils.sendGroupedPacket(((PacketGroupingAudience) audience).getPlayers(), packet);
+            ((PacketGroupingAudience) audience).sendGroupedPacket(packet);
         } else if (audience instanceof ForwardingAudience.Single) {
             PacketUtils.sendPacket(((ForwardingAudience.Single) audience).audience(), packet);
         } else if (audience instanceof ForwardingAudience) {
@@ -110,28 +95,40 @@ public final class PacketUtils {
                                          @NotNull PlayerValidator playerValidator) {
         if (players.isEmpty())
             return;
-        // work out if the packet needs to be sent individually due to server-side translating
-        boolean needsTranslating = false;
-        if (MinestomAdventure.AUTOMATIC_COMPONENT_TRANSLATION && packet instanceof ComponentHoldingServerPacket) {
-            needsTranslating = ComponentUtils.areAnyTranslatable(((ComponentHoldingServerPacket) packet).components());
-        }
-        if (MinecraftServer.hasGroupedPacket() && !needsTranslating) {
-            // Send grouped packet...
-            if (!PACKET_LISTENER_MANAGER.processServerPacket(packet, players))
-                return;
-            final FramedPacket framedPacket = new FramedPacket(packet, createFramedPacket(packet));
-            // Send packet to all players
+        if (!MinecraftServer.hasGroupedPacket()) {
+            // Write the same packet for each individual players
             players.forEach(player -> {
                 if (!player.isOnline() || !playerValidator.isValid(player))
                     return;
-                player.sendPacket(framedPacket);
+                player.getPlayerConnection().sendPacket(packet, false);
+            });
+        } else if (needsTranslating(packet)) {
+            // Server-side translation, group the players by locale
+            Map<Locale, List<Player>> localeGroups = new HashMap<>();
+            players.forEach(player -> {
+                if (!player.isOnline() || !playerValidator.isValid(player))
+                    return;
+                final Locale locale = Objects.requireNonNullElseGet(player.getLocale(), MinestomAdventure::getDefaultLocale);
+                localeGroups.computeIfAbsent(locale, l -> new ArrayList<>()).add(player);
+            });
+            localeGroups.forEach((locale, group) -> {
+                final ServerPacket translated = ((ComponentHoldingServerPacket) packet)
+                        .copyWithOperator(component -> MinestomAdventure.translate(component, locale));
+                if (!PACKET_LISTENER_MANAGER.processServerPacket(translated, group))
+                    return;
+                final FramedPacket framedPacket = createGroupedPacket(translated);
+                group.forEach(player -> player.sendPacket(framedPacket));
             });
         } else {
-            // Write the same packet for each individual players
+            // Send grouped packet...
+            if (!PACKET_LISTENER_MANAGER.processServerPacket(packet, players))
+                return;
+            final FramedPacket framedPacket = createGroupedPacket(packet);
+            // Send packet to all players
             players.forEach(player -> {
                 if (!player.isOnline() || !playerValidator.isValid(player))
                     return;
-                player.getPlayerConnection().sendPacket(packet, false);
+                player.sendPacket(framedPacket);
             });
         }
     }
@@ -150,7 +147,17 @@ public final class PacketUtils {
         sendGroupedPacket(MinecraftServer.getConnectionManager().getOnlinePlayers(), packet);
     }
 
-    @ApiStatus.Experimental
+    /**
+     * Queues a packet for the viewers of {@code viewable}, it will be written during the next {@link #flush()}.
+     * <p>
+     * This is the default path of {@link Viewable#sendPacketToViewers(ServerPacket)}. Packets are serialized once
+     * for all viewers, and appending does not lock. Viewables without a {@link ViewableStorage}
+     * and packets needing per-player translation are sent immediately using {@link #sendGroupedPacket(Collection, ServerPacket)}.
+     *
+     * @param viewable     the viewable whose viewers should receive the packet
+     * @param serverPacket the packet to send
+     * @param entity       the entity emitting the packet, a player emitting it does not receive it back
+     */
     public static void prepareViewablePacket(@NotNull Viewable viewable, @NotNull ServerPacket serverPacket,
                                              @Nullable Entity entity) {
         if (entity != null && !entity.isAutoViewable()) {
@@ -158,24 +165,47 @@ public final class PacketUtils {
             entity.sendPacketToViewers(serverPacket);
             return;
         }
-        ViewableStorage viewableStorage;
-        synchronized (VIEWABLE_STORAGE_MAP) {
-            viewableStorage = VIEWABLE_STORAGE_MAP.computeIfAbsent(viewable, v -> new ViewableStorage());
+        final Player player = entity instanceof Player ? (Player) entity : null;
+        final ViewableStorage viewableStorage = viewable.getViewableStorage();
+        if (viewableStorage == null || !MinecraftServer.hasGroupedPacket() || needsTranslating(serverPacket)) {
+            if (player == null) {
+                sendGroupedPacket(viewable.getViewers(), serverPacket);
+            } else {
+                sendGroupedPacket(viewable.getViewers(), serverPacket, viewer -> viewer != player);
+            }
+            return;
         }
-        viewableStorage.append(viewable, serverPacket, entity instanceof Player ? (Player) entity : null);
+        final Set<Player> viewers = viewable.getViewers();
+        if (viewers.isEmpty() || !PACKET_LISTENER_MANAGER.processServerPacket(serverPacket, viewers))
+            return;
+        viewableStorage.append(serverPacket, player != null ? player.getEntityId() : 0);
     }
 
-    @ApiStatus.Experimental
     public static void prepareViewablePacket(@NotNull Viewable viewable, @NotNull ServerPacket serverPacket) {
         prepareViewablePacket(viewable, serverPacket, null);
     }
 
+    /**
+     * Writes the packets queued by {@link #prepareViewablePacket(Viewable, ServerPacket, Entity)}
+     * and {@link ViewableStorage}, storages are processed in parallel.
+     */
     @ApiStatus.Internal
     public static void flush() {
-        synchronized (VIEWABLE_STORAGE_MAP) {
-            VIEWABLE_STORAGE_MAP.entrySet().parallelStream().forEach(entry ->
-                    entry.getValue().process(entry.getKey()));
-        }
+        ViewableStorage.processPending(true);
+    }
+
+    /**
+     * Writes the packets queued in {@link ViewableStorage}s from the current thread,
+     * used before sending packets which must not overtake them.
+     */
+    @ApiStatus.Internal
+    public static void flushStorages() {
+        ViewableStorage.processPending(false);
+    }
+
+    private static boolean needsTranslating(@NotNull ServerPacket packet) {
+        return MinestomAdventure.AUTOMATIC_COMPONENT_TRANSLATION && packet instanceof ComponentHoldingServerPacket &&
+                ComponentUtils.areAnyTranslatable(((ComponentHoldingServerPacket) packet).components());
     }
 
     public static void writeFramedPacket(@NotNull ByteBuffer buffer,
@@ -199,24 +229,42 @@ public final class PacketUtils {
         Utils.writeVarInt(buffer, packet.getId());
         packet.write(writerView);
         final int packetSize = buffer.position() - contentStart;
-        final boolean compressed = packetSize >= MinecraftServer.getCompressionThreshold();
-        if (compressed) {
-            // Packet large enough, compress
-            buffer.position(contentStart);
-            final ByteBuffer uncompressedContent = buffer.slice().limit(packetSize);
-            final ByteBuffer uncompressedCopy = localBuffer().put(uncompressedContent).flip();
-
-            Deflater deflater = LOCAL_DEFLATER.get();
-            deflater.setInput(uncompressedCopy);
-            deflater.finish();
-            deflater.deflate(buffer);
-            deflater.reset();
+        boolean compressed = false;
+        if (packetSize >= MinecraftServer.getCompressionThreshold()) {
+            final int level = MinecraftServer.getCompressionLevel(packet.getClass());
+            if (level != Deflater.NO_COMPRESSION) {
+                // Packet large enough, compress from the packet buffer to the local one
+                final ByteBuffer uncompressedContent = buffer.slice(contentStart, packetSize);
+                final ByteBuffer compressedContent = localBuffer().limit(packetSize);
+                Deflater deflater = deflater(level);
+                deflater.setInput(uncompressedContent);
+                deflater.finish();
+                deflater.deflate(compressedContent);
+                // Data which does not fit in its uncompressed size (e.g. already compressed) is sent as-is
+                compressed = deflater.finished();
+                deflater.reset();
+                if (compressed) {
+                    final int compressedSize = compressedContent.position();
+                    buffer.put(contentStart, compressedContent, 0, compressedSize);
+                    buffer.position(contentStart + compressedSize);
+                }
+            }
         }
         // Packet header (Packet + Data Length)
         Utils.writeVarIntHeader(buffer, compressedIndex, buffer.position() - uncompressedIndex);
         Utils.writeVarIntHeader(buffer, uncompressedIndex, compressed ? packetSize : 0);
     }
 
+    private static Deflater deflater(int level) {
+        Deflater[] deflaters = LOCAL_DEFLATERS.get();
+        Deflater deflater = deflaters[level + 1];
+        if (deflater == null) {
+            deflater = new Deflater(level);
+            deflaters[level + 1] = deflater;
+        }
+        return deflater;
+    }
+
     @ApiStatus.Internal
     public static ByteBuffer createFramedPacket(@NotNull ServerPacket packet, boolean compression) {
         ByteBuffer buffer = PACKET_BUFFER.get().clear();
@@ -231,77 +279,27 @@ public final class PacketUtils {
 
     @ApiStatus.Internal
     public static FramedPacket allocateTrimmedPacket(@NotNull ServerPacket packet) {
-        final ByteBuffer temp = PacketUtils.createFramedPacket(packet);
-        final int size = temp.remaining();
-        final ByteBuffer buffer = ByteBuffer.allocateDirect(size).put(0, temp, 0, size);
-        return new FramedPacket(packet, buffer);
+        return trim(packet, createFramedPacket(packet));
     }
 
-    private static final class ViewableStorage {
-        // Player id -> list of offsets to ignore (32:32 bits)
-        private final Int2ObjectMap<LongList> entityIdMap = new Int2ObjectOpenHashMap<>();
-        private final BinaryBuffer buffer = PooledBuffers.get();
-
-        {
-            PooledBuffers.registerBuffer(this, buffer);
-        }
-
-        private synchronized void append(Viewable viewable, ServerPacket serverPacket, Player player) {
-            final ByteBuffer framedPacket = createFramedPacket(serverPacket);
-            final int packetSize = framedPacket.limit();
-            if (packetSize >= buffer.capacity()) {
-                process(viewable);
-                for (Player viewer : viewable.getViewers()) {
-                    if (!Objects.equals(player, viewer)) {
-                        writeTo(viewer.getPlayerConnection(), framedPacket.position(0));
-                    }
-                }
-                return;
-            }
-            if (!buffer.canWrite(packetSize)) process(viewable);
-            final int start = buffer.writerOffset();
-            this.buffer.write(framedPacket);
-            final int end = buffer.writerOffset();
-            if (player != null) {
-                final long offsets = (long) start << 32 | end & 0xFFFFFFFFL;
-                LongList list = entityIdMap.computeIfAbsent(player.getEntityId(), id -> new LongArrayList());
-                list.add(offsets);
-            }
-        }
-
-        private synchronized void process(Viewable viewable) {
-            if (buffer.writerOffset() == 0) return;
-            viewable.getViewers().forEach(this::processPlayer);
-            this.buffer.clear();
-            this.entityIdMap.clear();
-        }
-
-        private void processPlayer(Player player) {
-            final int size = buffer.writerOffset();
-            final PlayerConnection connection = player.getPlayerConnection();
-            final LongList pairs = entityIdMap.get(player.getEntityId());
-            if (pairs != null) {
-                // Ensure that we skip the specified parts of the buffer
-                int lastWrite = 0;
-                for (LongIterator it = pairs.iterator(); it.hasNext(); ) {
-                    final long offsets = it.nextLong();
-                    final int start = (int) (offsets >> 32);
-                    if (start != lastWrite) writeTo(connection, buffer.view(lastWrite, start));
-                    lastWrite = (int) offsets; // End = last 32 bits
-                }
-                if (size != lastWrite) writeTo(connection, buffer.view(lastWrite, size));
-            } else {
-                // Write all
-                writeTo(connection, buffer.view(0, size));
-            }
-        }
+    /**
+     * Creates a packet to send to multiple connections.
+     * <p>
+     * Large packets are copied once in their own buffer to be shared by reference between connections,
+     * smaller ones use the local buffer and are copied by each connection.
+     *
+     * @param packet the packet to frame
+     * @return the framed packet
+     */
+    private static FramedPacket createGroupedPacket(@NotNull ServerPacket packet) {
+        final ByteBuffer temp = createFramedPacket(packet);
+        return temp.remaining() >= Server.SHARED_BUFFER_THRESHOLD ?
+                trim(packet, temp) : new FramedPacket(packet, temp);
+    }
 
-        private static void writeTo(PlayerConnection connection, ByteBuffer buffer) {
-            if (connection instanceof PlayerSocketConnection) {
-                ((PlayerSocketConnection) connection).write(buffer);
-                return;
-            }
-            // TODO for non-socket connection
-        }
+    private static FramedPacket trim(@NotNull ServerPacket packet, @NotNull ByteBuffer temp) {
+        final int size = temp.remaining();
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(size).put(0, temp, 0, size);
+        return new FramedPacket(packet, buffer);
     }
 }
@@ -111,28 +111,7 @@ public final class Utils {
     }
 
     public static void writePaletteBlocks(ByteBuffer buffer, Palette palette) {
-        final short blockCount = palette.getBlockCount();
-        final int bitsPerEntry = palette.getBitsPerEntry();
-
-        buffer.putShort(blockCount);
-        buffer.put((byte) bitsPerEntry);
-
-        // Palette
-        if (bitsPerEntry < 9) {
-            // Palette has to exist
-            final short[] paletteBlockArray = palette.getPaletteBlockArray();
-            final int paletteSize = palette.getLastPaletteIndex() + 1;
-            writeVarInt(buffer, paletteSize);
-            for (int i = 0; i < paletteSize; i++) {
-                writeVarInt(buffer, paletteBlockArray[i]);
-            }
-        }
-
-        final long[] blocks = palette.getBlocks();
-        writeVarInt(buffer, blocks.length);
-        for (long datum : blocks) {
-            buffer.putLong(datum);
-        }
+        palette.write(buffer);
     }
 
     private static final int[] MAGIC = {
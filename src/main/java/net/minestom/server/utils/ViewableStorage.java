@@ -0,0 +1,194 @@
+package net.minestom.server.utils;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.player.PlayerConnection;
+import net.minestom.server.network.player.PlayerSocketConnection;
+import net.minestom.server.network.socket.Server;
+import net.minestom.server.utils.cache.LocalCache;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Packets waiting to be sent to the viewers of a {@link net.minestom.server.Viewable}, attached to the viewable itself.
+ * <p>
+ * Appending is lock-free and can be done from any thread. Packets are serialized once
+ * during {@link PacketUtils#flush()} into a local buffer which is then written to every viewer,
+ * skipping the packets that a viewer emitted itself, and the droppable ones for slow viewers
+ * (see {@link PlayerSocketConnection#isDroppingPackets()}).
+ */
+@ApiStatus.Internal
+public final class ViewableStorage {
+    private static final LocalCache<ByteBuffer> STORAGE_BUFFER = LocalCache.ofBuffer(Server.MAX_PACKET_SIZE);
+    // Storages with pending packets, drained by PacketUtils#flush
+    private static final Queue<ViewableStorage> PENDING_STORAGES = new ConcurrentLinkedQueue<>();
+
+    private final Supplier<? extends Collection<Player>> viewers;
+    private final Queue<Entry> packets = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public ViewableStorage(@NotNull Supplier<? extends Collection<Player>> viewers) {
+        this.viewers = viewers;
+    }
+
+    /**
+     * Queues a packet for the viewers.
+     *
+     * @param packet     the packet to send
+     * @param excludedId the entity id of the viewer which should not receive the packet, 0 if none
+     */
+    public void append(@NotNull ServerPacket packet, int excludedId) {
+        this.packets.offer(new Entry(packet, excludedId));
+        if (scheduled.compareAndSet(false, true)) {
+            PENDING_STORAGES.offer(this);
+        }
+    }
+
+    /**
+     * Writes all the queued packets to the current viewers.
+     * <p>
+     * Called during the flush phase, and before adding a viewer so that it does not receive
+     * packets about a state older than the one it is about to be sent.
+     */
+    public synchronized void process() {
+        this.scheduled.set(false);
+        if (packets.isEmpty()) return;
+        final Collection<Player> viewers = this.viewers.get();
+        if (viewers.isEmpty()) {
+            this.packets.clear();
+            return;
+        }
+        boolean socketOnly = true;
+        for (Player viewer : viewers) {
+            if (!(viewer.getPlayerConnection() instanceof PlayerSocketConnection)) {
+                socketOnly = false;
+                break;
+            }
+        }
+
+        final ByteBuffer buffer = STORAGE_BUFFER.get().clear();
+        // Viewer id -> list of offsets to skip (32:32 bits)
+        Int2ObjectMap<LongList> exclusions = null;
+        // Offsets of the packets skipped for slow viewers
+        LongList droppable = null;
+        Entry entry;
+        while ((entry = packets.poll()) != null) {
+            if (!socketOnly) sendToOtherConnections(viewers, entry);
+            final ByteBuffer framedPacket = PacketUtils.createFramedPacket(entry.packet);
+            final boolean canDrop = PlayerSocketConnection.isDroppable(entry.packet);
+            final int packetSize = framedPacket.remaining();
+            if (packetSize > buffer.remaining()) {
+                write(viewers, buffer, exclusions, droppable);
+                buffer.clear();
+                if (exclusions != null) exclusions.clear();
+                if (droppable != null) droppable.clear();
+                if (packetSize > buffer.capacity()) {
+                    // Too large to be batched
+                    for (Player viewer : viewers) {
+                        if (viewer.getEntityId() == entry.excludedId) continue;
+                        if (canDrop && isDropping(viewer)) continue;
+                        writeTo(viewer, framedPacket.duplicate());
+                    }
+                    continue;
+                }
+            }
+            final int start = buffer.position();
+            buffer.put(framedPacket);
+            final long offsets = (long) start << 32 | buffer.position() & 0xFFFFFFFFL;
+            if (entry.excludedId != 0) {
+                if (exclusions == null) exclusions = new Int2ObjectOpenHashMap<>();
+                exclusions.computeIfAbsent(entry.excludedId, id -> new LongArrayList()).add(offsets);
+            }
+            if (canDrop) {
+                if (droppable == null) droppable = new LongArrayList();
+                droppable.add(offsets);
+            }
+        }
+        write(viewers, buffer, exclusions, droppable);
+    }
+
+    private static void write(Collection<Player> viewers, ByteBuffer buffer,
+                              Int2ObjectMap<LongList> exclusions, LongList droppable) {
+        final int size = buffer.position();
+        if (size == 0) return;
+        for (Player viewer : viewers) {
+            final LongList excluded = exclusions != null ? exclusions.get(viewer.getEntityId()) : null;
+            final LongList dropped = droppable != null && isDropping(viewer) ? droppable : null;
+            if (excluded == null && dropped == null) {
+                writeTo(viewer, buffer.slice(0, size));
+                continue;
+            }
+            // Skip the packets emitted by the viewer or dropped, both lists are sorted
+            int lastWrite = 0;
+            int i = 0, j = 0;
+            final int excludedSize = excluded != null ? excluded.size() : 0;
+            final int droppedSize = dropped != null ? dropped.size() : 0;
+            while (i < excludedSize || j < droppedSize) {
+                final long offsets;
+                if (j == droppedSize || i < excludedSize && excluded.getLong(i) <= dropped.getLong(j)) {
+                    offsets = excluded.getLong(i++);
+                } else {
+                    offsets = dropped.getLong(j++);
+                }
+                final int start = (int) (offsets >> 32);
+                if (start < lastWrite) continue; // Packet both excluded and dropped
+                if (start != lastWrite) writeTo(viewer, buffer.slice(lastWrite, start - lastWrite));
+                lastWrite = (int) offsets; // End = last 32 bits
+            }
+            if (size != lastWrite) writeTo(viewer, buffer.slice(lastWrite, size - lastWrite));
+        }
+    }
+
+    private static boolean isDropping(Player viewer) {
+        return viewer.getPlayerConnection() instanceof PlayerSocketConnection connection && connection.isDroppingPackets();
+    }
+
+    private static void writeTo(Player viewer, ByteBuffer buffer) {
+        if (viewer.getPlayerConnection() instanceof PlayerSocketConnection connection) {
+            connection.write(buffer);
+        }
+    }
+
+    private static void sendToOtherConnections(Collection<Player> viewers, Entry entry) {
+        for (Player viewer : viewers) {
+            final PlayerConnection connection = viewer.getPlayerConnection();
+            if (!(connection instanceof PlayerSocketConnection) && viewer.getEntityId() != entry.excludedId) {
+                connection.sendPacket(entry.packet);
+            }
+        }
+    }
+
+    /**
+     * Processes every storage with pending packets.
+     *
+     * @param parallel true to process the storages concurrently
+     */
+    static void processPending(boolean parallel) {
+        List<ViewableStorage> storages = new ArrayList<>();
+        ViewableStorage storage;
+        while ((storage = PENDING_STORAGES.poll()) != null) {
+            storages.add(storage);
+        }
+        if (parallel && storages.size() > 1) {
+            storages.parallelStream().forEach(ViewableStorage::process);
+        } else {
+            storages.forEach(ViewableStorage::process);
+        }
+    }
+
+    private record Entry(ServerPacket packet, int excludedId) {
+    }
+}
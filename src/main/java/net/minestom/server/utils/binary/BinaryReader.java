@@ -8,6 +8,7 @@ import net.minestom.server.utils.NBTUtils;
 import net.minestom.server.utils.SerializerUtils;
 import net.minestom.server.utils.Utils;
 import net.minestom.server.utils.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jglrxavpok.hephaistos.nbt.NBT;
 import org.jglrxavpok.hephaistos.nbt.NBTException;
@@ -27,7 +28,7 @@ import java.util.function.Supplier;
  * WARNING: not thread-safe.
  */
 public class BinaryReader extends InputStream {
-    private final ByteBuffer buffer;
+    private ByteBuffer buffer;
     private final NBTReader nbtReader = new NBTReader(this, false);
 
     public BinaryReader(@NotNull ByteBuffer buffer) {
@@ -224,6 +225,16 @@ public class BinaryReader extends InputStream {
         return buffer;
     }
 
+    /**
+     * Makes this reader read from another buffer, used to reuse a reader for multiple packets.
+     *
+     * @param buffer the new buffer to read from
+     */
+    @ApiStatus.Internal
+    public void reset(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
     @Override
     public int read() {
         return readByte() & 0xFF;
@@ -1,43 +1,168 @@
 package net.minestom.server.utils.binary;
 
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.Cleaner;
-import java.lang.ref.SoftReference;
 import java.util.Collection;
-import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of direct {@link BinaryBuffer buffers} split into size classes.
+ * <p>
+ * The memory allocated by the pool is limited by {@link #maxMemory()},
+ * a buffer lost without being returned is accounted back once garbage collected.
+ */
 @ApiStatus.Internal
 @ApiStatus.Experimental
 public final class PooledBuffers {
-    private final static Queue<SoftReference<BinaryBuffer>> POOLED_BUFFERS = new ConcurrentLinkedQueue<>();
-    private final static int BUFFER_SIZE = 262_143;
+    private final static int[] SIZE_CLASSES = {4_096, 32_768, 262_144};
+    private final static long MAX_MEMORY = Long.getLong("minestom.pooled-buffers.max-memory", 512L * 1024 * 1024);
     private final static Cleaner CLEANER = Cleaner.create();
 
-    public static BinaryBuffer get() {
-        BinaryBuffer buffer = null;
-        SoftReference<BinaryBuffer> ref;
-        while ((ref = POOLED_BUFFERS.poll()) != null) {
-            buffer = ref.get();
-            if (buffer != null) break;
+    @SuppressWarnings("unchecked")
+    private final static Queue<BinaryBuffer>[] POOLED_BUFFERS = new Queue[SIZE_CLASSES.length];
+
+    static {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            POOLED_BUFFERS[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    // Metrics
+    private final static AtomicLong ALLOCATED_MEMORY = new AtomicLong();
+    private final static AtomicLong POOLED_MEMORY = new AtomicLong();
+    private final static LongAdder HIT_COUNT = new LongAdder();
+    private final static LongAdder MISS_COUNT = new LongAdder();
+
+    /**
+     * Gets a buffer of the biggest size class.
+     *
+     * @return a pooled buffer
+     * @throws OutOfMemoryError if the pool memory limit is reached
+     */
+    public static @NotNull BinaryBuffer get() {
+        return get(bufferSize());
+    }
+
+    /**
+     * Gets a buffer of the smallest size class able to contain {@code size} bytes,
+     * or of the biggest class if none can.
+     *
+     * @param size the minimum wanted size
+     * @return a pooled buffer
+     * @throws OutOfMemoryError if the pool memory limit is reached
+     */
+    public static @NotNull BinaryBuffer get(int size) {
+        final BinaryBuffer buffer = tryGet(size);
+        if (buffer == null) {
+            throw new OutOfMemoryError("Pooled buffers memory limit reached (" + MAX_MEMORY + " bytes)");
+        }
+        return buffer;
+    }
+
+    /**
+     * Same as {@link #get(int)} but returns null instead of exceeding the pool memory limit.
+     *
+     * @param size the minimum wanted size
+     * @return a pooled buffer, null if the pool memory limit is reached
+     */
+    public static @Nullable BinaryBuffer tryGet(int size) {
+        final int sizeClass = sizeClass(size);
+        final int capacity = SIZE_CLASSES[sizeClass];
+        BinaryBuffer buffer = POOLED_BUFFERS[sizeClass].poll();
+        if (buffer != null) {
+            POOLED_MEMORY.addAndGet(-capacity);
+            HIT_COUNT.increment();
+            return buffer;
         }
-        return Objects.requireNonNullElseGet(buffer, () -> BinaryBuffer.ofSize(BUFFER_SIZE));
+        MISS_COUNT.increment();
+        // Reserve the memory before allocating
+        long allocated;
+        do {
+            allocated = ALLOCATED_MEMORY.get();
+            if (allocated + capacity > MAX_MEMORY) return null;
+        } while (!ALLOCATED_MEMORY.compareAndSet(allocated, allocated + capacity));
+        buffer = BinaryBuffer.ofSize(capacity);
+        CLEANER.register(buffer, () -> ALLOCATED_MEMORY.addAndGet(-capacity));
+        return buffer;
     }
 
     public static void add(BinaryBuffer buffer) {
+        final int capacity = buffer.capacity();
+        final int sizeClass = sizeClass(capacity);
+        if (SIZE_CLASSES[sizeClass] != capacity) return; // Not allocated by the pool
         buffer.clear();
-        POOLED_BUFFERS.add(new SoftReference<>(buffer));
+        POOLED_BUFFERS[sizeClass].add(buffer);
+        POOLED_MEMORY.addAndGet(capacity);
     }
 
     public static int count() {
-        return POOLED_BUFFERS.size();
+        int count = 0;
+        for (Queue<BinaryBuffer> buffers : POOLED_BUFFERS) {
+            count += buffers.size();
+        }
+        return count;
     }
 
+    /**
+     * Gets the size of the biggest size class.
+     *
+     * @return the biggest buffer size
+     */
     public static int bufferSize() {
-        return BUFFER_SIZE;
+        return SIZE_CLASSES[SIZE_CLASSES.length - 1];
+    }
+
+    /**
+     * Gets the maximum amount of memory that the pool can allocate,
+     * configurable with the {@code minestom.pooled-buffers.max-memory} property.
+     *
+     * @return the memory limit in bytes
+     */
+    public static long maxMemory() {
+        return MAX_MEMORY;
+    }
+
+    /**
+     * Gets the memory allocated by the pool, used or not.
+     *
+     * @return the allocated memory in bytes
+     */
+    public static long allocatedMemory() {
+        return ALLOCATED_MEMORY.get();
+    }
+
+    /**
+     * Gets the memory currently borrowed from the pool.
+     *
+     * @return the memory in flight in bytes
+     */
+    public static long usedMemory() {
+        return ALLOCATED_MEMORY.get() - POOLED_MEMORY.get();
+    }
+
+    /**
+     * Gets the number of requests served by an already allocated buffer.
+     *
+     * @return the pool hit count
+     */
+    public static long hitCount() {
+        return HIT_COUNT.sum();
+    }
+
+    /**
+     * Gets the number of requests which needed a new allocation.
+     *
+     * @return the pool miss count
+     */
+    public static long missCount() {
+        return MISS_COUNT.sum();
     }
 
     public static void registerBuffer(Object ref, AtomicReference<BinaryBuffer> buffer) {
@@ -52,6 +177,13 @@ public final class PooledBuffers {
         CLEANER.register(ref, new BuffersCleaner(buffers));
     }
 
+    private static int sizeClass(int size) {
+        for (int i = 0; i < SIZE_CLASSES.length; i++) {
+            if (size <= SIZE_CLASSES[i]) return i;
+        }
+        return SIZE_CLASSES.length - 1;
+    }
+
     private static final class BufferRefCleaner implements Runnable {
         private final AtomicReference<BinaryBuffer> bufferRef;
 
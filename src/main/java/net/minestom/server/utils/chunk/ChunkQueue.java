@@ -0,0 +1,191 @@
+package net.minestom.server.utils.chunk;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Set of chunk indexes waiting to be sent to a player, polled by priority.
+ * <p>
+ * Chunks are ordered by distance to the center, those behind the look direction counting as twice as far.
+ * The order is only recomputed when chunks are added, the center changes or the direction
+ * changes octant; sort keys pack the priority and the slot in a single {@code long} to avoid boxing.
+ * <p>
+ * Also keeps the metrics of the chunks sent from the queue.
+ */
+@ApiStatus.Experimental
+public final class ChunkQueue {
+
+    private final LongSet pending = new LongOpenHashSet();
+
+    private long[] order = new long[0];
+    private int orderIndex, orderSize;
+    private boolean sorted = true;
+
+    private int centerX, centerZ;
+    private int octant = -1;
+    private int directionX, directionZ;
+
+    // Metrics
+    private volatile long sentChunks, sentBytes;
+    private volatile double chunkRate, byteRate;
+
+    public synchronized void add(long chunkIndex) {
+        if (pending.add(chunkIndex)) this.sorted = false;
+    }
+
+    public synchronized boolean remove(long chunkIndex) {
+        return pending.remove(chunkIndex);
+    }
+
+    public synchronized boolean contains(long chunkIndex) {
+        return pending.contains(chunkIndex);
+    }
+
+    public synchronized void clear() {
+        this.pending.clear();
+        this.orderIndex = orderSize = 0;
+        this.sorted = true;
+    }
+
+    /**
+     * Gets the number of chunks waiting to be sent.
+     *
+     * @return the queue depth
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return pending.isEmpty();
+    }
+
+    /**
+     * Changes the position and direction used to prioritize the queued chunks.
+     *
+     * @param chunkX the center chunk X
+     * @param chunkZ the center chunk Z
+     * @param yaw    the look direction
+     */
+    public synchronized void center(int chunkX, int chunkZ, float yaw) {
+        final int octant = Math.floorMod(Math.round(yaw / 45f), 8);
+        if (centerX == chunkX && centerZ == chunkZ && this.octant == octant) return;
+        this.centerX = chunkX;
+        this.centerZ = chunkZ;
+        if (this.octant != octant) {
+            this.octant = octant;
+            final double radians = Math.toRadians(octant * 45);
+            this.directionX = (int) Math.round(-Math.sin(radians));
+            this.directionZ = (int) Math.round(Math.cos(radians));
+        }
+        this.sorted = false;
+    }
+
+    /**
+     * Removes chunks from the queue by priority until {@code limit} chunks have been polled
+     * or {@code consumer} returns false.
+     *
+     * @param limit    the maximum number of chunks to poll
+     * @param consumer consumer of the chunk indexes, returns false once the budget is exhausted
+     * @return the number of polled chunks
+     */
+    public int drain(int limit, @NotNull LongPredicate consumer) {
+        int count = 0;
+        while (count < limit) {
+            long chunkIndex = 0;
+            boolean found = false;
+            synchronized (this) {
+                if (!sorted) sort();
+                while (orderIndex < orderSize) {
+                    chunkIndex = order[orderIndex++];
+                    // Entries removed since the last sort are skipped
+                    if (pending.remove(chunkIndex)) {
+                        found = true;
+                        break;
+                    }
+                }
+            }
+            if (!found) break;
+            count++;
+            // Run the consumer outside the lock, it may want to queue chunks
+            if (!consumer.test(chunkIndex)) break;
+        }
+        return count;
+    }
+
+    /**
+     * Records the chunks sent during a tick.
+     *
+     * @param chunks the number of chunks sent
+     * @param bytes  the number of bytes written, 0 if unknown
+     */
+    public synchronized void record(int chunks, long bytes) {
+        this.sentChunks += chunks;
+        this.sentBytes += bytes;
+        // Exponential moving average over roughly one second
+        this.chunkRate += (chunks - chunkRate) / 20d;
+        this.byteRate += (bytes - byteRate) / 20d;
+    }
+
+    /**
+     * Gets the total number of chunks sent from this queue.
+     *
+     * @return the sent chunks
+     */
+    public long getSentChunks() {
+        return sentChunks;
+    }
+
+    /**
+     * Gets the total number of bytes sent from this queue.
+     *
+     * @return the sent bytes
+     */
+    public long getSentBytes() {
+        return sentBytes;
+    }
+
+    /**
+     * Gets the average number of chunks sent per tick.
+     *
+     * @return the chunk send rate
+     */
+    public double getChunksPerTick() {
+        return chunkRate;
+    }
+
+    /**
+     * Gets the average number of bytes sent per tick.
+     *
+     * @return the byte send rate
+     */
+    public double getBytesPerTick() {
+        return byteRate;
+    }
+
+    private void sort() {
+        final long[] chunks = pending.toLongArray();
+        final long[] keys = new long[chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            final long dx = ChunkUtils.getChunkCoordX(chunks[i]) - centerX;
+            final long dz = ChunkUtils.getChunkCoordZ(chunks[i]) - centerZ;
+            final boolean behind = dx * directionX + dz * directionZ < 0;
+            final long distance = dx * dx + dz * dz;
+            final long priority = behind ? distance * 4 + 1 : distance * 2;
+            keys[i] = (priority << 32) | i;
+        }
+        Arrays.sort(keys);
+        if (order.length < chunks.length) this.order = new long[chunks.length];
+        for (int i = 0; i < keys.length; i++) {
+            this.order[i] = chunks[(int) keys[i]];
+        }
+        this.orderIndex = 0;
+        this.orderSize = chunks.length;
+        this.sorted = true;
+    }
+}
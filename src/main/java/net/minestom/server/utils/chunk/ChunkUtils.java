@@ -12,6 +12,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
 
 @ApiStatus.Internal
 public final class ChunkUtils {
@@ -162,6 +163,44 @@ public final class ChunkUtils {
         return getChunksInRange(point.chunkX(), point.chunkZ(), range);
     }
 
+    /**
+     * Calls {@code callback} for every chunk in the square of radius {@code newRange} around the new center
+     * which is not in the square of radius {@code oldRange} around the old center.
+     * <p>
+     * Only the differing strips are iterated, a negative {@code oldRange} means that there was no previous square.
+     * Swap the arguments to retrieve the chunks leaving the view.
+     *
+     * @param newChunkX the new center chunk X
+     * @param newChunkZ the new center chunk Z
+     * @param newRange  the new range
+     * @param oldChunkX the old center chunk X
+     * @param oldChunkZ the old center chunk Z
+     * @param oldRange  the old range, negative if none
+     * @param callback  consumer of the chunk indexes
+     */
+    public static void forDifferingChunksInRange(int newChunkX, int newChunkZ, int newRange,
+                                                 int oldChunkX, int oldChunkZ, int oldRange,
+                                                 @NotNull LongConsumer callback) {
+        final int newMinZ = newChunkZ - newRange, newMaxZ = newChunkZ + newRange;
+        final int oldMinZ = oldChunkZ - oldRange, oldMaxZ = oldChunkZ + oldRange;
+        final boolean noOld = oldRange < 0;
+        for (int x = newChunkX - newRange; x <= newChunkX + newRange; x++) {
+            if (noOld || x < oldChunkX - oldRange || x > oldChunkX + oldRange) {
+                // Whole column is outside the previous square
+                for (int z = newMinZ; z <= newMaxZ; z++) {
+                    callback.accept(getChunkIndex(x, z));
+                }
+            } else {
+                for (int z = newMinZ; z <= Math.min(newMaxZ, oldMinZ - 1); z++) {
+                    callback.accept(getChunkIndex(x, z));
+                }
+                for (int z = Math.max(newMinZ, oldMaxZ + 1); z <= newMaxZ; z++) {
+                    callback.accept(getChunkIndex(x, z));
+                }
+            }
+        }
+    }
+
     /**
      * Gets the block index of a position.
      *
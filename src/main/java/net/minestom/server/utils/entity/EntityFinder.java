@@ -139,7 +139,9 @@ public class EntityFinder {
 
         final Point pos = startPosition != null ? startPosition : (self != null ? self.getPosition() : Vec.ZERO);
 
-        List<Entity> result = findTarget(instance, targetSelector, pos, self);
+        List<Entity> result = instance != null && distance != null ?
+                findNearby(instance, targetSelector, pos, distance.getMaximum()) : null;
+        if (result == null) result = findTarget(instance, targetSelector, pos, self);
         // Fast exit if there is nothing to process
         if (result.isEmpty())
             return result;
@@ -351,6 +353,27 @@ public class EntityFinder {
         throw new IllegalStateException("Weird thing happened: " + targetSelector);
     }
 
+    /**
+     * Collects the candidates using the instance spatial index when the selector is bounded by a distance.
+     *
+     * @return the candidates, null if the selector cannot use the index
+     */
+    private static @Nullable List<@NotNull Entity> findNearby(@NotNull Instance instance,
+                                                             @NotNull TargetSelector targetSelector,
+                                                             @NotNull Point startPosition, double maxDistance) {
+        final Class<? extends Entity> type;
+        if (targetSelector == TargetSelector.ALL_ENTITIES) {
+            type = Entity.class;
+        } else if (targetSelector == TargetSelector.ALL_PLAYERS) {
+            type = Player.class;
+        } else {
+            return null;
+        }
+        List<Entity> entities = new ArrayList<>();
+        instance.getEntityIndex().visitSphere(startPosition, maxDistance, type, entities::add);
+        return entities;
+    }
+
     private static <T> boolean filterToggleableMap(@NotNull T value, @NotNull ToggleableMap<T> map) {
         for (var entry : Object2BooleanMaps.fastIterable(map)) {
             if (entry.getBooleanValue() != Objects.equals(value, entry.getKey())) {
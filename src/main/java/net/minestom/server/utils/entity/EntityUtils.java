@@ -6,7 +6,6 @@ import net.minestom.server.entity.Entity;
 import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.block.Block;
-import net.minestom.server.utils.chunk.ChunkUtils;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.function.Consumer;
@@ -19,15 +18,7 @@ public final class EntityUtils {
     public static void forEachRange(@NotNull Instance instance, @NotNull Point point,
                                     int viewDistance,
                                     @NotNull Consumer<Entity> consumer) {
-        final long[] chunksInRange = ChunkUtils.getChunksInRange(point, viewDistance);
-        for (long chunkIndex : chunksInRange) {
-            final int chunkX = ChunkUtils.getChunkCoordX(chunkIndex);
-            final int chunkZ = ChunkUtils.getChunkCoordZ(chunkIndex);
-            final Chunk chunk = instance.getChunk(chunkX, chunkZ);
-            if (chunk == null)
-                continue;
-            instance.getChunkEntities(chunk).forEach(consumer);
-        }
+        instance.getEntityIndex().visitChunks(point, viewDistance, consumer);
     }
 
     public static boolean isOnGround(@NotNull Entity entity) {
@@ -0,0 +1,148 @@
+package command;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectRBTreeMap;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.command.CommandSender;
+import net.minestom.server.command.builder.Command;
+import net.minestom.server.command.builder.CommandContext;
+import net.minestom.server.command.builder.CommandDispatcher;
+import net.minestom.server.command.builder.CommandSyntax;
+import net.minestom.server.command.builder.arguments.Argument;
+import net.minestom.server.command.builder.arguments.ArgumentType;
+import net.minestom.server.command.builder.parser.CommandParser;
+import net.minestom.server.command.builder.parser.CommandSuggestionHolder;
+import net.minestom.server.command.builder.parser.ValidSyntaxHolder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestCommandSyntaxIndex {
+
+    private static final String[] LITERALS = {"a", "b", "c"};
+    private static final String[] INPUTS = {"a", "b", "c", "d", "1", "2"};
+
+    private final List<String> executions = new ArrayList<>();
+
+    private CommandDispatcher dispatcher;
+    private CommandSender sender;
+
+    @BeforeEach
+    public void init() {
+        MinecraftServer.init(); // for the command manager
+        this.dispatcher = MinecraftServer.getCommandManager().getDispatcher();
+        this.sender = MinecraftServer.getCommandManager().getConsoleSender();
+    }
+
+    @Test
+    public void sameResultAsFullParse() {
+        for (int seed = 0; seed < 50; seed++) {
+            final Random random = new Random(seed);
+            final String name = "syntaxindex" + seed;
+            Command command = new Command(name);
+            command.setDefaultExecutor((sender, context) -> executions.add("default"));
+            final int syntaxCount = 1 + random.nextInt(12);
+            for (int i = 0; i < syntaxCount; i++) {
+                addRandomSyntax(command, random, i);
+            }
+            MinecraftServer.getCommandManager().register(command);
+
+            for (int i = 0; i < 100; i++) {
+                final int argumentCount = 1 + random.nextInt(4);
+                String[] args = new String[argumentCount];
+                for (int j = 0; j < argumentCount; j++) {
+                    args[j] = INPUTS[random.nextInt(INPUTS.length)];
+                }
+                final String input = name + " " + String.join(" ", args);
+
+                executions.clear();
+                fullParse(command, args, input);
+                final List<String> expected = List.copyOf(executions);
+
+                executions.clear();
+                dispatcher.execute(sender, input);
+                assertEquals(expected, executions, "Seed " + seed + ", input: " + input);
+            }
+            MinecraftServer.getCommandManager().unregister(command);
+        }
+    }
+
+    @Test
+    public void modifiedSyntaxes() {
+        Command command = new Command("modifiedsyntaxes");
+        command.setDefaultExecutor((sender, context) -> executions.add("default"));
+        command.addSyntax((sender, context) -> executions.add("first"),
+                ArgumentType.Literal("a"), ArgumentType.Word("word"));
+        MinecraftServer.getCommandManager().register(command);
+
+        dispatcher.execute(sender, "modifiedsyntaxes a word");
+        assertEquals(List.of("first"), executions);
+
+        // The collection is the one used by the dispatcher
+        command.getSyntaxes().clear();
+        command.addSyntax((sender, context) -> executions.add("second"),
+                ArgumentType.Literal("b"), ArgumentType.Word("word"));
+        executions.clear();
+        dispatcher.execute(sender, "modifiedsyntaxes b word");
+        assertEquals(List.of("second"), executions);
+
+        executions.clear();
+        dispatcher.execute(sender, "modifiedsyntaxes a other");
+        assertEquals(List.of("default"), executions);
+        MinecraftServer.getCommandManager().unregister(command);
+    }
+
+    private void addRandomSyntax(Command command, Random random, int syntaxId) {
+        final int argumentCount = 1 + random.nextInt(4);
+        Argument<?>[] arguments = new Argument[argumentCount];
+        for (int i = 0; i < argumentCount; i++) {
+            final int type = random.nextInt(10);
+            final Argument<?> argument;
+            if (type < 6) {
+                argument = ArgumentType.Literal(LITERALS[random.nextInt(LITERALS.length)]);
+            } else if (type < 8) {
+                argument = ArgumentType.Integer("integer" + i);
+            } else {
+                argument = ArgumentType.Word("word" + i);
+            }
+            if (random.nextBoolean()) {
+                final String label = "callback " + syntaxId + "." + i;
+                argument.setCallback((sender, exception) ->
+                        executions.add(label + " " + exception.getErrorCode() + " " + exception.getInput()));
+            }
+            arguments[i] = argument;
+        }
+        final String label = "syntax " + syntaxId;
+        command.addSyntax((sender, context) ->
+                executions.add(label + " " + new TreeMap<>(context.getMap())), arguments);
+    }
+
+    /**
+     * Executes the input by parsing every syntax of the command, without the index.
+     */
+    private void fullParse(Command command, String[] args, String input) {
+        List<ValidSyntaxHolder> validSyntaxes = new ArrayList<>();
+        Int2ObjectRBTreeMap<CommandSuggestionHolder> syntaxesSuggestions = new Int2ObjectRBTreeMap<>(Collections.reverseOrder());
+        for (CommandSyntax syntax : command.getSyntaxes()) {
+            CommandParser.parse(syntax, syntax.getArguments(), args, input, validSyntaxes, syntaxesSuggestions);
+        }
+
+        CommandContext context = new CommandContext(input);
+        final ValidSyntaxHolder validSyntax = CommandParser.findMostCorrectSyntax(validSyntaxes, context);
+        if (validSyntax != null) {
+            validSyntax.syntax.getExecutor().apply(sender, context);
+            return;
+        }
+        if (!syntaxesSuggestions.isEmpty()) {
+            final CommandSuggestionHolder holder = syntaxesSuggestions.get(syntaxesSuggestions.firstIntKey());
+            final Argument<?> argument = holder.syntax.getArguments()[holder.argIndex];
+            if (argument.hasErrorCallback() && holder.argumentSyntaxException != null) {
+                argument.getCallback().apply(sender, holder.argumentSyntaxException);
+                return;
+            }
+        }
+        command.getDefaultExecutor().apply(sender, context);
+    }
+}
@@ -0,0 +1,151 @@
+package instance;
+
+import net.minestom.server.instance.palette.Palette;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPalette {
+
+    private static final int SIZE = 16;
+
+    @Test
+    public void singleValueByDefault() {
+        Palette palette = new Palette(8, 2);
+        assertTrue(palette.isSingleValue());
+        assertEquals(0, palette.getBlockCount());
+        assertEquals(0, palette.getBlocks().length);
+
+        // Placing the same block does not allocate
+        palette.setBlockAt(0, 0, 0, (short) 0);
+        assertTrue(palette.isSingleValue());
+
+        palette.fill((short) 5);
+        assertTrue(palette.isSingleValue());
+        assertEquals(Palette.BLOCK_COUNT, palette.getBlockCount());
+        assertEquals(5, palette.getBlockAt(3, 7, 9));
+
+        palette.setBlockAt(1, 2, 3, (short) 0);
+        assertFalse(palette.isSingleValue());
+        assertEquals(Palette.BLOCK_COUNT - 1, palette.getBlockCount());
+        assertEquals(0, palette.getBlockAt(1, 2, 3));
+        assertEquals(5, palette.getBlockAt(3, 7, 9));
+    }
+
+    @Test
+    public void indirectToDirect() {
+        Palette palette = new Palette(4, 2);
+        short[] reference = new short[Palette.BLOCK_COUNT];
+        // Air is the first palette entry, the last block does not fit in the biggest indirect palette
+        final int paletteCapacity = 1 << Palette.PALETTE_MAXIMUM_BITS;
+        for (int i = 0; i < paletteCapacity; i++) {
+            set(palette, reference, i, (short) (i + 1));
+            if (i < paletteCapacity - 1) {
+                assertTrue(palette.getBitsPerEntry() <= Palette.PALETTE_MAXIMUM_BITS);
+            }
+        }
+        assertEquals(Palette.MAXIMUM_BITS_PER_ENTRY, palette.getBitsPerEntry());
+        assertPalette(reference, palette);
+    }
+
+    @Test
+    public void randomOperations() {
+        for (int seed = 0; seed < 50; seed++) {
+            final Random random = new Random(seed);
+            // Small pools stay indirect and linear, bigger ones are hashed or direct
+            final int poolSize = switch (seed % 4) {
+                case 0 -> 2;
+                case 1 -> 12;
+                case 2 -> 100;
+                default -> 1000;
+            };
+            final short[] pool = new short[poolSize];
+            for (int i = 0; i < poolSize; i++) {
+                pool[i] = (short) (i == 0 ? 0 : 1 + random.nextInt(20_000));
+            }
+
+            Palette palette = new Palette(random.nextInt(9), 1 + random.nextInt(2));
+            short[] reference = new short[Palette.BLOCK_COUNT];
+            for (int step = 0; step < 200; step++) {
+                final int operation = random.nextInt(100);
+                if (operation < 80) {
+                    for (int i = 0; i < 50; i++) {
+                        set(palette, reference, random.nextInt(Palette.BLOCK_COUNT), pool[random.nextInt(poolSize)]);
+                    }
+                } else if (operation < 84) {
+                    final short blockId = pool[random.nextInt(poolSize)];
+                    palette.fill(blockId);
+                    Arrays.fill(reference, blockId);
+                } else if (operation < 90) {
+                    final int minY = random.nextInt(SIZE);
+                    final int maxY = minY + random.nextInt(SIZE - minY + 1);
+                    final short blockId = pool[random.nextInt(poolSize)];
+                    palette.fill(minY, maxY, blockId);
+                    Arrays.fill(reference, minY << 8, maxY << 8, blockId);
+                } else if (operation < 95) {
+                    palette.resize(random.nextInt(Palette.MAXIMUM_BITS_PER_ENTRY + 2));
+                } else if (operation < 97) {
+                    palette.clean();
+                } else {
+                    // The clone must not share its arrays
+                    Palette clone = palette.clone();
+                    assertPalette(reference, clone);
+                    clone.setBlockAt(0, 0, 0, (short) (reference[0] + 1));
+                }
+                assertPalette(reference, palette);
+            }
+        }
+    }
+
+    @Test
+    public void randomSetAll() {
+        final Random random = new Random(0);
+        for (int iteration = 0; iteration < 50; iteration++) {
+            final int bitsPerIndex = 1 + random.nextInt(12);
+            final int paletteLength = 1 + random.nextInt(Math.min(1 << bitsPerIndex, 1000));
+            short[] blockPalette = new short[paletteLength];
+            for (int i = 0; i < paletteLength; i++) {
+                blockPalette[i] = (short) random.nextInt(20_000);
+            }
+            // Indices do not span over multiple longs
+            final int indicesPerLong = Long.SIZE / bitsPerIndex;
+            long[] indices = new long[(Palette.BLOCK_COUNT + indicesPerLong - 1) / indicesPerLong];
+            short[] reference = new short[Palette.BLOCK_COUNT];
+            for (int i = 0; i < Palette.BLOCK_COUNT; i++) {
+                final int index = random.nextInt(paletteLength);
+                indices[i / indicesPerLong] |= (long) index << (i % indicesPerLong) * bitsPerIndex;
+                reference[i] = blockPalette[index];
+            }
+
+            Palette palette = new Palette(4, 2);
+            palette.setBlockAt(1, 1, 1, (short) 1); // Replaced by the new content
+            palette.setAll(blockPalette, indices, bitsPerIndex);
+            assertPalette(reference, palette);
+
+            // Modifications after a bulk load
+            for (int i = 0; i < 100; i++) {
+                set(palette, reference, random.nextInt(Palette.BLOCK_COUNT), (short) random.nextInt(20_000));
+            }
+            assertPalette(reference, palette);
+        }
+    }
+
+    private static void set(Palette palette, short[] reference, int index, short blockId) {
+        palette.setBlockAt(index & 0xF, index >> 8, index >> 4 & 0xF, blockId);
+        reference[index] = blockId;
+    }
+
+    private static void assertPalette(short[] reference, Palette palette) {
+        int blockCount = 0;
+        for (int index = 0; index < Palette.BLOCK_COUNT; index++) {
+            final short expected = reference[index];
+            if (expected != 0) blockCount++;
+            assertEquals(index, Palette.getSectionIndex(index & 0xF, index >> 8, index >> 4 & 0xF));
+            assertEquals(expected, palette.getBlockAt(index & 0xF, index >> 8, index >> 4 & 0xF), "Block at index " + index);
+        }
+        assertEquals(blockCount, palette.getBlockCount());
+    }
+}
@@ -0,0 +1,128 @@
+package network;
+
+import net.minestom.server.network.packet.client.ClientPlayPacket;
+import net.minestom.server.network.packet.client.play.*;
+import net.minestom.server.network.player.ClientPacketQueue;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestClientPacketQueue {
+
+    @Test
+    public void keepOrderAroundOtherPackets() {
+        ClientPacketQueue queue = new ClientPacketQueue(16);
+        final ClientPlayerPositionPacket first = position(1, 2, 3);
+        final ClientKeepAlivePacket keepAlive = new ClientKeepAlivePacket();
+        final ClientPlayerPositionPacket second = position(4, 5, 6);
+        final ClientPlayerPositionPacket third = position(7, 8, 9);
+        assertTrue(queue.offer(first));
+        assertTrue(queue.offer(keepAlive));
+        assertTrue(queue.offer(second));
+        assertTrue(queue.offer(third));
+        // The movement after the keep alive is not merged with the one before it
+        assertEquals(3, queue.size());
+
+        assertSame(first, queue.poll());
+        assertSame(keepAlive, queue.poll());
+        // Only the last position is kept
+        assertSame(third, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void mergeKeepsPositionAndRotation() {
+        ClientPacketQueue queue = new ClientPacketQueue(16);
+        queue.offer(position(1, 2, 3));
+        queue.offer(rotation(45, 10));
+        ClientPlayerPacket ground = new ClientPlayerPacket();
+        ground.onGround = true;
+        queue.offer(ground);
+        assertEquals(1, queue.size());
+
+        final ClientPlayPacket packet = queue.poll();
+        final ClientPlayerPositionAndRotationPacket merged = assertInstanceOf(ClientPlayerPositionAndRotationPacket.class, packet);
+        assertEquals(1, merged.x);
+        assertEquals(2, merged.y);
+        assertEquals(3, merged.z);
+        assertEquals(45, merged.yaw);
+        assertEquals(10, merged.pitch);
+        // The ground state comes from the last packet
+        assertTrue(merged.onGround);
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void mergeReplacesPosition() {
+        ClientPacketQueue queue = new ClientPacketQueue(16);
+        queue.offer(positionAndRotation(1, 2, 3, 90, 20));
+        queue.offer(position(4, 5, 6));
+
+        final ClientPlayerPositionAndRotationPacket merged =
+                assertInstanceOf(ClientPlayerPositionAndRotationPacket.class, queue.poll());
+        assertEquals(4, merged.x);
+        assertEquals(5, merged.y);
+        assertEquals(6, merged.z);
+        assertEquals(90, merged.yaw);
+        assertEquals(20, merged.pitch);
+    }
+
+    @Test
+    public void movementAfterPollTakesNewSlot() {
+        ClientPacketQueue queue = new ClientPacketQueue(16);
+        final ClientPlayerPositionPacket first = position(1, 2, 3);
+        final ClientPlayerRotationPacket second = rotation(45, 10);
+        queue.offer(first);
+        assertSame(first, queue.poll());
+        // The polled slot cannot be merged anymore
+        queue.offer(second);
+        assertEquals(1, queue.size());
+        assertSame(second, queue.poll());
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void offerFailsWhenFull() {
+        ClientPacketQueue queue = new ClientPacketQueue(4);
+        assertEquals(4, queue.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(new ClientKeepAlivePacket()));
+        }
+        assertFalse(queue.offer(new ClientKeepAlivePacket()));
+        assertFalse(queue.offer(position(1, 2, 3)));
+        assertEquals(4, queue.size());
+
+        // Space is available again once polled
+        assertNotNull(queue.poll());
+        assertTrue(queue.offer(position(1, 2, 3)));
+        // Merged into the queued movement, no space needed
+        assertTrue(queue.offer(rotation(45, 10)));
+        assertEquals(4, queue.size());
+    }
+
+    private static ClientPlayerPositionPacket position(double x, double y, double z) {
+        ClientPlayerPositionPacket packet = new ClientPlayerPositionPacket();
+        packet.x = x;
+        packet.y = y;
+        packet.z = z;
+        return packet;
+    }
+
+    private static ClientPlayerRotationPacket rotation(float yaw, float pitch) {
+        ClientPlayerRotationPacket packet = new ClientPlayerRotationPacket();
+        packet.yaw = yaw;
+        packet.pitch = pitch;
+        return packet;
+    }
+
+    private static ClientPlayerPositionAndRotationPacket positionAndRotation(double x, double y, double z,
+                                                                            float yaw, float pitch) {
+        ClientPlayerPositionAndRotationPacket packet = new ClientPlayerPositionAndRotationPacket();
+        packet.x = x;
+        packet.y = y;
+        packet.z = z;
+        packet.yaw = yaw;
+        packet.pitch = pitch;
+        return packet;
+    }
+}
@@ -0,0 +1,67 @@
+package network;
+
+import net.minestom.server.network.player.PlayerSocketConnection;
+import net.minestom.server.network.socket.Worker;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class TestTickBufferWrite {
+
+    @Test
+    public void writeMoreThanTickBuffer() throws Exception {
+        // Several times the smallest pooled buffer, so that the tick buffer is replaced multiple times
+        final byte[] data = new byte[64 * 1024];
+        new Random(42).nextBytes(data);
+
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            try (SocketChannel client = SocketChannel.open(server.getLocalAddress());
+                 SocketChannel channel = server.accept()) {
+                Worker worker = new Worker(null, null);
+                PlayerSocketConnection connection = new PlayerSocketConnection(worker, channel, channel.getRemoteAddress());
+
+                // Write in uneven chunks
+                Random random = new Random(0);
+                int position = 0;
+                while (position < data.length) {
+                    final int length = Math.min(data.length - position, 1 + random.nextInt(3000));
+                    connection.write(ByteBuffer.wrap(data, position, length));
+                    position += length;
+                }
+                connection.flush();
+
+                CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                    try {
+                        Worker.Context context = new Worker.Context();
+                        //noinspection StatementWithEmptyBody
+                        while (!connection.writeWaitingBuffers(context)) ;
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+
+                ByteArrayOutputStream received = new ByteArrayOutputStream();
+                ByteBuffer readBuffer = ByteBuffer.allocate(8192);
+                while (received.size() < data.length) {
+                    final int read = client.read(readBuffer.clear());
+                    if (read == -1) break;
+                    received.write(readBuffer.array(), 0, read);
+                }
+                writer.get(10, TimeUnit.SECONDS);
+
+                assertArrayEquals(data, received.toByteArray());
+            }
+        }
+    }
+}